@@ -31,6 +31,7 @@ subprojects {
         add("implementation", "com.google.guava:guava:32.1.3-jre")
         add("implementation", "com.google.code.gson:gson:2.10.1")
 
+        add("testImplementation", files(rootProject.file("libs/HytaleServer.jar")))
         add("testImplementation", "org.junit.jupiter:junit-jupiter:5.10.1")
         add("testRuntimeOnly", "org.junit.platform:junit-platform-launcher")
     }
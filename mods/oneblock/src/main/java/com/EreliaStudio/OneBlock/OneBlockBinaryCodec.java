@@ -0,0 +1,210 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Tagged binary form of a JSON tree: one tag byte per value, integers as zig-zag varints,
+ * strings and containers prefixed with a varint length. A leading version byte allows the
+ * layout to change later.
+ */
+public final class OneBlockBinaryCodec
+{
+    private static final int VERSION = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INTEGER = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_ARRAY = 6;
+    private static final int TAG_OBJECT = 7;
+
+    private OneBlockBinaryCodec() {}
+
+    public static byte[] encode(JsonObject value) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+        writeElement(out, value);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static JsonObject decode(byte[] bytes) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int version = in.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Unsupported binary state version " + version);
+
+        JsonElement element = readElement(in);
+        if (!element.isJsonObject()) throw new IOException("Binary state is not an object");
+        return element.getAsJsonObject();
+    }
+
+    private static void writeElement(DataOutputStream out, JsonElement element) throws IOException
+    {
+        if (element == null || element.isJsonNull())
+        {
+            out.writeByte(TAG_NULL);
+        }
+        else if (element.isJsonObject())
+        {
+            JsonObject object = element.getAsJsonObject();
+            out.writeByte(TAG_OBJECT);
+            writeVarLong(out, object.size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet())
+            {
+                writeString(out, entry.getKey());
+                writeElement(out, entry.getValue());
+            }
+        }
+        else if (element.isJsonArray())
+        {
+            JsonArray array = element.getAsJsonArray();
+            out.writeByte(TAG_ARRAY);
+            writeVarLong(out, array.size());
+            for (JsonElement item : array) writeElement(out, item);
+        }
+        else
+        {
+            writePrimitive(out, element.getAsJsonPrimitive());
+        }
+    }
+
+    private static void writePrimitive(DataOutputStream out, JsonPrimitive primitive) throws IOException
+    {
+        if (primitive.isBoolean())
+        {
+            out.writeByte(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+        }
+        else if (primitive.isNumber())
+        {
+            BigDecimal number = primitive.getAsBigDecimal();
+            if (isLong(number))
+            {
+                out.writeByte(TAG_INTEGER);
+                long value = number.longValueExact();
+                writeVarLong(out, (value << 1) ^ (value >> 63));
+            }
+            else
+            {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(number.doubleValue());
+            }
+        }
+        else
+        {
+            out.writeByte(TAG_STRING);
+            writeString(out, primitive.getAsString());
+        }
+    }
+
+    private static JsonElement readElement(DataInputStream in) throws IOException
+    {
+        int tag = in.readUnsignedByte();
+        switch (tag)
+        {
+            case TAG_NULL: return JsonNull.INSTANCE;
+            case TAG_FALSE: return new JsonPrimitive(false);
+            case TAG_TRUE: return new JsonPrimitive(true);
+            case TAG_INTEGER:
+            {
+                long zigzag = readVarLong(in);
+                return new JsonPrimitive((zigzag >>> 1) ^ -(zigzag & 1));
+            }
+            case TAG_DOUBLE: return new JsonPrimitive(in.readDouble());
+            case TAG_STRING: return new JsonPrimitive(readString(in));
+            case TAG_ARRAY:
+            {
+                int size = readLength(in);
+                JsonArray array = new JsonArray(size);
+                for (int i = 0; i < size; i++) array.add(readElement(in));
+                return array;
+            }
+            case TAG_OBJECT:
+            {
+                int size = readLength(in);
+                JsonObject object = new JsonObject();
+                for (int i = 0; i < size; i++)
+                {
+                    String key = readString(in);
+                    object.add(key, readElement(in));
+                }
+                return object;
+            }
+            default: throw new IOException("Unknown binary state tag " + tag);
+        }
+    }
+
+    private static boolean isLong(BigDecimal number)
+    {
+        try
+        {
+            number.longValueExact();
+            return true;
+        }
+        catch (ArithmeticException e)
+        {
+            return false;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in binary state");
+    }
+
+    private static int readLength(DataInputStream in) throws IOException
+    {
+        long length = readVarLong(in);
+        if (length < 0 || length > in.available()) throw new EOFException("Truncated binary state");
+        return (int) length;
+    }
+}
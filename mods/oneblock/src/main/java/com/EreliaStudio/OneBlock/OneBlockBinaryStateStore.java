@@ -0,0 +1,27 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** Compact backend: one {@link OneBlockBinaryCodec} file per key. */
+public final class OneBlockBinaryStateStore extends OneBlockFileStateStore
+{
+    public OneBlockBinaryStateStore(Path root)
+    {
+        super(root, ".bin");
+    }
+
+    @Override
+    protected byte[] encode(JsonObject value) throws IOException
+    {
+        return OneBlockBinaryCodec.encode(value);
+    }
+
+    @Override
+    protected JsonObject decode(byte[] bytes) throws IOException
+    {
+        return OneBlockBinaryCodec.decode(bytes);
+    }
+}
@@ -0,0 +1,47 @@
+package com.EreliaStudio.OneBlock;
+
+import org.joml.Vector3i;
+
+/**
+ * Packs block coordinates into one {@code long} for use as a map key:
+ * 26 bits of X, 26 bits of Z and 12 bits of Y, all two's complement.
+ */
+public final class OneBlockBlockPos
+{
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+
+    private OneBlockBlockPos() {}
+
+    public static long pack(int x, int y, int z)
+    {
+        return ((x & XZ_MASK) << (XZ_BITS + Y_BITS)) | ((z & XZ_MASK) << Y_BITS) | (y & Y_MASK);
+    }
+
+    public static long pack(Vector3i pos)
+    {
+        return pack(pos.x(), pos.y(), pos.z());
+    }
+
+    public static int unpackX(long packed)
+    {
+        return (int) (packed >> (XZ_BITS + Y_BITS));
+    }
+
+    public static int unpackY(long packed)
+    {
+        return (int) (packed << (Long.SIZE - Y_BITS) >> (Long.SIZE - Y_BITS));
+    }
+
+    public static int unpackZ(long packed)
+    {
+        return (int) (packed << (Long.SIZE - XZ_BITS - Y_BITS) >> (Long.SIZE - XZ_BITS));
+    }
+
+    public static Vector3i unpack(long packed)
+    {
+        return new Vector3i(unpackX(packed), unpackY(packed), unpackZ(packed));
+    }
+}
@@ -0,0 +1,132 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.assetstore.map.BlockTypeAssetMap;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.protocol.BlockMaterial;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.universe.world.World;
+import org.joml.Vector3i;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * OneBlock metadata for every block type, indexed by the engine's block type index. Built from
+ * the block type asset map whenever block assets are (re)loaded. A break is classified by the
+ * index its chunk stores at the target ({@link #at}), so classifying it and resolving its pool
+ * and expedition definition is a single array read instead of a category scan, a string parse
+ * and a map lookup.
+ * <p>
+ * The table also records, for every block type, whether it is solid or clear, so code reading
+ * raw indices out of chunks (dungeon spawn sites) classifies a cell without resolving its type.
+ * <p>
+ * Block types that are not OneBlocks have no entry. Entries are also reachable by block ID, so
+ * placing a OneBlock writes the index directly instead of having the engine resolve the ID. The
+ * table is replaced wholesale on rebuild and read without locking.
+ */
+public final class OneBlockBlockTable
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    /**
+     * What the plugin needs to know about one OneBlock type. {@code expedition} is the definition
+     * of its expedition, or null for a block that is not an expedition's (e.g. a dungeon block).
+     */
+    public record Entry(int index,
+                        String blockId,
+                        BlockType blockType,
+                        String expeditionId,
+                        OneBlockExpeditionDefaults.ExpeditionDefinition expedition) {}
+
+    private static volatile Entry[] entries = new Entry[0];
+    private static volatile Map<String, Entry> byBlockId = Map.of();
+
+    private static final byte SOLID = 1;
+    private static final byte CLEAR = 2;
+    private static volatile byte[] shapes = new byte[0];
+
+    private OneBlockBlockTable() {}
+
+    /** Rebuilds the table from the current block type assets. */
+    public static void rebuild()
+    {
+        BlockTypeAssetMap<String, BlockType> assetMap = BlockType.getAssetMap();
+        if (assetMap == null) return;
+
+        Map<String, BlockType> assets = assetMap.getAssetMap();
+        int size = 0;
+        for (String blockId : assets.keySet())
+        {
+            size = Math.max(size, assetMap.getIndex(blockId) + 1);
+        }
+
+        Entry[] table = new Entry[size];
+        Map<String, Entry> ids = new HashMap<>();
+        byte[] shapeTable = new byte[size];
+        int count = 0;
+        for (Map.Entry<String, BlockType> asset : assets.entrySet())
+        {
+            int index = assetMap.getIndex(asset.getKey());
+            if (index < 0) continue;
+
+            shapeTable[index] = shapeOf(asset.getValue());
+            if (!OneBlockBlockUtil.hasOneBlockCategory(asset.getValue())) continue;
+
+            String expeditionId = OneBlockExpeditionResolver.expeditionFromBlockId(asset.getKey());
+            table[index] = new Entry(index, asset.getKey(), asset.getValue(), expeditionId,
+                    OneBlockExpeditionDefaults.getDefinition(expeditionId));
+            ids.put(asset.getKey(), table[index]);
+            count++;
+        }
+
+        entries = table;
+        byBlockId = ids;
+        shapes = shapeTable;
+        LOGGER.at(Level.INFO).log("Indexed " + count + " OneBlock block types out of " + assets.size() + ".");
+    }
+
+    public static Entry get(int index)
+    {
+        Entry[] table = entries;
+        return index >= 0 && index < table.length ? table[index] : null;
+    }
+
+    /** The entry of the OneBlock type {@code blockId}, or null if it is not one or the table is not built. */
+    public static Entry get(String blockId)
+    {
+        return blockId == null ? null : byBlockId.get(blockId);
+    }
+
+    /** The entry of the block at {@code pos}, or null if it is not a OneBlock. World thread only. */
+    public static Entry at(World world, Vector3i pos)
+    {
+        return world == null || pos == null ? null : get(world.getBlock(pos.x(), pos.y(), pos.z()));
+    }
+
+    /** Whether the block type at {@code index} can be stood on. Unknown indices are neither solid nor clear. */
+    static boolean isSolid(int index)
+    {
+        byte[] table = shapes;
+        return index >= 0 && index < table.length && table[index] == SOLID;
+    }
+
+    /** Whether the block type at {@code index} leaves its cell free for an NPC. */
+    static boolean isClear(int index)
+    {
+        byte[] table = shapes;
+        return index >= 0 && index < table.length && table[index] == CLEAR;
+    }
+
+    private static byte shapeOf(BlockType blockType)
+    {
+        if (blockType == null) return 0;
+        return blockType == BlockType.EMPTY || blockType.getMaterial() == BlockMaterial.Empty ? CLEAR : SOLID;
+    }
+
+    /** Whether the table has been built at least once. */
+    public static boolean isBuilt()
+    {
+        return entries.length > 0;
+    }
+}
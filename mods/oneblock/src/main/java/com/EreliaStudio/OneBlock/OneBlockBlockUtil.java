@@ -9,7 +9,7 @@ public final class OneBlockBlockUtil
 
     private OneBlockBlockUtil() {}
 
-    public static boolean isOneBlock(BlockType blockType)
+    static boolean hasOneBlockCategory(BlockType blockType)
     {
         if (blockType == null) return false;
 
@@ -1,17 +1,12 @@
 package com.EreliaStudio.OneBlock;
 
 import com.hypixel.hytale.builtin.crafting.CraftingPlugin;
-import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.ecs.BreakBlockEvent;
 import com.hypixel.hytale.server.core.modules.blockhealth.BlockHealthChunk;
-import com.hypixel.hytale.server.core.modules.blockhealth.BlockHealthModule;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
-import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.protocol.BlockMaterial;
-import com.hypixel.hytale.math.util.ChunkUtil;
 
 import com.hypixel.hytale.component.*;
 import com.hypixel.hytale.component.query.Query;
@@ -19,33 +14,37 @@ import com.hypixel.hytale.component.system.EntityEventSystem;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import org.joml.Vector3i;
 
 public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, BreakBlockEvent>
 {
     private static final Vector3i REWARD_OFFSET = new Vector3i(0, 1, 0);
-    private static final int DUNGEON_SPAWN_RADIUS = 5;
 
     private final OneBlockDropRegistry dropRegistry;
-    private final OneBlockExpeditionStateProvider expeditionState;
-    private final OneBlockDungeonStateProvider dungeonState;
+    private final ResourceType<EntityStore, OneBlockIslandResource> islandResourceType;
+    private final OneBlockDungeonSpawnSites spawnSites;
+    private final OneBlockWaveSpawner waveSpawner;
 
     public OneBlockBreakSystem(OneBlockDropRegistry dropRegistry,
-                               OneBlockExpeditionStateProvider expeditionState,
-                               OneBlockDungeonStateProvider dungeonState)
+                               ResourceType<EntityStore, OneBlockIslandResource> islandResourceType,
+                               OneBlockDungeonSpawnSites spawnSites,
+                               OneBlockWaveSpawner waveSpawner)
     {
         super(BreakBlockEvent.class);
         this.dropRegistry = dropRegistry;
-        this.expeditionState = expeditionState;
-        this.dungeonState = dungeonState;
+        this.islandResourceType = islandResourceType;
+        this.spawnSites = spawnSites;
+        this.waveSpawner = waveSpawner;
     }
 
+    /** Only players' breaks feed the OneBlock; NPC and machinery breaks never reach the handler. */
     @Override
     public Query<EntityStore> getQuery()
     {
-        return Query.any();
+        return Player.getComponentType();
     }
 
     @Override
@@ -55,24 +54,64 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
                        @Nonnull CommandBuffer<EntityStore> commandBuffer,
                        @Nonnull BreakBlockEvent event)
     {
-        Ref<EntityStore> ref = chunk.getReferenceTo(entityIndex);
-        Player player = store.getComponent(ref, Player.getComponentType());
+        // Cheapest check first: the index stored at the target and one table read reject every
+        // block that is not a OneBlock. Such a break changes the world, so it may invalidate
+        // nearby dungeon spawn sites, and a generator left where it stands lost its OneBlock.
+        World world = worldOf(store);
+        Vector3i pos = event.getTargetBlock();
+        OneBlockBlockTable.Entry broken = OneBlockBlockTable.at(world, pos);
+        if (broken == null)
+        {
+            spawnSites.invalidate(world, pos);
+            OneBlockIslandResource islands = store.getResource(islandResourceType);
+            if (islands != null && pos != null) islands.removeGenerator(OneBlockBlockPos.pack(pos));
+            return;
+        }
 
-        if (!isValidOneBlockBreak(player, event)) return;
+        Ref<EntityStore> ref = chunk.getReferenceTo(entityIndex);
+        Player player = chunk.getComponent(entityIndex, Player.getComponentType());
 
-        EntityStore entityStore = store.getExternalData();
-        if (entityStore == null) return;
+        if (!isValidOneBlockBreak(player)) return;
 
-        World world = entityStore.getWorld();
-        if (world == null) return;
-
-        Vector3i pos = event.getTargetBlock();
+        OneBlockGenerator generator = resolveGenerator(store, world, pos);
+        if (generator == null) return;
 
         // BreakBlockEvent is emitted after native block health reaches zero.
         // Keep the supporting block physically present, then reset its native
         // health entry so the next break starts with full rock durability.
         event.setCancelled(true);
-        resetBlockHealth(world, pos);
+        resetBlockHealth(store, world, pos);
+
+        breakOneBlock(store, ref, player, world, pos, broken, generator);
+    }
+
+    /**
+     * The generator a break at {@code pos} feeds, or null if the world has no island state. In a
+     * dungeon instance the block belongs to the primary generator of the island the instance is
+     * bound to; anywhere else every OneBlock resolves to its own generator.
+     */
+    OneBlockGenerator resolveGenerator(Store<EntityStore> store, World world, Vector3i pos)
+    {
+        OneBlockDungeonInstances.Instance instance = instanceOf(world);
+        if (instance != null) return instance.getIsland().getPrimaryGenerator();
+
+        OneBlockIslandResource islands = store.getResource(islandResourceType);
+        return islands == null ? null : islands.resolveGenerator(pos);
+    }
+
+    /**
+     * Runs one OneBlock break once its durability is used up, whether the engine's block health
+     * or the plugin's own counter ({@link OneBlockDurabilitySystem}) decided it.
+     */
+    void breakOneBlock(Store<EntityStore> store,
+                       Ref<EntityStore> ref,
+                       Player player,
+                       World world,
+                       Vector3i pos,
+                       OneBlockBlockTable.Entry broken,
+                       OneBlockGenerator generator)
+    {
+        OneBlockDungeonInstances.Instance instance = instanceOf(world);
 
         DropableContext context = new DropableContext(
                 store, world, pos,
@@ -83,45 +122,79 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
                 store.getComponent(ref, PlayerRef.getComponentType())
         );
 
-        if (dungeonState.isDungeonActive())
-        {
-            handleDungeonBreak(world, pos, player, context);
-        }
-        else
-        {
-            handleExpeditionBreak(world, pos, player, event, context);
-        }
+        OneBlockPlayerProgress progress = getProgress(store, ref);
+        if (progress != null) progress.recordBreak();
+
+        OneBlockDungeonStateProvider.Snapshot dungeon = generator.getDungeonState().snapshot();
+        boolean dungeonHere = instance != null || !generator.isPrimary() || !generator.getIsland().isInDungeonInstance();
+        if (dungeon.isActive() && dungeonHere && handleDungeonBreak(generator, instance, world, pos, broken, player, context, dungeon)) return;
+        if (instance != null) return;
+
+        handleExpeditionBreak(generator, world, pos, broken, player, context);
+    }
+
+    static World worldOf(Store<EntityStore> store)
+    {
+        EntityStore entityStore = store == null ? null : store.getExternalData();
+        return entityStore == null ? null : entityStore.getWorld();
     }
 
-    private void handleDungeonBreak(World world, Vector3i pos, Player player, DropableContext context)
+    private static OneBlockDungeonInstances.Instance instanceOf(World world)
     {
-        String dungeonId = dungeonState.getActiveDungeonId();
-        int waveIndex = dungeonState.getCurrentWaveIndex();
+        OneBlockPlugin plugin = OneBlockPlugin.getInstance();
+        return plugin == null || plugin.getDungeonInstances() == null
+                ? null
+                : plugin.getDungeonInstances().instanceOf(world);
+    }
 
-        List<String> wave = OneBlockDungeonDefaults.getWave(dungeonId, waveIndex);
-        List<Vector3i> spawnBlocks = findDungeonSpawnBlocks(world, pos);
-        if (!spawnBlocks.isEmpty()) Collections.shuffle(spawnBlocks);
+    /**
+     * Claims the current wave with a single transition and queues its spawns. Returns false if the
+     * dungeon ended before this break could claim a wave, so the break falls back to the
+     * expedition path.
+     */
+    private boolean handleDungeonBreak(OneBlockGenerator generator,
+                                       OneBlockDungeonInstances.Instance instance,
+                                       World world,
+                                       Vector3i pos,
+                                       OneBlockBlockTable.Entry broken,
+                                       Player player,
+                                       DropableContext context,
+                                       OneBlockDungeonStateProvider.Snapshot dungeon)
+    {
+        OneBlockDungeonStateProvider.WaveResult result = generator.getDungeonState().advanceWave(dungeon);
+        if (!result.advanced()) return false;
 
-        int spawnIndex = 0;
-        for (String entityId : wave)
-        {
-            DropableContext spawnContext = context;
-            if (!spawnBlocks.isEmpty())
-            {
-                spawnContext = withSpawnBlock(context, spawnBlocks.get(spawnIndex % spawnBlocks.size()));
-                spawnIndex++;
-            }
+        OneBlockPlayerProgress progress = getProgress(context.getStore(), context.getPlayerEntity());
+        if (progress != null) progress.recordDungeonWave();
+
+        String dungeonId = result.before().dungeonId();
+        int waveIndex = result.before().currentWaveIndex();
 
-            dropRegistry.executeDropable(entityId, spawnContext);
+        // The wave was usually rolled ahead; its NPCs are queued and spawn over the next ticks.
+        OneBlockWaveSpawner.Plan plan = waveSpawner.takePlan(world, pos, dungeonId, waveIndex);
+        waveSpawner.spawn(world, generator.getIsland(), pos, plan);
+        for (String dropId : plan.getDrops())
+        {
+            dropRegistry.executeDropable(dropId, context);
         }
 
-        String completedDungeon = dungeonState.onWaveCompleted();
+        String completedDungeon = result.completedDungeonId();
         OneBlockPlugin plugin = OneBlockPlugin.getInstance();
 
         if (completedDungeon != null)
         {
-            world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), OneBlockBlockIds.DEFAULT_BLOCK_ID));
+            spawnSites.release(world, pos);
+            waveSpawner.release(world, pos);
+            if (instance != null && plugin != null && plugin.getDungeonInstances() != null)
+            {
+                plugin.getDungeonInstances().finish(instance);
+            }
+            else
+            {
+                regenerate(world, pos, broken, OneBlockBlockIds.DEFAULT_BLOCK_ID);
+            }
             executeDungeonCompletionRewards(completedDungeon, context);
+            if (progress != null) progress.recordDungeonCompleted();
 
             if (player != null)
             {
@@ -137,10 +210,10 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
             String dungeonBlockId = OneBlockDungeonDefaults.getBlockId(dungeonId);
             if (dungeonBlockId == null) dungeonBlockId = OneBlockBlockIds.DEFAULT_BLOCK_ID;
 
-            String finalBlockId = dungeonBlockId;
-            world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), finalBlockId));
+            regenerate(world, pos, broken, dungeonBlockId);
 
-            int completedWaves = dungeonState.getCurrentWaveIndex();
+            int completedWaves = result.after().currentWaveIndex();
+            waveSpawner.preRoll(world, pos, dungeonId, completedWaves);
             int totalWaves = OneBlockDungeonDefaults.getWaveCount(dungeonId);
 
             if (player != null)
@@ -157,100 +230,69 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
 
             }
         }
+
+        return true;
     }
 
-    private static List<Vector3i> findDungeonSpawnBlocks(World world, Vector3i sourceBlock)
+    /**
+     * Puts {@code nextBlockId} back at the OneBlock. The break was cancelled, so the broken block
+     * is still in place: when it already has that type nothing is written, and only a real
+     * change (an expedition or dungeon ending) touches the chunk and its network sync. The block
+     * is written by its {@link OneBlockBlockTable} index; the ID is only resolved by the engine
+     * for a block the table does not know.
+     */
+    private static void regenerate(World world, Vector3i pos, OneBlockBlockTable.Entry broken, String nextBlockId)
     {
-        if (world == null || sourceBlock == null) return List.of();
+        if (broken != null && nextBlockId.equals(broken.blockId())) return;
 
-        List<Vector3i> spawnBlocks = new ArrayList<>();
-        int sourceX = sourceBlock.x();
-        int sourceY = sourceBlock.y();
-        int sourceZ = sourceBlock.z();
-
-        for (int y = sourceY; y >= sourceY - DUNGEON_SPAWN_RADIUS; y--)
+        OneBlockBlockTable.Entry next = OneBlockBlockTable.get(nextBlockId);
+        if (next == null)
         {
-            for (int x = sourceX - DUNGEON_SPAWN_RADIUS; x <= sourceX + DUNGEON_SPAWN_RADIUS; x++)
-            {
-                for (int z = sourceZ - DUNGEON_SPAWN_RADIUS; z <= sourceZ + DUNGEON_SPAWN_RADIUS; z++)
-                {
-                    if (x == sourceX && y == sourceY && z == sourceZ) continue;
-                    if (isDungeonSpawnBlock(world, x, y, z))
-                        spawnBlocks.add(new Vector3i(x, y, z));
-                }
-            }
+            world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), nextBlockId));
+            return;
         }
 
-        return spawnBlocks;
+        world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), next.index(), next.blockType()));
     }
 
-    private static boolean isDungeonSpawnBlock(World world, int x, int y, int z)
-    {
-        BlockType floor = world.getBlockType(x, y, z);
-        BlockType feet = world.getBlockType(x, y + 1, z);
-        BlockType head = world.getBlockType(x, y + 2, z);
-
-        return isSolidBlock(floor) && isClearBlock(feet) && isClearBlock(head);
-    }
-
-    private static boolean isSolidBlock(BlockType blockType)
-    {
-        return blockType != null
-                && blockType != BlockType.EMPTY
-                && blockType.getMaterial() != BlockMaterial.Empty;
-    }
-
-    private static boolean isClearBlock(BlockType blockType)
-    {
-        return blockType != null
-                && (blockType == BlockType.EMPTY || blockType.getMaterial() == BlockMaterial.Empty);
-    }
-
-    private static DropableContext withSpawnBlock(DropableContext context, Vector3i spawnBlock)
-    {
-        return new DropableContext(
-                context.getStore(),
-                context.getWorld(),
-                context.getSourceBlock(),
-                spawnBlock,
-                context.getPlayerEntity(),
-                context.getPlayerRef()
-        );
-    }
-
-    private void handleExpeditionBreak(World world,
+    private void handleExpeditionBreak(OneBlockGenerator generator,
+                                       World world,
                                        Vector3i pos,
+                                       OneBlockBlockTable.Entry broken,
                                        Player player,
-                                       BreakBlockEvent event,
                                        DropableContext context)
     {
-        String poolId = OneBlockPools.resolvePoolId(event.getBlockType());
-        ensureExpeditionActiveForBreak(player, poolId);
+        String poolId = OneBlockPools.resolvePoolId(broken);
+        OneBlockExpeditionStateProvider expeditionState = generator.getExpeditionState();
+        OneBlockContributionTracker contributions = generator.getContributions();
+        OneBlockExpeditionStateProvider.Snapshot expedition = ensureExpeditionActiveForBreak(expeditionState, player, poolId);
 
         List<String> drops = dropRegistry.getKnownDrops(poolId);
         String rewardId = dropRegistry.pickReward(poolId, drops);
-        if (rewardId == null || rewardId.isEmpty())
+        if (rewardId == null || rewardId.isEmpty()) return;
+
+        OneBlockExpeditionStateProvider.TickResult tick = expeditionState.decrementTick(expedition);
+        OneBlockExpeditionStateProvider.Snapshot beforeBreak = tick.before();
+        String completedExpedition = tick.completedExpeditionId();
+
+        // Only the break whose transition ended the run sees a completed ID, so the
+        // completion rewards below run exactly once however many players are mining.
+        if (tick.applied())
         {
-            String currentBlockId = event.getBlockType().getId();
-            world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), currentBlockId));
-            return;
+            contributions.record(beforeBreak.runId(), context.getPlayerId());
         }
 
-        String activeExpeditionBeforeBreak = expeditionState.getActiveExpeditionId();
-        int totalTicks = expeditionState.getTotalTicks();
+        int totalTicks = beforeBreak.totalTicks();
         if (totalTicks <= 0)
         {
-            totalTicks = OneBlockExpeditionDefaults.getTicks(activeExpeditionBeforeBreak);
+            totalTicks = OneBlockExpeditionDefaults.getTicks(beforeBreak.expeditionId());
         }
 
-        String completedExpedition = expeditionState.onBreak();
-
         String nextBlockId = (completedExpedition != null)
                 ? OneBlockBlockIds.DEFAULT_BLOCK_ID
-                : event.getBlockType().getId();
+                : broken.blockId();
 
-        String finalBlockId = nextBlockId;
-        world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), finalBlockId));
+        regenerate(world, pos, broken, nextBlockId);
 
         dropRegistry.executeDropable(rewardId, context);
 
@@ -258,38 +300,73 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
 
         if (completedExpedition != null && player != null)
         {
-            executeExpeditionCompletionRewards(completedExpedition, context);
+            List<Ref<EntityStore>> contributors = resolveContributors(
+                    context,
+                    contributions.drain(beforeBreak.runId())
+            );
+
+            executeExpeditionCompletionRewards(completedExpedition, context, contributors);
+
+            for (Ref<EntityStore> contributor : contributors)
+            {
+                OneBlockPlayerProgress progress = getProgress(context.getStore(), contributor);
+                if (progress != null) progress.recordExpeditionCompleted();
+            }
 
             if (plugin != null)
             {
-                plugin.getHudService().showExpeditionCompleted(player, completedExpedition);
+                for (Ref<EntityStore> contributor : contributors)
+                {
+                    Player contributorPlayer = context.getStore().getComponent(contributor, Player.getComponentType());
+                    if (contributorPlayer != null)
+                    {
+                        plugin.getHudService().showExpeditionCompleted(contributorPlayer, completedExpedition);
+                    }
+                }
             }
         }
-        else if (player != null && plugin != null && activeExpeditionBeforeBreak != null && !activeExpeditionBeforeBreak.isBlank())
+        else if (player != null && plugin != null && beforeBreak.isActive())
         {
             plugin.getHudService().updateExpeditionTicks(
                     player,
-                    activeExpeditionBeforeBreak,
-                    expeditionState.getTicksRemaining(),
+                    beforeBreak.expeditionId(),
+                    tick.after().ticksRemaining(),
                     totalTicks
             );
         }
     }
 
-    private void ensureExpeditionActiveForBreak(Player player, String expeditionId)
+    /**
+     * Returns the expedition state this break should tick, starting the block's expedition
+     * first if none is running. The start only applies if no other break changed the state
+     * since it was read.
+     */
+    private static OneBlockExpeditionStateProvider.Snapshot ensureExpeditionActiveForBreak(
+            OneBlockExpeditionStateProvider expeditionState,
+            Player player,
+            String expeditionId)
     {
-        if (expeditionState.hasActiveExpedition()) return;
-        if (expeditionId == null || expeditionId.isBlank()) return;
-        if (!OneBlockExpeditionDefaults.getExpeditionIds().contains(expeditionId)) return;
+        OneBlockExpeditionStateProvider.Snapshot current = expeditionState.snapshot();
+        if (current.isActive()) return current;
+        if (expeditionId == null || expeditionId.isBlank()) return current;
+        if (!OneBlockExpeditionDefaults.getExpeditionIds().contains(expeditionId)) return current;
+
+        // A break that raced the completing break still carries the old block type; it must
+        // not restart the expedition that just ended while the block reverts to default.
+        if (expeditionId.equals(current.lastCompletedId())
+                && !OneBlockExpeditionResolver.DEFAULT_EXPEDITION.equals(expeditionId)) return current;
 
         int ticks = OneBlockExpeditionDefaults.getTicks(expeditionId);
-        expeditionState.startExpedition(expeditionId, ticks);
+        OneBlockExpeditionStateProvider.Snapshot started = expeditionState.tryStart(current, expeditionId, ticks);
+        if (started == null) return expeditionState.snapshot();
 
         OneBlockPlugin plugin = OneBlockPlugin.getInstance();
         if (player != null && plugin != null)
         {
             plugin.getHudService().showExpeditionStarted(player, expeditionId, ticks);
         }
+
+        return started;
     }
 
     private void executeDungeonCompletionRewards(String dungeonId, DropableContext context)
@@ -322,6 +399,9 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
         {
             CraftingPlugin.learnRecipe(context.getPlayerEntity(), reward.dropId, context.getStore());
 
+            OneBlockPlayerProgress progress = getProgress(context.getStore(), context.getPlayerEntity());
+            if (progress != null) progress.unlock(reward.unlockExpeditionId);
+
             OneBlockNotifier.notifyExpeditionUnlocked(
                     context.getStore(),
                     context.getPlayerEntity(),
@@ -330,12 +410,14 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
         }
     }
 
-    private void executeExpeditionCompletionRewards(String expeditionId, DropableContext context)
+    private void executeExpeditionCompletionRewards(String expeditionId,
+                                                    DropableContext context,
+                                                    List<Ref<EntityStore>> contributors)
     {
         for (OneBlockExpeditionDefaults.CompletionRewardDefinition reward :
                 OneBlockExpeditionDefaults.getMandatoryRewards(expeditionId))
         {
-            giveReward(reward, context);
+            giveReward(reward, context, contributors);
         }
 
         OneBlockExpeditionDefaults.RandomRewardBundle bundle =
@@ -345,12 +427,18 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
         {
             for (OneBlockExpeditionDefaults.CompletionRewardDefinition reward : bundle.items)
             {
-                giveReward(reward, context);
+                giveReward(reward, context, contributors);
             }
         }
     }
 
-    private void giveReward(OneBlockExpeditionDefaults.CompletionRewardDefinition reward, DropableContext context)
+    /**
+     * Drops the reward items once at the block, then hands crystal knowledge to every
+     * player who contributed breaks to the run.
+     */
+    private void giveReward(OneBlockExpeditionDefaults.CompletionRewardDefinition reward,
+                            DropableContext context,
+                            List<Ref<EntityStore>> contributors)
     {
         if (reward == null || reward.dropId == null || reward.dropId.isEmpty()) return;
 
@@ -358,45 +446,72 @@ public final class OneBlockBreakSystem extends EntityEventSystem<EntityStore, Br
 
         if (reward.isCrystalReward())
         {
-            CraftingPlugin.learnRecipe(context.getPlayerEntity(), reward.dropId, context.getStore());
+            for (Ref<EntityStore> contributor : contributors)
+            {
+                CraftingPlugin.learnRecipe(contributor, reward.dropId, context.getStore());
 
-            OneBlockNotifier.notifyExpeditionUnlocked(
-                    context.getStore(),
-                    context.getPlayerEntity(),
-                    reward.unlockExpeditionId
-            );
+                OneBlockPlayerProgress progress = getProgress(context.getStore(), contributor);
+                if (progress != null) progress.unlock(reward.unlockExpeditionId);
+
+                OneBlockNotifier.notifyExpeditionUnlocked(
+                        context.getStore(),
+                        contributor,
+                        reward.unlockExpeditionId
+                );
+            }
         }
     }
 
-    private static void resetBlockHealth(World world, Vector3i pos)
+    /**
+     * Resolves the contributors still present in the world. The completing player is always
+     * included, even if the drain raced their own contribution.
+     */
+    private static List<Ref<EntityStore>> resolveContributors(DropableContext context, Set<UUID> contributorIds)
     {
-        if (world == null || pos == null) return;
+        List<Ref<EntityStore>> out = new ArrayList<>();
+        Ref<EntityStore> completingPlayer = context.getPlayerEntity();
+        if (completingPlayer != null) out.add(completingPlayer);
 
-        ChunkStore chunkStore = world.getChunkStore();
-        if (chunkStore == null) return;
+        EntityStore entityStore = context.getStore().getExternalData();
+        if (entityStore == null) return out;
 
-        long chunkIndex = ChunkUtil.indexChunkFromBlock(pos.x(), pos.z());
-        Ref<ChunkStore> chunkRef = chunkStore.getChunkReference(chunkIndex);
-        if (chunkRef == null || !chunkRef.isValid()) return;
+        for (UUID playerId : contributorIds)
+        {
+            if (playerId.equals(context.getPlayerId())) continue;
 
-        Store<ChunkStore> chunkComponentStore = chunkStore.getStore();
-        BlockHealthChunk blockHealth = chunkComponentStore.getComponent(
-                chunkRef,
-                BlockHealthModule.get().getBlockHealthChunkComponentType()
-        );
+            Ref<EntityStore> ref = entityStore.getRefFromUUID(playerId);
+            if (ref != null && ref.isValid()) out.add(ref);
+        }
+
+        return out;
+    }
+
+    /** Returns the player's progress component, or null if the entity has none yet. */
+    private static OneBlockPlayerProgress getProgress(Store<EntityStore> store, Ref<EntityStore> ref)
+    {
+        ComponentType<EntityStore, OneBlockPlayerProgress> type = OneBlockPlayerProgress.getComponentType();
+        if (store == null || ref == null || type == null) return null;
+
+        return store.getComponent(ref, type);
+    }
+
+    private void resetBlockHealth(Store<EntityStore> store, World world, Vector3i pos)
+    {
+        if (world == null || pos == null) return;
+
+        OneBlockIslandResource islands = store.getResource(islandResourceType);
+        BlockHealthChunk blockHealth = islands == null ? null : islands.getChunkPins().blockHealth(world, pos);
         if (blockHealth != null)
         {
             blockHealth.removeBlock(world, pos);
         }
     }
 
-    private static boolean isValidOneBlockBreak(Player player, BreakBlockEvent event)
+    static boolean isValidOneBlockBreak(Player player)
     {
-        if (player == null || event == null) return false;
+        if (player == null) return false;
 
         Object gameMode = player.getGameMode();
-        if (gameMode != null && "Creative".equalsIgnoreCase(gameMode.toString())) return false;
-
-        return OneBlockBlockUtil.isOneBlock(event.getBlockType());
+        return gameMode == null || !"Creative".equalsIgnoreCase(gameMode.toString());
     }
 }
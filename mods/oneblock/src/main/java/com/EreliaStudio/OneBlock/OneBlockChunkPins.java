@@ -0,0 +1,117 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.modules.blockhealth.BlockHealthChunk;
+import com.hypixel.hytale.server.core.modules.blockhealth.BlockHealthModule;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import org.joml.Vector3i;
+
+/**
+ * The chunks holding the OneBlocks of awake islands in one world. Each is kept loaded through
+ * the chunk's keep-loaded count, so a returning player never waits on a reload, and its chunk
+ * reference and block health component are cached, so a break does not look them up again.
+ * <p>
+ * A cached reference that is no longer valid means the chunk was unloaded anyway; the entry is
+ * then resolved and pinned again on next use. Islands that hibernate are unpinned by
+ * {@link #retain}, which leaves their chunks to the engine. World thread only.
+ */
+final class OneBlockChunkPins
+{
+    private final OneBlockLongMap<Pin> pins = new OneBlockLongMap<>();
+
+    /** Pins the chunk holding {@code pos}. Returns its entry, or null while the chunk is not loaded. */
+    Pin pin(World world, Vector3i pos)
+    {
+        long index = ChunkUtil.indexChunkFromBlock(pos.x(), pos.z());
+        Pin pin = pins.get(index);
+        if (pin != null && pin.ref.isValid()) return pin;
+
+        ChunkStore chunkStore = world == null ? null : world.getChunkStore();
+        Ref<ChunkStore> ref = chunkStore == null ? null : chunkStore.getChunkReference(index);
+        if (ref == null || !ref.isValid())
+        {
+            pins.remove(index);
+            return null;
+        }
+
+        Store<ChunkStore> store = chunkStore.getStore();
+        WorldChunk chunk = store.getComponent(ref, WorldChunk.getComponentType());
+        if (chunk != null) chunk.addKeepLoaded();
+
+        pin = new Pin(ref, store, chunk);
+        pins.put(index, pin);
+        return pin;
+    }
+
+    /** The block index at {@code pos}, read from its pinned chunk, or -1 while the chunk is not loaded. */
+    int blockAt(World world, Vector3i pos)
+    {
+        Pin pin = pin(world, pos);
+        return pin == null || pin.chunk == null ? -1 : pin.chunk.getBlock(pos.x(), pos.y(), pos.z());
+    }
+
+    /** The block health component of the chunk holding {@code pos}, from the cache when possible. */
+    BlockHealthChunk blockHealth(World world, Vector3i pos)
+    {
+        Pin pin = pin(world, pos);
+        if (pin == null) return null;
+
+        // The engine adds the component on a chunk's first block damage, so a miss is retried.
+        if (pin.blockHealth == null)
+        {
+            pin.blockHealth = pin.store.getComponent(pin.ref, BlockHealthModule.get().getBlockHealthChunkComponentType());
+        }
+        return pin.blockHealth;
+    }
+
+    /**
+     * Keeps pinned exactly the chunks holding the generators of awake islands: pins the missing
+     * ones and releases the rest. Returns the number of pinned chunks.
+     */
+    int retain(World world, Iterable<OneBlockIsland> islands)
+    {
+        OneBlockLongMap<Boolean> wanted = new OneBlockLongMap<>();
+        for (OneBlockIsland island : islands)
+        {
+            if (island.isHibernated()) continue;
+
+            for (OneBlockGenerator generator : island.getGenerators())
+            {
+                Vector3i pos = generator.getPosition();
+                if (pin(world, pos) != null) wanted.put(ChunkUtil.indexChunkFromBlock(pos.x(), pos.z()), Boolean.TRUE);
+            }
+        }
+
+        OneBlockLongMap<Pin> released = new OneBlockLongMap<>();
+        pins.forEach((index, pin) ->
+        {
+            if (!wanted.containsKey(index)) released.put(index, pin);
+        });
+        released.forEach((index, pin) ->
+        {
+            pins.remove(index);
+            if (pin.chunk != null && pin.ref.isValid()) pin.chunk.removeKeepLoaded();
+        });
+
+        return pins.size();
+    }
+
+    static final class Pin
+    {
+        private final Ref<ChunkStore> ref;
+        private final Store<ChunkStore> store;
+        private final WorldChunk chunk;
+        private BlockHealthChunk blockHealth;
+
+        private Pin(Ref<ChunkStore> ref, Store<ChunkStore> store, WorldChunk chunk)
+        {
+            this.ref = ref;
+            this.store = store;
+            this.chunk = chunk;
+        }
+    }
+}
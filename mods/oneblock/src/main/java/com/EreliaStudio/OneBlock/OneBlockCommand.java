@@ -3,6 +3,7 @@ package com.EreliaStudio.OneBlock;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import org.joml.Vector3i;
+import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
 import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
@@ -14,7 +15,9 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
+import java.nio.file.Path;
 import java.util.Locale;
+import java.util.UUID;
 
 public final class OneBlockCommand extends AbstractTargetPlayerCommand
 {
@@ -24,8 +27,8 @@ public final class OneBlockCommand extends AbstractTargetPlayerCommand
     public OneBlockCommand()
     {
         super("oneblock", "Admin commands for the OneBlock expedition system.");
-        this.actionArg = this.withRequiredArg("action", "status|start|stop|list|fallProtection=true|false", ArgTypes.STRING);
-        this.valueArg = this.withOptionalArg("value", "Expedition ID (for start/list), or fallProtection true|false", ArgTypes.STRING);
+        this.actionArg = this.withRequiredArg("action", "status|start|stop|list|export|import|fallProtection=true|false|multiIsland=true|false", ArgTypes.STRING);
+        this.valueArg = this.withOptionalArg("value", "Expedition ID (for start/list), export file (for import), or true|false (for fallProtection/multiIsland)", ArgTypes.STRING);
     }
 
     @Override
@@ -42,7 +45,14 @@ public final class OneBlockCommand extends AbstractTargetPlayerCommand
             return;
         }
 
-        OneBlockExpeditionStateProvider stateProvider = plugin.getExpeditionStateProvider();
+        OneBlockIslandResource islands = store.getResource(plugin.getIslandResourceType());
+        if (islands == null)
+        {
+            return;
+        }
+
+        OneBlockIsland island = islands.resolveFor(targetPlayerRef.getUuid());
+        OneBlockExpeditionStateProvider stateProvider = island.getExpeditionState();
         OneBlockSettingsProvider settingsProvider = plugin.getSettingsProvider();
         Player targetPlayer = getPlayer(store, targetRef);
 
@@ -53,8 +63,11 @@ public final class OneBlockCommand extends AbstractTargetPlayerCommand
         switch (action)
         {
             case "start" -> handleStart(plugin, stateProvider, targetPlayer, value);
-            case "stop" -> handleStop(plugin, stateProvider, targetPlayer, world);
+            case "stop" -> handleStop(plugin, island, targetPlayer, world);
             case "fallprotection" -> handleFallProtection(settingsProvider, value);
+            case "multiisland" -> handleMultiIsland(settingsProvider, value);
+            case "export" -> handleExport(ctx, plugin, island, store, world, targetRef, targetPlayerRef);
+            case "import" -> handleImport(ctx, plugin, targetPlayerRef, value);
             case "status", "list" -> { }
             default -> { }
         }
@@ -87,11 +100,12 @@ public final class OneBlockCommand extends AbstractTargetPlayerCommand
     }
 
     private static void handleStop(OneBlockPlugin plugin,
-                                   OneBlockExpeditionStateProvider stateProvider,
+                                   OneBlockIsland island,
                                    Player targetPlayer,
                                    World world)
     {
-        if (!stateProvider.hasActiveExpedition())
+        OneBlockExpeditionStateProvider stateProvider = island.getExpeditionState();
+        if (!stateProvider.snapshot().isActive())
         {
             return;
         }
@@ -100,7 +114,7 @@ public final class OneBlockCommand extends AbstractTargetPlayerCommand
 
         if (world != null)
         {
-            Vector3i pos = OneBlockBlockIds.ONEBLOCK_POSITION;
+            Vector3i pos = island.getOrigin();
             world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), OneBlockBlockIds.DEFAULT_BLOCK_ID));
         }
 
@@ -111,6 +125,112 @@ public final class OneBlockCommand extends AbstractTargetPlayerCommand
 
     }
 
+    /**
+     * Exports the target's island and progress in the background and tells the sender how it
+     * went; see {@link OneBlockIslandTransfer}.
+     */
+    private static void handleExport(CommandContext ctx,
+                                     OneBlockPlugin plugin,
+                                     OneBlockIsland island,
+                                     Store<EntityStore> store,
+                                     World world,
+                                     Ref<EntityStore> targetRef,
+                                     PlayerRef targetPlayerRef)
+    {
+        OneBlockIslandTransfer transfer = plugin.getIslandTransfer();
+        if (transfer == null || world == null)
+        {
+            return;
+        }
+
+        OneBlockPlayerProgress progress = plugin.getPlayerProgressComponentType() == null
+                ? null
+                : store.getComponent(targetRef, plugin.getPlayerProgressComponentType());
+
+        UUID playerId = targetPlayerRef.getUuid();
+        transfer.exportIsland(
+                world,
+                island,
+                playerId,
+                progress
+        ).whenComplete((file, error) -> reply(ctx, error == null
+                ? "Exported island of " + playerId + " to " + file.getFileName() + "."
+                : "Failed to export island of " + playerId + ": " + failureOf(error)));
+    }
+
+    /**
+     * Imports an export file (the target's own by default) into the target's own island, on the
+     * shard that holds it, in the background. The island is created first if the target has
+     * none. The shared main island is never imported into, so multi-island mode must be on.
+     */
+    private static void handleImport(CommandContext ctx,
+                                     OneBlockPlugin plugin,
+                                     PlayerRef targetPlayerRef,
+                                     String fileName)
+    {
+        OneBlockIslandTransfer transfer = plugin.getIslandTransfer();
+        OneBlockWorldShards worldShards = plugin.getWorldShards();
+        OneBlockSettingsProvider settingsProvider = plugin.getSettingsProvider();
+        if (transfer == null || worldShards == null || settingsProvider == null)
+        {
+            return;
+        }
+
+        UUID playerId = targetPlayerRef.getUuid();
+        Path file = transfer.getFile(playerId);
+        if (fileName != null && !fileName.isBlank() && !"-".equals(fileName.trim()))
+        {
+            Path requested = file.resolveSibling(fileName.trim()).normalize();
+            if (!file.getParent().equals(requested.getParent()))
+            {
+                reply(ctx, "Import files must be in the exports folder.");
+                return;
+            }
+            file = requested;
+        }
+
+        if (!settingsProvider.isMultiIslandEnabled())
+        {
+            reply(ctx, "Import needs multiIsland=true: the shared main island is never overwritten.");
+            return;
+        }
+
+        if (!worldShards.isRegistered())
+        {
+            reply(ctx, "Island shards are still loading, try again shortly.");
+            return;
+        }
+
+        World home = worldShards.homeOf(playerId);
+        if (home == null)
+        {
+            home = worldShards.claimHome(playerId);
+        }
+        if (home == null)
+        {
+            reply(ctx, "No island shard is loaded to import into.");
+            return;
+        }
+
+        World shard = home;
+        Path source = file;
+        shard.execute(() ->
+        {
+            plugin.createPlayerIsland(shard, playerId);
+            OneBlockIslandResource islands = plugin.getIsland(shard);
+            OneBlockIsland island = islands == null ? null : islands.getIslandOf(playerId);
+            if (island == null || island.isMain())
+            {
+                reply(ctx, "Failed to import island of " + playerId + ": no island of their own in " + shard.getName() + ".");
+                return;
+            }
+
+            transfer.importIsland(shard, island, playerId, source).whenComplete((ignored, error) -> reply(ctx, error == null
+                    ? "Imported " + source.getFileName() + " into island " + island.getId() + " of " + playerId + "."
+                    : "Failed to import island of " + playerId + ": " + failureOf(error)));
+        });
+    }
+
     private static void handleFallProtection(OneBlockSettingsProvider settingsProvider,
                                              String value)
     {
@@ -133,6 +253,39 @@ public final class OneBlockCommand extends AbstractTargetPlayerCommand
         settingsProvider.setFallProtectionEnabled(enabled);
     }
 
+    private static void handleMultiIsland(OneBlockSettingsProvider settingsProvider,
+                                          String value)
+    {
+        if (settingsProvider == null)
+        {
+            return;
+        }
+
+        Boolean enabled = parseBoolean(value);
+        if (enabled == null)
+        {
+            return;
+        }
+
+        settingsProvider.setMultiIslandEnabled(enabled);
+    }
+
+    private static void reply(CommandContext ctx, String text)
+    {
+        ctx.sendMessage(Message.raw(text));
+    }
+
+    /** The message of the innermost cause, past the wrappers added by the futures. */
+    private static String failureOf(Throwable error)
+    {
+        Throwable cause = error;
+        while (cause.getCause() != null)
+        {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
     private static Player getPlayer(Store<EntityStore> store, Ref<EntityStore> playerRef)
     {
         if (store == null || playerRef == null)
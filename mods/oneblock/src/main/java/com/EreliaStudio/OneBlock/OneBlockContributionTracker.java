@@ -0,0 +1,67 @@
+package com.EreliaStudio.OneBlock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which players broke the OneBlock during each expedition run, so completion rewards
+ * reach everyone who mined. Recording is two concurrent map lookups; breakers never contend
+ * on a lock.
+ */
+public final class OneBlockContributionTracker
+{
+    private final Map<Long, Set<UUID>> contributorsByRun = new ConcurrentHashMap<>();
+
+    public void record(long runId, UUID playerId)
+    {
+        if (playerId == null) return;
+
+        contributorsByRun
+                .computeIfAbsent(runId, id -> ConcurrentHashMap.newKeySet())
+                .add(playerId);
+    }
+
+    public boolean isEmpty()
+    {
+        return contributorsByRun.isEmpty();
+    }
+
+    /** Plain copy of the contributors of every undrained run, kept while the generator hibernates. */
+    Map<Long, Set<UUID>> snapshot()
+    {
+        if (contributorsByRun.isEmpty()) return Map.of();
+
+        Map<Long, Set<UUID>> out = new HashMap<>();
+        for (Map.Entry<Long, Set<UUID>> run : contributorsByRun.entrySet())
+        {
+            out.put(run.getKey(), Set.copyOf(run.getValue()));
+        }
+        return out;
+    }
+
+    /** Adds the contributors of a {@link #snapshot()} back, when a hibernated generator wakes up. */
+    void restore(Map<Long, Set<UUID>> snapshot)
+    {
+        if (snapshot == null) return;
+
+        for (Map.Entry<Long, Set<UUID>> run : snapshot.entrySet())
+        {
+            contributorsByRun.computeIfAbsent(run.getKey(), id -> ConcurrentHashMap.newKeySet()).addAll(run.getValue());
+        }
+    }
+
+    /**
+     * Returns the players who contributed to {@code runId} and forgets that run along with
+     * any older run that was never drained (stopped by an admin, replaced by a crystal).
+     * Only the completion winner calls this, so each run is drained at most once.
+     */
+    public Set<UUID> drain(long runId)
+    {
+        Set<UUID> contributors = contributorsByRun.remove(runId);
+        contributorsByRun.keySet().removeIf(id -> id < runId);
+        return contributors == null ? Set.of() : Set.copyOf(contributors);
+    }
+}
@@ -10,12 +10,14 @@ import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.CooldownHandler;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.SimpleInstantInteraction;
 import org.joml.Vector3i;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.logger.HytaleLogger;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.Method;
+import java.util.UUID;
 
 public final class OneBlockCrystalInteraction extends SimpleInstantInteraction
 {
@@ -78,17 +80,51 @@ public final class OneBlockCrystalInteraction extends SimpleInstantInteraction
             return;
         }
 
+        OneBlockIslandResource islands = commandBuffer.getResource(plugin.getIslandResourceType());
+        if (islands == null)
+        {
+            OneBlockInteractionUtil.fail(interactionContext, LOGGER, "Island state not available");
+            return;
+        }
+
+        Player player = resolvePlayer(commandBuffer, interactionContext);
+        PlayerRef playerRef = player == null ? null : player.getPlayerRef();
+        OneBlockIsland island = islands.resolveFor(playerRef == null ? null : playerRef.getUuid());
+        OneBlockGenerator generator = resolveTargetGenerator(islands, island, interactionContext);
+
         String newBlockId = OneBlockExpeditionResolver.blockIdForExpedition(expeditionId);
-        Vector3i pos = OneBlockBlockIds.ONEBLOCK_POSITION;
-        world.execute(() -> world.setBlock(pos.x(), pos.y(), pos.z(), newBlockId));
+        Vector3i pos = generator.getPosition();
+        OneBlockDungeonInstances instances = OneBlockDungeonDefaults.isDungeon(expeditionId) && generator.isPrimary()
+                ? plugin.getDungeonInstances()
+                : null;
+        if (instances != null && instances.hasIdleInstance() && player != null)
+        {
+            // Run the dungeon in a pooled instance; fall back to the island if the pool ran dry.
+            Ref<EntityStore> playerEntity = player.getReference();
+            UUID playerId = playerRef == null ? null : playerRef.getUuid();
+            world.execute(() ->
+            {
+                if (instances.start(world, island, expeditionId, playerEntity, playerId) == null)
+                {
+                    world.setBlock(pos.x(), pos.y(), pos.z(), newBlockId);
+                    prepareSpawnSites(plugin, world, pos, expeditionId);
+                }
+            });
+        }
+        else
+        {
+            world.execute(() ->
+            {
+                world.setBlock(pos.x(), pos.y(), pos.z(), newBlockId);
+                prepareSpawnSites(plugin, world, pos, expeditionId);
+            });
+        }
 
         OneBlockInteractionUtil.consumeHeldItem(interactionContext, heldItem);
 
-        Player player = resolvePlayer(commandBuffer, interactionContext);
-
         if (OneBlockDungeonDefaults.isDungeon(expeditionId))
         {
-            plugin.getDungeonStateProvider().startDungeon(expeditionId);
+            generator.getDungeonState().startDungeon(expeditionId);
 
             int waveCount = OneBlockDungeonDefaults.getWaveCount(expeditionId);
 
@@ -101,7 +137,7 @@ public final class OneBlockCrystalInteraction extends SimpleInstantInteraction
         {
             int ticks = OneBlockExpeditionDefaults.getTicks(expeditionId);
 
-            plugin.getExpeditionStateProvider().startExpedition(expeditionId, ticks);
+            generator.getExpeditionState().startExpedition(expeditionId, ticks);
 
             if (player != null)
             {
@@ -112,6 +148,64 @@ public final class OneBlockCrystalInteraction extends SimpleInstantInteraction
         OneBlockInteractionUtil.finish(interactionContext);
     }
 
+    /**
+     * Lays out the spawn sites of a dungeon starting in place, building its arena floor if enabled,
+     * and has its first wave rolled ahead.
+     */
+    private static void prepareSpawnSites(OneBlockPlugin plugin, World world, Vector3i pos, String expeditionId)
+    {
+        if (!OneBlockDungeonDefaults.isDungeon(expeditionId) || plugin.getDungeonSpawnSites() == null) return;
+
+        OneBlockSettingsProvider settings = plugin.getSettingsProvider();
+        boolean buildArena = settings != null && settings.isDungeonArenaEnabled();
+        plugin.getDungeonSpawnSites().prepare(world, pos, expeditionId, buildArena);
+        if (plugin.getWaveSpawner() != null) plugin.getWaveSpawner().preRoll(world, pos, expeditionId, 0);
+    }
+
+    /**
+     * The generator of the OneBlock the crystal is used on, if the interaction exposes a target
+     * block on the player's own island; otherwise the island's primary generator.
+     */
+    private static OneBlockGenerator resolveTargetGenerator(OneBlockIslandResource islands,
+                                                            OneBlockIsland island,
+                                                            InteractionContext interactionContext)
+    {
+        Vector3i target = resolveTargetBlock(interactionContext);
+        OneBlockGenerator generator = target == null ? null : islands.getGeneratorAt(OneBlockBlockPos.pack(target));
+        if (generator != null && generator.getIsland() == island)
+        {
+            return generator;
+        }
+
+        return island.getPrimaryGenerator();
+    }
+
+    private static Vector3i resolveTargetBlock(InteractionContext interactionContext)
+    {
+        Object value = callNoArg(interactionContext, "getTargetBlock");
+        if (value instanceof Vector3i pos)
+        {
+            return pos;
+        }
+
+        if (value == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return new Vector3i(
+                    value.getClass().getField("x").getInt(value),
+                    value.getClass().getField("y").getInt(value),
+                    value.getClass().getField("z").getInt(value));
+        }
+        catch (Exception ignored)
+        {
+            return null;
+        }
+    }
+
     private static Player resolvePlayer(CommandBuffer<EntityStore> commandBuffer,
                                         InteractionContext interactionContext)
     {
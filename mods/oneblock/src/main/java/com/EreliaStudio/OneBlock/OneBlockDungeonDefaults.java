@@ -1,9 +1,12 @@
 package com.EreliaStudio.OneBlock;
 
+import org.joml.Vector3i;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,26 +52,47 @@ public final class OneBlockDungeonDefaults
     public static final class DungeonDefinition
     {
         public final String dungeonId;
+        /** Position of this dungeon in the persisted unlock bitset; stable across releases. */
+        public final int unlockBit;
         public final String blockId;
         public final List<List<String>> waves;
         public final List<CompletionRewardDefinition> completionRewards;
         public final List<RandomRewardBundle> randomBundles;
+        /**
+         * Floor cells mobs spawn on, relative to the dungeon block; a mob stands on top of its
+         * anchor. Empty means spawn sites are searched around the block instead.
+         */
+        public final List<Vector3i> spawnAnchors;
 
         public DungeonDefinition(String dungeonId,
+                                 int unlockBit,
                                  String blockId,
                                  List<List<String>> waves,
                                  List<CompletionRewardDefinition> completionRewards)
         {
-            this(dungeonId, blockId, waves, completionRewards, List.of());
+            this(dungeonId, unlockBit, blockId, waves, completionRewards, List.of());
         }
 
         public DungeonDefinition(String dungeonId,
+                                 int unlockBit,
                                  String blockId,
                                  List<List<String>> waves,
                                  List<CompletionRewardDefinition> completionRewards,
                                  List<RandomRewardBundle> randomBundles)
+        {
+            this(dungeonId, unlockBit, blockId, waves, completionRewards, randomBundles, List.of());
+        }
+
+        public DungeonDefinition(String dungeonId,
+                                 int unlockBit,
+                                 String blockId,
+                                 List<List<String>> waves,
+                                 List<CompletionRewardDefinition> completionRewards,
+                                 List<RandomRewardBundle> randomBundles,
+                                 List<Vector3i> spawnAnchors)
         {
             this.dungeonId = dungeonId;
+            this.unlockBit = unlockBit;
             this.blockId = blockId;
             this.waves = waves == null || waves.isEmpty()
                     ? List.of()
@@ -81,9 +105,20 @@ public final class OneBlockDungeonDefaults
             this.randomBundles = randomBundles == null || randomBundles.isEmpty()
                     ? List.of()
                     : Collections.unmodifiableList(new ArrayList<>(randomBundles));
+            this.spawnAnchors = spawnAnchors == null || spawnAnchors.isEmpty()
+                    ? List.of()
+                    : Collections.unmodifiableList(new ArrayList<>(spawnAnchors));
         }
     }
 
+    /** Eight anchors on a ring three blocks out, one below the dungeon block; used by dungeons whose waves reach ten mobs. */
+    public static final List<Vector3i> RING_ANCHORS = List.of(
+            new Vector3i(3, -1, 0), new Vector3i(-3, -1, 0),
+            new Vector3i(0, -1, 3), new Vector3i(0, -1, -3),
+            new Vector3i(2, -1, 2), new Vector3i(-2, -1, 2),
+            new Vector3i(2, -1, -2), new Vector3i(-2, -1, -2)
+    );
+
     private static final Map<String, DungeonDefinition> DUNGEONS;
     private static final Set<String> ALL_ENTITY_IDS;
     private static final Set<String> COMPLETION_REWARD_DROP_IDS;
@@ -91,9 +126,11 @@ public final class OneBlockDungeonDefaults
 
     static
     {
-        Map<String, DungeonDefinition> dungeons = new HashMap<>();
+        // The number after the map is the dungeon's unlock bit in OneBlockPlayerProgress,
+        // persisted with every player: never reuse or change one, give new entries the next free bit.
+        Map<String, DungeonDefinition> dungeons = new LinkedHashMap<>();
 
-        register(dungeons, "RatCave", List.of(
+        register(dungeons, 0, "RatCave", List.of(
                         List.of("entity:Rat", "entity:Rat", "entity:Rat"),
                         List.of("entity:Rat", "entity:Rat", "entity:Spider"),
                         List.of("entity:Spider", "entity:Spider", "entity:Spider_Cave")
@@ -101,7 +138,7 @@ public final class OneBlockDungeonDefaults
                 reward("ExpeditionPoint", 8)
         ));
 
-        register(dungeons, "GoblinGank", List.of(
+        register(dungeons, 1, "GoblinGank", List.of(
                         List.of("entity:Goblin_Scrapper", "entity:Goblin_Scrapper"),
                         List.of("entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Miner"),
                         List.of("entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Miner", "entity:Goblin_Miner")
@@ -112,7 +149,7 @@ public final class OneBlockDungeonDefaults
                 bundle(List.of(crystalReward("SandCave", 1)), 1)
         ));
 
-        register(dungeons, "GoblinInvasion", List.of(
+        register(dungeons, 2, "GoblinInvasion", List.of(
                         List.of("entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Miner"),
                         List.of("entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Miner", "entity:Goblin_Miner"),
                         List.of("entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Scrapper", "entity:Goblin_Miner", "entity:Goblin_Miner", "entity:Goblin_Miner"),
@@ -122,7 +159,7 @@ public final class OneBlockDungeonDefaults
                 crystalReward("CobaltCave", 1)
         ));
 
-        register(dungeons, "PirateShipwreck", List.of(
+        register(dungeons, 3, "PirateShipwreck", List.of(
                         List.of("entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Striker"),
                         List.of("entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Gunner", "entity:Skeleton_Pirate_Gunner"),
                         List.of("entity:Skeleton_Pirate_Gunner", "entity:Skeleton_Pirate_Gunner", "entity:Skeleton_Pirate_Gunner", "entity:Skeleton_Pirate_Gunner", "entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Striker", "entity:Skeleton_Pirate_Striker"),
@@ -131,16 +168,16 @@ public final class OneBlockDungeonDefaults
                 reward("ExpeditionPoint", 30)
         ));
 
-        register(dungeons, "SeaMonster", List.of(
+        register(dungeons, 4, "SeaMonster", List.of(
                         List.of("entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Spider", "entity:Spider", "entity:Spider"),
                         List.of("entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave"),
                         List.of("entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave"),
                         List.of("entity:Scarak_Broodmother", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Scarak_Seeker")
                 ), List.of(
                 reward("ExpeditionPoint", 40)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "UndeadTemple", List.of(
+        register(dungeons, 5, "UndeadTemple", List.of(
                         List.of("entity:Skeleton_Scout", "entity:Skeleton_Scout", "entity:Skeleton_Scout", "entity:Zombie", "entity:Zombie"),
                         List.of("entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Archer", "entity:Skeleton_Archer"),
                         List.of("entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Ranger", "entity:Skeleton_Ranger", "entity:Skeleton_Ranger"),
@@ -150,16 +187,16 @@ public final class OneBlockDungeonDefaults
                 crystalReward("VoidPortal", 1)
         ));
 
-        register(dungeons, "VoidTemple", List.of(
+        register(dungeons, 6, "VoidTemple", List.of(
                         List.of("entity:Larva_Void", "entity:Larva_Void", "entity:Larva_Void", "entity:Larva_Void", "entity:Larva_Void", "entity:Larva_Void", "entity:Crawler_Void", "entity:Crawler_Void"),
                         List.of("entity:Crawler_Void", "entity:Crawler_Void", "entity:Crawler_Void", "entity:Crawler_Void", "entity:Crawler_Void", "entity:Eye_Void", "entity:Eye_Void"),
                         List.of("entity:Spawn_Void", "entity:Spawn_Void", "entity:Spawn_Void", "entity:Spawn_Void", "entity:Wraith", "entity:Wraith"),
                         List.of("entity:Spawn_Void", "entity:Spawn_Void", "entity:Spawn_Void", "entity:Spawn_Void", "entity:Spawn_Void", "entity:Spawn_Void", "entity:Wraith", "entity:Wraith", "entity:Wraith", "entity:Wraith", "entity:Eye_Void", "entity:Eye_Void", "entity:Eye_Void")
                 ), List.of(
                 reward("ExpeditionPoint", 75)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "OutlanderGank", List.of(
+        register(dungeons, 7, "OutlanderGank", List.of(
                         List.of("entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Hunter"),
                         List.of("entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Hunter", "entity:Outlander_Hunter", "entity:Outlander_Marauder"),
                         List.of("entity:Outlander_Berserker", "entity:Outlander_Berserker", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder"),
@@ -168,7 +205,7 @@ public final class OneBlockDungeonDefaults
                 reward("ExpeditionPoint", 42)
         ));
 
-        register(dungeons, "OutlanderCity", List.of(
+        register(dungeons, 8, "OutlanderCity", List.of(
                         List.of("entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Cultist", "entity:Outlander_Hunter", "entity:Outlander_Hunter", "entity:Outlander_Hunter"),
                         List.of("entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Berserker", "entity:Outlander_Berserker", "entity:Outlander_Berserker"),
                         List.of("entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Hunter", "entity:Outlander_Hunter", "entity:Outlander_Hunter", "entity:Outlander_Hunter", "entity:Outlander_Priest"),
@@ -176,18 +213,18 @@ public final class OneBlockDungeonDefaults
                         List.of("entity:Outlander_Brute", "entity:Outlander_Brute", "entity:Outlander_Priest", "entity:Outlander_Priest", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder", "entity:Outlander_Marauder")
                 ), List.of(
                 reward("ExpeditionPoint", 60)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "IceTemple", List.of(
+        register(dungeons, 9, "IceTemple", List.of(
                         List.of("entity:Zombie_Frost", "entity:Zombie_Frost", "entity:Zombie_Frost", "entity:Zombie_Frost", "entity:Skeleton_Frost_Scout", "entity:Skeleton_Frost_Scout"),
                         List.of("entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Ranger", "entity:Skeleton_Frost_Ranger"),
                         List.of("entity:Golem_Crystal_Frost", "entity:Golem_Crystal_Frost", "entity:Skeleton_Frost_Mage", "entity:Skeleton_Frost_Mage", "entity:Skeleton_Frost_Mage"),
                         List.of("entity:Dragon_Frost", "entity:Skeleton_Frost_Knight", "entity:Skeleton_Frost_Knight", "entity:Skeleton_Frost_Knight", "entity:Skeleton_Frost_Knight", "entity:Zombie_Frost", "entity:Zombie_Frost", "entity:Zombie_Frost", "entity:Zombie_Frost", "entity:Zombie_Frost", "entity:Zombie_Frost")
                 ), List.of(
                 reward("ExpeditionPoint", 75)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "Volcano", List.of(
+        register(dungeons, 10, "Volcano", List.of(
                         List.of("entity:Zombie_Burnt", "entity:Zombie_Burnt", "entity:Zombie_Burnt", "entity:Zombie_Burnt", "entity:Zombie_Burnt", "entity:Emberwulf", "entity:Emberwulf"),
                         List.of("entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Archer", "entity:Skeleton_Burnt_Archer", "entity:Skeleton_Burnt_Archer"),
                         List.of("entity:Skeleton_Burnt_Knight", "entity:Skeleton_Burnt_Knight", "entity:Skeleton_Burnt_Knight", "entity:Skeleton_Burnt_Wizard", "entity:Skeleton_Burnt_Wizard"),
@@ -196,7 +233,7 @@ public final class OneBlockDungeonDefaults
                 reward("ExpeditionPoint", 55)
         ));
 
-        register(dungeons, "DesertTemple", List.of(
+        register(dungeons, 11, "DesertTemple", List.of(
                         List.of("entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Skeleton_Scout", "entity:Skeleton_Scout"),
                         List.of("entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Skeleton_Archer", "entity:Skeleton_Archer", "entity:Skeleton_Archer"),
                         List.of("entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Mage", "entity:Skeleton_Mage", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand"),
@@ -204,9 +241,9 @@ public final class OneBlockDungeonDefaults
                 ), List.of(
                 reward("ExpeditionPoint", 35),
                 crystalReward("PharaohRoom", 1)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "InsectInvasion", List.of(
+        register(dungeons, 12, "InsectInvasion", List.of(
                         List.of("entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Spider", "entity:Spider", "entity:Spider"),
                         List.of("entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse"),
                         List.of("entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter")
@@ -215,7 +252,7 @@ public final class OneBlockDungeonDefaults
                 crystalReward("MuddyDesert", 1)
         ));
 
-        register(dungeons, "InsectNest", List.of(
+        register(dungeons, 13, "InsectNest", List.of(
                         List.of("entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Spider", "entity:Spider", "entity:Spider", "entity:Spider"),
                         List.of("entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave"),
                         List.of("entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Seeker", "entity:Scarak_Seeker"),
@@ -223,18 +260,18 @@ public final class OneBlockDungeonDefaults
                 ), List.of(
                 reward("ExpeditionPoint", 36),
                 crystalReward("InsideInsectNest", 1)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "InsectCore", List.of(
+        register(dungeons, 14, "InsectCore", List.of(
                         List.of("entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Louse", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter"),
                         List.of("entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Scarak_Seeker"),
                         List.of("entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Fighter", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave", "entity:Spider_Cave"),
                         List.of("entity:Scarak_Broodmother", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Defender", "entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Scarak_Seeker", "entity:Scarak_Seeker")
                 ), List.of(
                 reward("ExpeditionPoint", 50)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "DinoCrisis", List.of(
+        register(dungeons, 15, "DinoCrisis", List.of(
                         List.of("entity:Archaeopteryx", "entity:Archaeopteryx", "entity:Archaeopteryx", "entity:Archaeopteryx", "entity:Archaeopteryx", "entity:Crocodile", "entity:Crocodile"),
                         List.of("entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Archaeopteryx", "entity:Archaeopteryx", "entity:Archaeopteryx"),
                         List.of("entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Raptor_Cave", "entity:Crawler", "entity:Crawler"),
@@ -245,7 +282,7 @@ public final class OneBlockDungeonDefaults
                 reward("ExpeditionPoint", 65)
         ));
 
-        register(dungeons, "TrorkWarband", List.of(
+        register(dungeons, 16, "TrorkWarband", List.of(
                         List.of("entity:Wolf_Trork_Shaman", "entity:Wolf_Trork_Shaman", "entity:Wolf_Trork_Shaman", "entity:Trork_Sentry", "entity:Trork_Sentry"),
                         List.of("entity:Trork_Hunter", "entity:Trork_Hunter", "entity:Trork_Hunter", "entity:Trork_Brawler", "entity:Trork_Brawler"),
                         List.of("entity:Trork_Warrior", "entity:Trork_Warrior", "entity:Trork_Warrior", "entity:Trork_Mauler"),
@@ -255,7 +292,7 @@ public final class OneBlockDungeonDefaults
                 crystalReward("TrorkStrongholdApproach", 1)
         ));
 
-        register(dungeons, "TrorkChieftainCamp", List.of(
+        register(dungeons, 17, "TrorkChieftainCamp", List.of(
                         List.of("entity:Trork_Sentry", "entity:Trork_Sentry", "entity:Trork_Sentry", "entity:Trork_Sentry", "entity:Wolf_Trork_Shaman", "entity:Wolf_Trork_Shaman", "entity:Wolf_Trork_Shaman"),
                         List.of("entity:Trork_Brawler", "entity:Trork_Brawler", "entity:Trork_Brawler", "entity:Trork_Hunter", "entity:Trork_Hunter", "entity:Trork_Hunter"),
                         List.of("entity:Trork_Warrior", "entity:Trork_Warrior", "entity:Trork_Warrior", "entity:Trork_Warrior", "entity:Trork_Mauler", "entity:Trork_Mauler"),
@@ -265,7 +302,7 @@ public final class OneBlockDungeonDefaults
                 reward("ExpeditionPoint", 55)
         ));
 
-        register(dungeons, "FrostboneCrypt", List.of(
+        register(dungeons, 18, "FrostboneCrypt", List.of(
                         List.of("entity:Skeleton_Frost_Scout", "entity:Skeleton_Frost_Scout", "entity:Skeleton_Frost_Scout", "entity:Skeleton_Frost_Scout", "entity:Skeleton_Frost_Ranger", "entity:Skeleton_Frost_Ranger"),
                         List.of("entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Fighter", "entity:Skeleton_Frost_Archer", "entity:Skeleton_Frost_Archer", "entity:Skeleton_Frost_Archer"),
                         List.of("entity:Skeleton_Frost_Soldier", "entity:Skeleton_Frost_Soldier", "entity:Skeleton_Frost_Soldier", "entity:Skeleton_Frost_Soldier", "entity:Skeleton_Frost_Mage", "entity:Skeleton_Frost_Mage", "entity:Skeleton_Frost_Mage"),
@@ -276,7 +313,7 @@ public final class OneBlockDungeonDefaults
                 crystalReward("IceTemple", 1)
         ));
 
-        register(dungeons, "BurntSkeletonCitadel", List.of(
+        register(dungeons, 19, "BurntSkeletonCitadel", List.of(
                         List.of("entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Soldier", "entity:Skeleton_Burnt_Archer", "entity:Skeleton_Burnt_Archer", "entity:Skeleton_Burnt_Archer"),
                         List.of("entity:Skeleton_Burnt_Lancer", "entity:Skeleton_Burnt_Lancer", "entity:Skeleton_Burnt_Lancer", "entity:Skeleton_Burnt_Lancer", "entity:Skeleton_Burnt_Gunner", "entity:Skeleton_Burnt_Gunner", "entity:Skeleton_Burnt_Gunner"),
                         List.of("entity:Skeleton_Burnt_Knight", "entity:Skeleton_Burnt_Knight", "entity:Skeleton_Burnt_Knight", "entity:Skeleton_Burnt_Knight", "entity:Skeleton_Burnt_Wizard", "entity:Skeleton_Burnt_Wizard", "entity:Skeleton_Burnt_Wizard"),
@@ -285,9 +322,9 @@ public final class OneBlockDungeonDefaults
                 ), List.of(
                 reward("ExpeditionPoint", 70),
                 crystalReward("InfernalGate", 1)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "JungleCrypt", List.of(
+        register(dungeons, 20, "JungleCrypt", List.of(
                         List.of("entity:Zombie", "entity:Zombie", "entity:Zombie", "entity:Zombie", "entity:Zombie_Sand", "entity:Zombie_Sand", "entity:Zombie_Sand"),
                         List.of("entity:Skeleton_Scout", "entity:Skeleton_Scout", "entity:Skeleton_Scout", "entity:Skeleton_Scout", "entity:Skeleton_Archer", "entity:Skeleton_Archer", "entity:Skeleton_Archer"),
                         List.of("entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Fighter", "entity:Skeleton_Fighter", "entity:Skeleton_Fighter"),
@@ -297,7 +334,7 @@ public final class OneBlockDungeonDefaults
                 crystalReward("LostNecropolis", 1)
         ));
 
-        register(dungeons, "AncientUndeadSanctum", List.of(
+        register(dungeons, 21, "AncientUndeadSanctum", List.of(
                         List.of("entity:Zombie", "entity:Zombie", "entity:Zombie", "entity:Zombie", "entity:Zombie_Aberrant", "entity:Zombie_Aberrant", "entity:Zombie_Aberrant", "entity:Zombie_Aberrant_Small", "entity:Zombie_Aberrant_Small", "entity:Zombie_Aberrant_Small", "entity:Zombie_Aberrant_Small"),
                         List.of("entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Soldier", "entity:Skeleton_Archer", "entity:Skeleton_Archer", "entity:Skeleton_Archer", "entity:Skeleton_Archer", "entity:Skeleton_Fighter", "entity:Skeleton_Fighter", "entity:Skeleton_Fighter"),
                         List.of("entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Mage", "entity:Skeleton_Mage", "entity:Skeleton_Mage", "entity:Zombie_Aberrant_Big", "entity:Zombie_Aberrant_Big"),
@@ -305,9 +342,9 @@ public final class OneBlockDungeonDefaults
                         List.of("entity:Skeleton_Archmage", "entity:Skeleton_Archmage", "entity:Skeleton_Archmage", "entity:Zombie_Aberrant_Big", "entity:Zombie_Aberrant_Big", "entity:Zombie_Aberrant_Big", "entity:Wraith", "entity:Wraith")
                 ), List.of(
                 reward("ExpeditionPoint", 58)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "ShadowKnightCitadel", List.of(
+        register(dungeons, 22, "ShadowKnightCitadel", List.of(
                         List.of("entity:Horse_Skeleton", "entity:Horse_Skeleton", "entity:Horse_Skeleton", "entity:Pig_Undead", "entity:Pig_Undead", "entity:Pig_Undead", "entity:Pig_Undead", "entity:Chicken_Undead", "entity:Chicken_Undead", "entity:Chicken_Undead", "entity:Chicken_Undead", "entity:Chicken_Undead"),
                         List.of("entity:Horse_Skeleton_Armored", "entity:Horse_Skeleton_Armored", "entity:Horse_Skeleton_Armored", "entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Knight", "entity:Skeleton_Knight"),
                         List.of("entity:Wraith", "entity:Wraith", "entity:Wraith", "entity:Wraith", "entity:Skeleton_Archmage", "entity:Skeleton_Archmage", "entity:Skeleton_Archmage"),
@@ -315,9 +352,9 @@ public final class OneBlockDungeonDefaults
                         List.of("entity:Shadow_Knight", "entity:Shadow_Knight", "entity:Shadow_Knight", "entity:Skeleton_Archmage", "entity:Skeleton_Archmage", "entity:Skeleton_Archmage", "entity:Horse_Skeleton_Armored", "entity:Horse_Skeleton_Armored", "entity:Horse_Skeleton_Armored", "entity:Horse_Skeleton_Armored")
                 ), List.of(
                 reward("ExpeditionPoint", 72)
-        ));
+        ), List.of(), RING_ANCHORS);
 
-        register(dungeons, "SpiritRealmTrial", List.of(
+        register(dungeons, 23, "SpiritRealmTrial", List.of(
                         List.of("entity:Spirit_Root", "entity:Spirit_Root", "entity:Spirit_Root", "entity:Spirit_Root", "entity:Spirit_Ember", "entity:Spirit_Ember", "entity:Spirit_Ember", "entity:Spirit_Ember"),
                         List.of("entity:Spirit_Frost", "entity:Spirit_Frost", "entity:Spirit_Frost", "entity:Spirit_Frost", "entity:Spirit_Thunder", "entity:Spirit_Thunder", "entity:Spirit_Thunder", "entity:Spirit_Thunder"),
                         List.of("entity:Golem_Crystal_Earth", "entity:Golem_Crystal_Earth", "entity:Golem_Crystal_Sand", "entity:Golem_Crystal_Sand", "entity:Spirit_Root", "entity:Spirit_Root", "entity:Spirit_Root"),
@@ -347,6 +384,13 @@ public final class OneBlockDungeonDefaults
         return DUNGEONS.keySet();
     }
 
+    /** The persisted unlock bit of {@code dungeonId}, or -1 if there is no such dungeon. */
+    public static int getUnlockBit(String dungeonId)
+    {
+        DungeonDefinition def = dungeonId == null ? null : DUNGEONS.get(dungeonId);
+        return def == null ? -1 : def.unlockBit;
+    }
+
     public static List<List<String>> getWaves(String dungeonId)
     {
         DungeonDefinition def = DUNGEONS.get(dungeonId);
@@ -404,6 +448,12 @@ public final class OneBlockDungeonDefaults
         return COMPLETION_REWARD_DROP_IDS;
     }
 
+    public static List<Vector3i> getSpawnAnchors(String dungeonId)
+    {
+        DungeonDefinition def = DUNGEONS.get(dungeonId);
+        return def == null ? List.of() : def.spawnAnchors;
+    }
+
     public static String getBlockId(String dungeonId)
     {
         DungeonDefinition def = DUNGEONS.get(dungeonId);
@@ -426,21 +476,46 @@ public final class OneBlockDungeonDefaults
     }
 
     private static void register(Map<String, DungeonDefinition> map,
+                                 int unlockBit,
                                  String dungeonId,
                                  List<List<String>> waves,
                                  List<CompletionRewardDefinition> completionRewards)
     {
-        register(map, dungeonId, waves, completionRewards, List.of());
+        register(map, unlockBit, dungeonId, waves, completionRewards, List.of());
     }
 
     private static void register(Map<String, DungeonDefinition> map,
+                                 int unlockBit,
                                  String dungeonId,
                                  List<List<String>> waves,
                                  List<CompletionRewardDefinition> completionRewards,
                                  List<RandomRewardBundle> randomBundles)
     {
+        register(map, unlockBit, dungeonId, waves, completionRewards, randomBundles, List.of());
+    }
+
+    /** Fails class init if the ID or its unlock bit is already taken, so saved unlocks can never be remapped. */
+    private static void register(Map<String, DungeonDefinition> map,
+                                 int unlockBit,
+                                 String dungeonId,
+                                 List<List<String>> waves,
+                                 List<CompletionRewardDefinition> completionRewards,
+                                 List<RandomRewardBundle> randomBundles,
+                                 List<Vector3i> spawnAnchors)
+    {
+        if (unlockBit < 0) throw new IllegalStateException("Negative unlock bit for dungeon " + dungeonId);
+        if (map.containsKey(dungeonId)) throw new IllegalStateException("Duplicate dungeon " + dungeonId);
+        for (DungeonDefinition other : map.values())
+        {
+            if (other.unlockBit == unlockBit)
+            {
+                throw new IllegalStateException("Dungeons " + other.dungeonId + " and " + dungeonId
+                        + " share unlock bit " + unlockBit);
+            }
+        }
+
         String blockId = "OneBlock_Block_" + dungeonId;
-        map.put(dungeonId, new DungeonDefinition(dungeonId, blockId, waves, completionRewards, randomBundles));
+        map.put(dungeonId, new DungeonDefinition(dungeonId, unlockBit, blockId, waves, completionRewards, randomBundles, spawnAnchors));
     }
 
     private static Set<String> buildAllEntityIds(Map<String, DungeonDefinition> dungeons)
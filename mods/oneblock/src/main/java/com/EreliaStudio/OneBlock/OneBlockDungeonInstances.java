@@ -0,0 +1,344 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.ArchetypeTickingSystem;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Rotation3f;
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.modules.entity.teleport.Teleport;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3d;
+import org.joml.Vector3i;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Pool of void worlds ({@code oneblock-dungeon-<n>}) that dungeon runs can take place in, so
+ * wave mobs tick on their own world thread instead of the island's. Each instance has a small
+ * basalt arena built when its world loads, whose chunk the pool keeps loaded; starting a dungeon only
+ * binds an idle instance to the island, places the dungeon block in the arena and teleports
+ * the player there.
+ * <p>
+ * The island's dungeon state stays on the island; breaks in the arena resolve it through
+ * {@link #instanceOf(World)}. Once the run ends, or every player of the run has left for
+ * {@link #ABANDON_SECONDS}, the players are sent home, the arena is rebuilt and the instance
+ * goes back to the pool. Every player who enters a bound instance joins its run ({@link Entrants}),
+ * so co-op members who follow the starter are sent home with the run and keep it alive. Instances
+ * are not saved: a player who logs in inside one that no run is bound to is sent home by the
+ * plugin.
+ */
+public final class OneBlockDungeonInstances
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    static final String INSTANCE_PREFIX = "oneblock-dungeon-";
+    static final Vector3i ARENA_CENTER = OneBlockBlockIds.ONEBLOCK_POSITION;
+    private static final int ARENA_RADIUS = 6;
+    private static final int ARENA_HEIGHT = 5;
+    static final String ARENA_FLOOR_BLOCK_ID = "Rock_Basalt";
+    private static final String EMPTY_BLOCK_ID = "Empty";
+
+    private static final long RETURN_DELAY_SECONDS = 10;
+    private static final long ABANDON_SECONDS = 60;
+    private static final long SWEEP_PERIOD_SECONDS = 15;
+
+    private final Map<String, Instance> instances = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Instance> idle = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler;
+
+    public OneBlockDungeonInstances()
+    {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OneBlock-DungeonInstances");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sweepAbandoned, SWEEP_PERIOD_SECONDS, SWEEP_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    static List<String> instanceNames(int count)
+    {
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i <= count; i++)
+        {
+            names.add(INSTANCE_PREFIX + i);
+        }
+        return names;
+    }
+
+    static boolean isInstanceWorld(String worldName)
+    {
+        return worldName != null && worldName.startsWith(INSTANCE_PREFIX);
+    }
+
+    /** Builds the arena of a loaded instance world and adds it to the pool. Must be called on its world thread. */
+    public void register(World world)
+    {
+        Instance instance = new Instance(world);
+        if (instances.putIfAbsent(world.getName(), instance) != null) return;
+
+        resetArena(world);
+        instance.pins.pin(world, ARENA_CENTER);
+        idle.add(instance);
+        LOGGER.at(Level.INFO).log("Dungeon instance " + world.getName() + " ready.");
+    }
+
+    public boolean hasIdleInstance()
+    {
+        return !idle.isEmpty();
+    }
+
+    /** The instance running in {@code world}, or null if it is not a bound dungeon instance. */
+    public Instance instanceOf(World world)
+    {
+        Instance instance = world == null ? null : instances.get(world.getName());
+        return instance != null && instance.island != null ? instance : null;
+    }
+
+    /**
+     * Adds {@code playerId}, who is inside {@code world}, to the run bound to it. Returns false if
+     * no run is bound to {@code world}.
+     */
+    public boolean join(World world, UUID playerId)
+    {
+        Instance instance = instanceOf(world);
+        if (instance == null || playerId == null) return false;
+
+        instance.players.add(playerId);
+        return true;
+    }
+
+    /**
+     * Binds an idle instance to {@code island} for {@code dungeonId} and sends {@code playerRef}
+     * there. Returns null if the pool is empty; the caller then runs the dungeon in place.
+     * Must be called on {@code homeWorld}'s thread.
+     */
+    public Instance start(World homeWorld, OneBlockIsland island, String dungeonId, Ref<EntityStore> playerRef, UUID playerId)
+    {
+        Instance instance = idle.poll();
+        if (instance == null) return null;
+
+        instance.homeWorld = homeWorld;
+        instance.island = island;
+        instance.lastSeenMillis = System.currentTimeMillis();
+        instance.players.clear();
+        if (playerId != null) instance.players.add(playerId);
+        island.setInDungeonInstance(true);
+
+        String blockId = OneBlockDungeonDefaults.getBlockId(dungeonId);
+        String dungeonBlockId = blockId != null ? blockId : OneBlockBlockIds.DEFAULT_BLOCK_ID;
+        World world = instance.world;
+        world.execute(() ->
+        {
+            instance.pins.pin(world, ARENA_CENTER);
+            world.setBlock(ARENA_CENTER.x(), ARENA_CENTER.y(), ARENA_CENTER.z(), dungeonBlockId);
+        });
+
+        if (playerRef != null && playerRef.isValid())
+        {
+            Teleport teleport = Teleport.createForPlayer(world, new Transform(arenaSpawn(), new Rotation3f()));
+            homeWorld.getEntityStore().getStore().addComponent(playerRef, Teleport.getComponentType(), teleport);
+        }
+
+        LOGGER.at(Level.INFO).log("Dungeon " + dungeonId + " of island " + island.getId() + " started in " + world.getName());
+        return instance;
+    }
+
+    /** Ends a completed run: players get a moment to collect rewards, then are sent home. */
+    public void finish(Instance instance)
+    {
+        OneBlockIsland island = instance.island;
+        scheduler.schedule(() -> instance.world.execute(() -> release(instance, island)), RETURN_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void shutdown()
+    {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Sends the run's players home, rebuilds the arena and returns the instance to the pool,
+     * unless it was already released from that run. Instance thread only.
+     */
+    private void release(Instance instance, OneBlockIsland island)
+    {
+        if (island == null || instance.island != island) return;
+
+        World world = instance.world;
+        World home = instance.homeWorld;
+        EntityStore entityStore = world.getEntityStore();
+        if (entityStore != null && home != null)
+        {
+            Transform spawn = new Transform(island.getSpawnPosition(), new Rotation3f());
+            for (UUID playerId : instance.players)
+            {
+                Ref<EntityStore> ref = entityStore.getRefFromUUID(playerId);
+                if (ref == null || !ref.isValid()) continue;
+
+                Teleport teleport = Teleport.createForPlayer(home, spawn);
+                entityStore.getStore().addComponent(ref, Teleport.getComponentType(), teleport);
+            }
+        }
+
+        OneBlockPlugin plugin = OneBlockPlugin.getInstance();
+        if (plugin != null && plugin.getWaveSpawner() != null) plugin.getWaveSpawner().despawn(world, ARENA_CENTER);
+        resetArena(world);
+        island.setInDungeonInstance(false);
+        instance.island = null;
+        instance.homeWorld = null;
+        instance.players.clear();
+        idle.add(instance);
+    }
+
+    /**
+     * Ends runs none of whose players has been in the instance for {@link #ABANDON_SECONDS}, so an
+     * abandoned run cannot hold it forever. Each sweep that finds a player there refreshes the
+     * run's last-seen time, however long the run has been going.
+     */
+    private void sweepAbandoned()
+    {
+        for (Instance instance : instances.values())
+        {
+            if (instance.island == null) continue;
+
+            instance.world.execute(() ->
+            {
+                OneBlockIsland island = instance.island;
+                if (island == null) return;
+
+                long now = System.currentTimeMillis();
+                if (hasPlayers(instance))
+                {
+                    instance.lastSeenMillis = now;
+                    return;
+                }
+                if (now - instance.lastSeenMillis < TimeUnit.SECONDS.toMillis(ABANDON_SECONDS)) return;
+
+                island.getDungeonState().endDungeon();
+                LOGGER.at(Level.INFO).log("Abandoned dungeon run of island " + island.getId() + " in " + instance.world.getName() + " ended.");
+                release(instance, island);
+            });
+        }
+    }
+
+    private static boolean hasPlayers(Instance instance)
+    {
+        EntityStore entityStore = instance.world.getEntityStore();
+        if (entityStore == null) return false;
+
+        for (UUID playerId : instance.players)
+        {
+            Ref<EntityStore> ref = entityStore.getRefFromUUID(playerId);
+            if (ref != null && ref.isValid()) return true;
+        }
+        return false;
+    }
+
+    /** Lays the arena floor and clears the space above it, touching only blocks that differ. */
+    private static void resetArena(World world)
+    {
+        int floorY = ARENA_CENTER.y() - 1;
+        for (int x = ARENA_CENTER.x() - ARENA_RADIUS; x <= ARENA_CENTER.x() + ARENA_RADIUS; x++)
+        {
+            for (int z = ARENA_CENTER.z() - ARENA_RADIUS; z <= ARENA_CENTER.z() + ARENA_RADIUS; z++)
+            {
+                setIfDifferent(world, x, floorY, z, ARENA_FLOOR_BLOCK_ID);
+                for (int y = floorY + 1; y <= floorY + ARENA_HEIGHT; y++)
+                {
+                    setIfDifferent(world, x, y, z, EMPTY_BLOCK_ID);
+                }
+            }
+        }
+    }
+
+    private static void setIfDifferent(World world, int x, int y, int z, String blockId)
+    {
+        BlockType current = world.getBlockType(x, y, z);
+        boolean empty = current == null || current == BlockType.EMPTY;
+        if (EMPTY_BLOCK_ID.equals(blockId) ? empty : (!empty && blockId.equals(current.getId()))) return;
+
+        world.setBlock(x, y, z, blockId);
+    }
+
+    private static Vector3d arenaSpawn()
+    {
+        return new Vector3d(ARENA_CENTER.x() + 0.5, ARENA_CENTER.y(), ARENA_CENTER.z() + 3.5);
+    }
+
+    /**
+     * Adds every player standing in a bound instance to its run, however they got there. Players
+     * of worlds that are not bound instances cost one map lookup per archetype chunk.
+     */
+    public static final class Entrants extends ArchetypeTickingSystem<EntityStore>
+    {
+        private final OneBlockDungeonInstances instances;
+
+        public Entrants(OneBlockDungeonInstances instances)
+        {
+            this.instances = instances;
+        }
+
+        @Override
+        public Query<EntityStore> getQuery()
+        {
+            return PlayerRef.getComponentType();
+        }
+
+        @Override
+        public void tick(float delta,
+                         ArchetypeChunk<EntityStore> chunk,
+                         Store<EntityStore> store,
+                         CommandBuffer<EntityStore> buffer)
+        {
+            Instance instance = chunk == null ? null : instances.instanceOf(OneBlockBreakSystem.worldOf(store));
+            if (instance == null) return;
+
+            ComponentType<EntityStore, PlayerRef> playerRefType = PlayerRef.getComponentType();
+            int size = chunk.size();
+            for (int i = 0; i < size; i++)
+            {
+                PlayerRef playerRef = chunk.getComponent(i, playerRefType);
+                UUID playerId = playerRef == null ? null : playerRef.getUuid();
+                if (playerId != null) instance.players.add(playerId);
+            }
+        }
+    }
+
+    /** One pooled instance world and the run it is bound to, if any. */
+    public static final class Instance
+    {
+        private final World world;
+        private final Set<UUID> players = ConcurrentHashMap.newKeySet();
+        private final OneBlockChunkPins pins = new OneBlockChunkPins();
+        private volatile World homeWorld;
+        private volatile OneBlockIsland island;
+        private volatile long lastSeenMillis;
+
+        private Instance(World world)
+        {
+            this.world = world;
+        }
+
+        public World getWorld() { return world; }
+        public OneBlockIsland getIsland() { return island; }
+    }
+}
@@ -0,0 +1,351 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import org.joml.Vector3i;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Where dungeon mobs may spawn around each dungeon OneBlock: solid floor with two clear blocks
+ * above it. A dungeon that declares spawn anchors uses those that are valid; otherwise the sites
+ * are searched within {@link #RADIUS} horizontally and {@link #RADIUS} below the block. Either
+ * way they are resolved once and kept as packed positions until a block inside that volume
+ * changes or the run ends, so later waves spawn without touching the world. Cells are read as
+ * block indices straight from their chunks and classified through {@link OneBlockBlockTable}.
+ * <p>
+ * Blocks players break or place invalidate the sites around them through the player block
+ * systems. Changes by anything else (NPCs, explosions, machines) are caught lazily: a site is
+ * checked again when {@link Sites#pick picked} and dropped if it no longer fits, a site found
+ * blocked at spawn time is {@link Sites#discard discarded}, and a table left without sites is
+ * searched again.
+ * <p>
+ * When arenas are enabled, starting an anchored dungeon first lays a floor block under every
+ * anchor that has none, so the declared layout holds whatever players built around the block.
+ * Blocks above anchors are never cleared; a blocked anchor is just skipped.
+ * <p>
+ * Each world has its own table, used only on that world's thread.
+ */
+public final class OneBlockDungeonSpawnSites
+{
+    static final int RADIUS = 5;
+    private static final String ARENA_FLOOR_BLOCK_ID = OneBlockDungeonInstances.ARENA_FLOOR_BLOCK_ID;
+
+    private final Map<String, OneBlockLongMap<Sites>> byWorld = new ConcurrentHashMap<>();
+
+    /** The spawn sites of {@code dungeonId} around {@code source}, resolving them if they are not cached. */
+    public Sites sitesFor(World world, Vector3i source, String dungeonId)
+    {
+        OneBlockLongMap<Sites> sites = tableOf(world);
+        long key = OneBlockBlockPos.pack(source);
+        Sites cached = sites.get(key);
+        if (cached != null && !cached.isStale()) return cached;
+
+        Sites resolved = resolve(world, source, dungeonId);
+        sites.put(key, resolved);
+        return resolved;
+    }
+
+    /**
+     * Sets up the sites of a dungeon starting at {@code source}: builds the arena floor under its
+     * anchors if {@code buildArena} is set, then validates them. World thread only.
+     */
+    public void prepare(World world, Vector3i source, String dungeonId, boolean buildArena)
+    {
+        List<Vector3i> anchors = OneBlockDungeonDefaults.getSpawnAnchors(dungeonId);
+        if (buildArena)
+        {
+            Cells cells = new Cells(world);
+            for (Vector3i anchor : anchors)
+            {
+                int x = source.x() + anchor.x();
+                int y = source.y() + anchor.y();
+                int z = source.z() + anchor.z();
+                if (cells.isClear(x, y, z)) world.setBlock(x, y, z, ARENA_FLOOR_BLOCK_ID);
+            }
+        }
+
+        tableOf(world).put(OneBlockBlockPos.pack(source), resolve(world, source, dungeonId));
+    }
+
+    /** Drops the cached sites of every dungeon block whose volume contains {@code changed}. */
+    public void invalidate(World world, Vector3i changed)
+    {
+        OneBlockLongMap<Sites> sites = world == null ? null : byWorld.get(world.getName());
+        if (sites == null || sites.isEmpty() || changed == null) return;
+
+        sites.removeIf(key -> covers(key, changed));
+    }
+
+    /** Forgets the sites of {@code source} once its dungeon run is over. */
+    public void release(World world, Vector3i source)
+    {
+        OneBlockLongMap<Sites> sites = world == null ? null : byWorld.get(world.getName());
+        if (sites != null) sites.remove(OneBlockBlockPos.pack(source));
+    }
+
+    private OneBlockLongMap<Sites> tableOf(World world)
+    {
+        return byWorld.computeIfAbsent(world.getName(), name -> new OneBlockLongMap<>());
+    }
+
+    /** Whether {@code changed} is a floor, feet or head cell of a site of the block at {@code key}. */
+    private static boolean covers(long key, Vector3i changed)
+    {
+        int x = OneBlockBlockPos.unpackX(key);
+        int y = OneBlockBlockPos.unpackY(key);
+        int z = OneBlockBlockPos.unpackZ(key);
+
+        return Math.abs(changed.x() - x) <= RADIUS
+                && Math.abs(changed.z() - z) <= RADIUS
+                && changed.y() >= y - RADIUS
+                && changed.y() <= y + 2;
+    }
+
+    /** The valid declared anchors of the dungeon, or a search when it declares none or none are valid. */
+    private static Sites resolve(World world, Vector3i source, String dungeonId)
+    {
+        List<Vector3i> anchors = OneBlockDungeonDefaults.getSpawnAnchors(dungeonId);
+        if (anchors.isEmpty()) return scan(world, source);
+
+        Cells cells = new Cells(world);
+        long[] packed = new long[anchors.size()];
+        int count = 0;
+        for (Vector3i anchor : anchors)
+        {
+            int x = source.x() + anchor.x();
+            int y = source.y() + anchor.y();
+            int z = source.z() + anchor.z();
+            if (cells.isSolid(x, y, z) && cells.isClear(x, y + 1, z) && cells.isClear(x, y + 2, z))
+            {
+                packed[count++] = OneBlockBlockPos.pack(x, y, z);
+            }
+        }
+
+        return count > 0 ? new Sites(packed, count) : scan(world, source);
+    }
+
+    /**
+     * Walks each column of the volume top-down once, sliding the head, feet and floor window,
+     * so every cell is read a single time. Columns of the same chunk share one chunk lookup.
+     */
+    private static Sites scan(World world, Vector3i source)
+    {
+        int sourceX = source.x();
+        int sourceY = source.y();
+        int sourceZ = source.z();
+        int side = 2 * RADIUS + 1;
+        long[] packed = new long[side * side * (RADIUS + 1)];
+        int count = 0;
+        Cells cells = new Cells(world);
+
+        for (int x = sourceX - RADIUS; x <= sourceX + RADIUS; x++)
+        {
+            for (int z = sourceZ - RADIUS; z <= sourceZ + RADIUS; z++)
+            {
+                WorldChunk chunk = cells.chunkOf(x, z);
+                if (chunk == null) continue;
+
+                boolean headClear = OneBlockBlockTable.isClear(chunk.getBlock(x, sourceY + 2, z));
+                boolean feetClear = OneBlockBlockTable.isClear(chunk.getBlock(x, sourceY + 1, z));
+                for (int y = sourceY; y >= sourceY - RADIUS; y--)
+                {
+                    int floor = chunk.getBlock(x, y, z);
+                    boolean isSource = x == sourceX && y == sourceY && z == sourceZ;
+                    if (!isSource && headClear && feetClear && OneBlockBlockTable.isSolid(floor))
+                    {
+                        packed[count++] = OneBlockBlockPos.pack(x, y, z);
+                    }
+
+                    headClear = feetClear;
+                    feetClear = OneBlockBlockTable.isClear(floor);
+                }
+            }
+        }
+
+        return new Sites(packed, count);
+    }
+
+    /**
+     * Up to {@code limit} spawn sites around {@code source}, nearest first, for a spawn that did
+     * not fit on the block itself. Searched like a dungeon without anchors, but not cached.
+     */
+    static long[] nearestSites(World world, Vector3i source, int limit)
+    {
+        Sites sites = scan(world, source);
+        long[] packed = sites.packed;
+        int count = Math.min(limit, sites.count);
+
+        for (int i = 0; i < count; i++)
+        {
+            int nearest = i;
+            for (int j = i + 1; j < sites.count; j++)
+            {
+                if (distanceSquared(packed[j], source) < distanceSquared(packed[nearest], source)) nearest = j;
+            }
+
+            long site = packed[nearest];
+            packed[nearest] = packed[i];
+            packed[i] = site;
+        }
+        return Arrays.copyOf(packed, count);
+    }
+
+    private static long distanceSquared(long site, Vector3i to)
+    {
+        long dx = OneBlockBlockPos.unpackX(site) - to.x();
+        long dy = OneBlockBlockPos.unpackY(site) - to.y();
+        long dz = OneBlockBlockPos.unpackZ(site) - to.z();
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /** Whether the feet and head cells above {@code floor} are clear, so an NPC fits there. */
+    static boolean hasSpaceAbove(World world, Vector3i floor)
+    {
+        WorldChunk chunk = new Cells(world).chunkOf(floor.x(), floor.z());
+        return chunk != null
+                && OneBlockBlockTable.isClear(chunk.getBlock(floor.x(), floor.y() + 1, floor.z()))
+                && OneBlockBlockTable.isClear(chunk.getBlock(floor.x(), floor.y() + 2, floor.z()));
+    }
+
+    /**
+     * Reads cells of one world from their chunks, looking a chunk up only when the cell read
+     * leaves the last one. Cells of chunks that are not loaded are neither solid nor clear.
+     */
+    private static final class Cells
+    {
+        private final ChunkStore chunkStore;
+        private long chunkIndex;
+        private WorldChunk chunk;
+        private boolean looked;
+
+        private Cells(World world)
+        {
+            this.chunkStore = world == null ? null : world.getChunkStore();
+        }
+
+        private WorldChunk chunkOf(int x, int z)
+        {
+            long index = ChunkUtil.indexChunkFromBlock(x, z);
+            if (looked && index == chunkIndex) return chunk;
+
+            Ref<ChunkStore> ref = chunkStore == null ? null : chunkStore.getChunkReference(index);
+            chunk = ref == null || !ref.isValid() ? null : chunkStore.getStore().getComponent(ref, WorldChunk.getComponentType());
+            chunkIndex = index;
+            looked = true;
+            return chunk;
+        }
+
+        private boolean isSolid(int x, int y, int z)
+        {
+            WorldChunk at = chunkOf(x, z);
+            return at != null && OneBlockBlockTable.isSolid(at.getBlock(x, y, z));
+        }
+
+        private boolean isClear(int x, int y, int z)
+        {
+            WorldChunk at = chunkOf(x, z);
+            return at != null && OneBlockBlockTable.isClear(at.getBlock(x, y, z));
+        }
+
+        /** Whether the packed {@code site} still has a solid floor and two clear cells above it. */
+        private boolean isSite(long site)
+        {
+            int x = OneBlockBlockPos.unpackX(site);
+            int y = OneBlockBlockPos.unpackY(site);
+            int z = OneBlockBlockPos.unpackZ(site);
+            return isSolid(x, y, z) && isClear(x, y + 1, z) && isClear(x, y + 2, z);
+        }
+    }
+
+    /** The packed spawn sites of one dungeon block. */
+    public static final class Sites
+    {
+        private final long[] packed;
+        private int count;
+        private boolean stale;
+
+        private Sites(long[] packed, int count)
+        {
+            this.packed = packed;
+            this.count = count;
+        }
+
+        public boolean isEmpty()
+        {
+            return count == 0;
+        }
+
+        /** Whether every site was discarded since they were resolved, so they must be searched again. */
+        boolean isStale()
+        {
+            return stale;
+        }
+
+        /**
+         * Drops {@code site} after a spawn found it blocked by a change no block event reported.
+         * Once no site is left the sites are marked stale and searched again on next use.
+         */
+        void discard(long site)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                if (packed[i] != site) continue;
+
+                packed[i] = packed[--count];
+                if (count == 0) stale = true;
+                return;
+            }
+        }
+
+        /**
+         * The site for the {@code n}-th spawn of a wave. A partial Fisher-Yates shuffle done in
+         * place: the first {@code count} spawns of a wave get distinct sites, later ones start
+         * a new round. The drawn site is read again from its chunk and dropped if a change no
+         * block event reported has broken it; {@code fallback} is returned once none is left.
+         * World thread only.
+         */
+        public long pick(World world, int n, long fallback)
+        {
+            Cells cells = new Cells(world);
+            while (count > 0)
+            {
+                int i = n % count;
+                int j = i + ThreadLocalRandom.current().nextInt(count - i);
+                long site = packed[j];
+                if (!cells.isSite(site))
+                {
+                    packed[j] = packed[--count];
+                    continue;
+                }
+
+                packed[j] = packed[i];
+                packed[i] = site;
+                return site;
+            }
+
+            stale = true;
+            return fallback;
+        }
+
+        /**
+         * The next candidate for a spawn that failed at {@code site}: the site following it in the
+         * current shuffle, or the block above it when it is not one of these sites or the only one.
+         */
+        public long after(long site)
+        {
+            for (int i = 0; count > 1 && i < count; i++)
+            {
+                if (packed[i] == site) return packed[(i + 1) % count];
+            }
+            return OneBlockBlockPos.pack(OneBlockBlockPos.unpackX(site), OneBlockBlockPos.unpackY(site) + 1, OneBlockBlockPos.unpackZ(site));
+        }
+    }
+}
@@ -1,106 +1,119 @@
 package com.EreliaStudio.OneBlock;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class OneBlockDungeonStateProvider
 {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-
-    private final Path filePath;
-    private volatile SaveData state;
-
-    public OneBlockDungeonStateProvider(Path filePath)
+    /** Immutable view of the dungeon state. Every transition replaces it as a whole. */
+    public record Snapshot(String dungeonId, int currentWaveIndex)
     {
-        this.filePath = filePath;
-        this.state = load();
+        public static final Snapshot IDLE = new Snapshot(null, 0);
+
+        public boolean isActive()
+        {
+            return dungeonId != null && !dungeonId.isEmpty();
+        }
     }
 
-    public synchronized boolean isDungeonActive()
+    /** Outcome of a single wave transition: the state it was applied to and the state it produced. */
+    public record WaveResult(Snapshot before, Snapshot after)
     {
-        return state.dungeonId != null && !state.dungeonId.isEmpty();
+        /** True when this transition consumed a wave, i.e. the caller owns the wave {@code before} points at. */
+        public boolean advanced()
+        {
+            return before.isActive();
+        }
+
+        /** Returns the dungeon this transition finished, or null if waves remain or no dungeon was active. */
+        public String completedDungeonId()
+        {
+            return before.isActive() && !after.isActive() ? before.dungeonId() : null;
+        }
     }
 
-    public synchronized String getActiveDungeonId()
+    private final AtomicReference<Snapshot> state;
+
+    public OneBlockDungeonStateProvider()
     {
-        return state.dungeonId;
+        this.state = new AtomicReference<>(Snapshot.IDLE);
     }
 
-    public synchronized int getCurrentWaveIndex()
+    public Snapshot snapshot()
     {
-        return state.currentWaveIndex;
+        return state.get();
     }
 
-    public synchronized void startDungeon(String dungeonId)
+    public void startDungeon(String dungeonId)
     {
-        state.dungeonId = dungeonId;
-        state.currentWaveIndex = 0;
-        save();
+        state.set(new Snapshot(dungeonId, 0));
     }
 
     /**
-     * Advances to the next wave. Returns the completed dungeon ID if all waves are done, null otherwise.
+     * Advances to the next wave, starting from the snapshot the break was resolved against.
+     * If another break won the race the transition is retried from the current state, so
+     * each wave is handed to exactly one caller.
      */
-    public synchronized String onWaveCompleted()
+    public WaveResult advanceWave(Snapshot expected)
     {
-        if (!isDungeonActive()) return null;
-
-        state.currentWaveIndex++;
-        int totalWaves = OneBlockDungeonDefaults.getWaveCount(state.dungeonId);
-        if (state.currentWaveIndex < totalWaves)
+        Snapshot current = expected != null ? expected : state.get();
+        while (true)
         {
-            save();
-            return null;
-        }
+            if (!current.isActive()) return new WaveResult(current, current);
 
-        String completedDungeon = state.dungeonId;
-        state.dungeonId = null;
-        state.currentWaveIndex = 0;
-        save();
-        return completedDungeon;
-    }
+            int nextWaveIndex = current.currentWaveIndex() + 1;
+            int totalWaves = OneBlockDungeonDefaults.getWaveCount(current.dungeonId());
+            Snapshot next = nextWaveIndex < totalWaves
+                    ? new Snapshot(current.dungeonId(), nextWaveIndex)
+                    : Snapshot.IDLE;
 
-    public synchronized void endDungeon()
-    {
-        state.dungeonId = null;
-        state.currentWaveIndex = 0;
-        save();
+            if (state.compareAndSet(current, next)) return new WaveResult(current, next);
+
+            current = state.get();
+        }
     }
 
-    private void save()
+    public void endDungeon()
     {
-        try
-        {
-            Files.createDirectories(filePath.getParent());
-            try (Writer writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8))
-            {
-                GSON.toJson(state, writer);
-            }
-        }
-        catch (IOException ignored) {}
+        state.set(Snapshot.IDLE);
     }
 
-    private SaveData load()
+    /** Replaces the state wholesale, used when the owning resource is decoded or cloned. */
+    void restore(Snapshot snapshot)
     {
-        if (filePath == null || !Files.exists(filePath)) return new SaveData();
-        try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8))
-        {
-            SaveData loaded = GSON.fromJson(reader, SaveData.class);
-            return loaded != null ? loaded : new SaveData();
-        }
-        catch (Exception ignored) { return new SaveData(); }
+        state.set(snapshot != null ? snapshot : Snapshot.IDLE);
     }
 
-    private static final class SaveData
+    /** Codec-facing mutable form of a {@link Snapshot}. */
+    static final class SaveData
     {
+        static final BuilderCodec<SaveData> CODEC = BuilderCodec.builder(SaveData.class, SaveData::new)
+                .append(new KeyedCodec<>("DungeonId", Codec.STRING),
+                        (data, value) -> data.dungeonId = value, data -> data.dungeonId)
+                .add()
+                .append(new KeyedCodec<>("CurrentWaveIndex", Codec.INTEGER),
+                        (data, value) -> data.currentWaveIndex = value, data -> data.currentWaveIndex)
+                .add()
+                .build();
+
         private String dungeonId;
         private int currentWaveIndex;
+
+        static SaveData of(Snapshot snapshot)
+        {
+            SaveData data = new SaveData();
+            data.dungeonId = snapshot.dungeonId();
+            data.currentWaveIndex = snapshot.currentWaveIndex();
+            return data;
+        }
+
+        Snapshot toSnapshot()
+        {
+            Snapshot snapshot = new Snapshot(dungeonId, currentWaveIndex);
+            return snapshot.isActive() ? snapshot : Snapshot.IDLE;
+        }
     }
 }
@@ -0,0 +1,73 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.ecs.DamageBlockEvent;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3i;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Optional plugin-side durability for OneBlocks, enabled by a non-zero {@code oneBlockDurability}
+ * setting. Every hit on a OneBlock is cancelled before the engine applies it, so no block health
+ * entry is ever created for the block, and the damage is added to its generator's counter
+ * instead. When the counter reaches the block's durability, scaled by its expedition, the break
+ * runs through {@link OneBlockBreakSystem#breakOneBlock} exactly as an engine break would.
+ * <p>
+ * With the setting at 0 hits pass through untouched and the engine's block health decides.
+ */
+public final class OneBlockDurabilitySystem extends EntityEventSystem<EntityStore, DamageBlockEvent>
+{
+    private final OneBlockBreakSystem breakSystem;
+    private final OneBlockSettingsProvider settingsProvider;
+
+    public OneBlockDurabilitySystem(OneBlockBreakSystem breakSystem, OneBlockSettingsProvider settingsProvider)
+    {
+        super(DamageBlockEvent.class);
+        this.breakSystem = breakSystem;
+        this.settingsProvider = settingsProvider;
+    }
+
+    @Override
+    public Query<EntityStore> getQuery()
+    {
+        return Player.getComponentType();
+    }
+
+    @Override
+    public void handle(int entityIndex,
+                       ArchetypeChunk<EntityStore> chunk,
+                       Store<EntityStore> store,
+                       @Nonnull CommandBuffer<EntityStore> commandBuffer,
+                       @Nonnull DamageBlockEvent event)
+    {
+        float baseDurability = settingsProvider == null ? 0f : settingsProvider.snapshot().oneBlockDurability();
+        if (baseDurability <= 0f) return;
+
+        World world = OneBlockBreakSystem.worldOf(store);
+        Vector3i pos = event.getTargetBlock();
+        OneBlockBlockTable.Entry block = OneBlockBlockTable.at(world, pos);
+        if (block == null) return;
+
+        Player player = chunk.getComponent(entityIndex, Player.getComponentType());
+        if (!OneBlockBreakSystem.isValidOneBlockBreak(player)) return;
+
+        OneBlockGenerator generator = breakSystem.resolveGenerator(store, world, pos);
+        if (generator == null) return;
+
+        event.setCancelled(true);
+
+        float durability = baseDurability * OneBlockExpeditionDefaults.getDurabilityScale(block.expedition());
+        if (!generator.applyDamage(event.getDamage(), durability)) return;
+
+        Ref<EntityStore> ref = chunk.getReferenceTo(entityIndex);
+        breakSystem.breakOneBlock(store, ref, player, world, pos, block, generator);
+    }
+}
@@ -1,41 +1,111 @@
 package com.EreliaStudio.OneBlock;
 
+import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.math.vector.Rotation3f;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.npc.NPCPlugin;
+import com.hypixel.hytale.server.npc.entities.NPCEntity;
 import com.hypixel.hytale.server.spawning.SpawnTestResult;
-import com.hypixel.hytale.logger.HytaleLogger;
+import it.unimi.dsi.fastutil.Pair;
 import org.joml.Vector3d;
 import org.joml.Vector3i;
-import java.util.logging.Level;
 
 public final class OneBlockEntitySpawner
 {
-    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    /** Attempts a single NPC gets, its first site included, before it is given up as lost. */
+    static final int MAX_ATTEMPTS = 3;
+    /** Failure of a tracked spawn whose site no longer has room above it. */
+    static final String NO_SPACE = "NO_SPACE";
 
     private OneBlockEntitySpawner() {}
 
+    /**
+     * Spawns the NPC above {@code basePos} on the world thread. A spawn that fails the space test
+     * is retried at the nearest spawn sites around {@code basePos}, up to {@link #MAX_ATTEMPTS}
+     * attempts in all.
+     */
     public static boolean spawnNpc(Store<EntityStore> store, World world, Vector3i basePos, String entityId)
     {
         if (store == null || world == null || basePos == null || entityId == null || entityId.isEmpty()) return false;
-        Vector3d spawnPosition = new Vector3d(basePos.x() + 0.5, basePos.y() + 1.5, basePos.z() + 0.5);
 
         world.execute(() ->
         {
-            SpawnTestResult result = NPCPlugin.get().spawnNPCWithSpaceValidation(
-                    store,
-                    entityId,
-                    null,
-                    spawnPosition,
-                    Rotation3f.IDENTITY
-            );
-            if (result != SpawnTestResult.TEST_OK)
+            String failure = spawnNpcNow(store, basePos, entityId);
+            if (failure == null) return;
+
+            long[] fallbacks = OneBlockDungeonSpawnSites.nearestSites(world, basePos, MAX_ATTEMPTS - 1);
+            OneBlockSpawnFailures.record(entityId, failure, fallbacks.length == 0);
+            for (int i = 0; i < fallbacks.length; i++)
             {
-                LOGGER.at(Level.WARNING).log("Failed to spawn NPC '" + entityId + "': " + result);
+                failure = spawnNpcNow(store, OneBlockBlockPos.unpack(fallbacks[i]), entityId);
+                if (failure == null) return;
+
+                OneBlockSpawnFailures.record(entityId, failure, i == fallbacks.length - 1);
             }
         });
         return true;
     }
+
+    /**
+     * Spawns the NPC above {@code basePos} right away; the caller is on the store's world thread.
+     * Returns null once spawned, otherwise why it was not.
+     */
+    static String spawnNpcNow(Store<EntityStore> store, Vector3i basePos, String entityId)
+    {
+        Vector3d spawnPosition = new Vector3d(basePos.x() + 0.5, basePos.y() + 1.5, basePos.z() + 0.5);
+        SpawnTestResult result = NPCPlugin.get().spawnNPCWithSpaceValidation(
+                store,
+                entityId,
+                null,
+                spawnPosition,
+                Rotation3f.IDENTITY
+        );
+        return result == SpawnTestResult.TEST_OK ? null : String.valueOf(result);
+    }
+
+    /**
+     * Spawns the NPC above {@code basePos} and returns the new entity, for spawns that must be
+     * tracked. NPCPlugin's {@code spawnNPC} hands the entity back but does not test for space, so
+     * the two blocks above {@code basePos} are checked here first. Failures are left to the
+     * caller to count. World thread only.
+     */
+    static Outcome spawnTrackedNpc(World world, Store<EntityStore> store, Vector3i basePos, String entityId)
+    {
+        if (!OneBlockDungeonSpawnSites.hasSpaceAbove(world, basePos)) return new Outcome(null, NO_SPACE);
+
+        Vector3d spawnPosition = new Vector3d(basePos.x() + 0.5, basePos.y() + 1.5, basePos.z() + 0.5);
+        Pair<Ref<EntityStore>, NPCEntity> spawned = NPCPlugin.get().spawnNPC(
+                store,
+                entityId,
+                null,
+                spawnPosition,
+                Rotation3f.IDENTITY
+        );
+
+        Ref<EntityStore> ref = spawned == null ? null : spawned.first();
+        return ref != null && ref.isValid() ? new Outcome(ref, null) : new Outcome(null, "NO_ENTITY");
+    }
+
+    /**
+     * Fails startup when NPCPlugin is not loaded: dungeon mobs are spawned through it, and the
+     * mob cap and bulk despawn only work on the entities it hands back.
+     */
+    static void requireNpcPlugin()
+    {
+        if (NPCPlugin.get() == null)
+        {
+            throw new IllegalStateException("OneBlock needs the NPC plugin to spawn and track dungeon mobs.");
+        }
+    }
+
+    /** Result of a tracked spawn: the new entity once spawned, otherwise why it was not. */
+    record Outcome(Ref<EntityStore> ref, String failure)
+    {
+        boolean spawned()
+        {
+            return failure == null;
+        }
+    }
 }
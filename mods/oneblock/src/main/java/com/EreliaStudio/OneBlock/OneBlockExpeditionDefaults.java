@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -62,27 +63,31 @@ public final class OneBlockExpeditionDefaults
     public static final class ExpeditionDefinition
     {
         public final String expeditionId;
+        /** Position of this expedition in the persisted unlock bitset; stable across releases. */
+        public final int unlockBit;
         public final String blockId;
         public final int ticks;
         public final List<DropDefinition> drops;
         public final List<CompletionRewardDefinition> mandatoryRewards;
         public final List<RandomRewardBundle> randomBundles;
 
-        public ExpeditionDefinition(String expeditionId, String blockId, int ticks, List<DropDefinition> drops)
+        public ExpeditionDefinition(String expeditionId, int unlockBit, String blockId, int ticks, List<DropDefinition> drops)
         {
-            this(expeditionId, blockId, ticks, drops, List.of(), List.of());
+            this(expeditionId, unlockBit, blockId, ticks, drops, List.of(), List.of());
         }
 
         public ExpeditionDefinition(String expeditionId,
+                                    int unlockBit,
                                     String blockId,
                                     int ticks,
                                     List<DropDefinition> drops,
                                     List<CompletionRewardDefinition> mandatoryRewards)
         {
-            this(expeditionId, blockId, ticks, drops, mandatoryRewards, List.of());
+            this(expeditionId, unlockBit, blockId, ticks, drops, mandatoryRewards, List.of());
         }
 
         public ExpeditionDefinition(String expeditionId,
+                                    int unlockBit,
                                     String blockId,
                                     int ticks,
                                     List<DropDefinition> drops,
@@ -90,6 +95,7 @@ public final class OneBlockExpeditionDefaults
                                     List<RandomRewardBundle> randomBundles)
         {
             this.expeditionId = expeditionId;
+            this.unlockBit = unlockBit;
             this.blockId = blockId;
             this.ticks = ticks;
             this.drops = drops == null || drops.isEmpty()
@@ -112,9 +118,11 @@ public final class OneBlockExpeditionDefaults
 
     static
     {
-        Map<String, ExpeditionDefinition> expeditions = new HashMap<>();
+        // The number after the map is the expedition's unlock bit in OneBlockPlayerProgress,
+        // persisted with every player: never reuse or change one, give new entries the next free bit.
+        Map<String, ExpeditionDefinition> expeditions = new LinkedHashMap<>();
 
-        register(expeditions, "Default", 25, List.of(
+        register(expeditions, 0, "Default", 25, List.of(
                 drop("Ingredient_Fibre", 30),
                 drop("Ingredient_Stick", 30),
                 drop("Rubble_Stone", 30),
@@ -127,7 +135,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("Plain", 1)), 1)
         ));
 
-        register(expeditions, "CaveEntry", 25, List.of(
+        register(expeditions, 1, "CaveEntry", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Bat"), 2),
                 drop(OneBlockDropId.entityDropId("Rat"), 2),
                 drop("Rubble_Stone", 35),
@@ -138,7 +146,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("Cave", 1)
         ));
 
-        register(expeditions, "ForestEdge", 25, List.of(
+        register(expeditions, 2, "ForestEdge", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Rabbit"), 4),
                 drop(OneBlockDropId.entityDropId("Boar"), 2),
                 drop(OneBlockDropId.entityDropId("Boar_Piglet"), 3),
@@ -152,7 +160,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("ForestEntry", 1)
         ));
 
-        register(expeditions, "Plain", 25, List.of(
+        register(expeditions, 3, "Plain", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Rabbit"), 4),
                 drop(OneBlockDropId.entityDropId("Sheep"), 2),
                 drop(OneBlockDropId.entityDropId("Chicken"), 3),
@@ -172,7 +180,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("Hallow", 1)), 1)
         ));
 
-        register(expeditions, "Cave", 25, List.of(
+        register(expeditions, 4, "Cave", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Rat"), 3),
                 drop(OneBlockDropId.entityDropId("Bat"), 3),
                 drop(OneBlockDropId.entityDropId("Spider"), 1),
@@ -186,7 +194,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("LowerCave", 1)), 1)
         ));
 
-        register(expeditions, "LowerCave", 28, List.of(
+        register(expeditions, 5, "LowerCave", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Rat"), 3),
                 drop(OneBlockDropId.entityDropId("Bat"), 3),
                 drop(OneBlockDropId.entityDropId("Spider"), 2),
@@ -199,7 +207,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("CopperCave", 1)
         ));
 
-        register(expeditions, "CopperCave", 30, List.of(
+        register(expeditions, 6, "CopperCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Bat"), 2),
                 drop(OneBlockDropId.entityDropId("Rat"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 1),
@@ -212,7 +220,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("GoblinGank", 1)
         ));
 
-        register(expeditions, "IronCave", 30, List.of(
+        register(expeditions, 7, "IronCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 3),
                 drop(OneBlockDropId.entityDropId("Goblin_Scavenger"), 1),
@@ -227,7 +235,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("ThoriumCave", 1)), 1)
         ));
 
-        register(expeditions, "SandCave", 28, List.of(
+        register(expeditions, 8, "SandCave", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Bat"), 2),
                 drop(OneBlockDropId.entityDropId("Spider"), 2),
                 drop(OneBlockDropId.entityDropId("Cactee"), 1),
@@ -240,7 +248,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("SandCavern", 1)
         ));
 
-        register(expeditions, "GoldCave", 30, List.of(
+        register(expeditions, 9, "GoldCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Thief"), 1),
@@ -252,7 +260,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 3)
         ));
 
-        register(expeditions, "ThoriumCave", 30, List.of(
+        register(expeditions, 10, "ThoriumCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Lobber"), 1),
@@ -267,7 +275,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("SilverCave", 1)), 1)
         ));
 
-        register(expeditions, "SilverCave", 30, List.of(
+        register(expeditions, 11, "SilverCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Spider_Cave"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Thief"), 1),
@@ -279,7 +287,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 4)
         ));
 
-        register(expeditions, "CobaltCave", 30, List.of(
+        register(expeditions, 12, "CobaltCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Lobber"), 2),
@@ -296,7 +304,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("FireCave", 1)), 1)
         ));
 
-        register(expeditions, "AdamantiteCave", 30, List.of(
+        register(expeditions, 13, "AdamantiteCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Lobber"), 2),
@@ -313,7 +321,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("MithrilCave", 1)), 1)
         ));
 
-        register(expeditions, "GemCave", 30, List.of(
+        register(expeditions, 14, "GemCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Spider_Cave"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Thief"), 1),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 1),
@@ -326,7 +334,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 5)
         ));
 
-        register(expeditions, "FireCave", 30, List.of(
+        register(expeditions, 15, "FireCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Burnt"), 2),
                 drop(OneBlockDropId.entityDropId("Emberwulf"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Soldier"), 1),
@@ -341,7 +349,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("InfernalGate", 1)
         ));
 
-        register(expeditions, "GemDeepCave", 30, List.of(
+        register(expeditions, 16, "GemDeepCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Spider_Cave"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 1),
@@ -355,7 +363,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 7)
         ));
 
-        register(expeditions, "MithrilCave", 30, List.of(
+        register(expeditions, 17, "MithrilCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Ogre"), 1),
@@ -367,7 +375,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("OnyxiumCave", 1)
         ));
 
-        register(expeditions, "OnyxiumCave", 30, List.of(
+        register(expeditions, 18, "OnyxiumCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Crawler_Void"), 1),
@@ -379,7 +387,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("PrismaCave", 1)
         ));
 
-        register(expeditions, "PrismaCave", 30, List.of(
+        register(expeditions, 19, "PrismaCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Goblin_Scrapper"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 2),
                 drop(OneBlockDropId.entityDropId("Crawler_Void"), 2),
@@ -392,7 +400,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 10)
         ));
 
-        register(expeditions, "SandCavern", 30, List.of(
+        register(expeditions, 20, "SandCavern", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Bat"), 2),
                 drop(OneBlockDropId.entityDropId("Cactee"), 2),
                 drop(OneBlockDropId.entityDropId("Zombie_Sand"), 1),
@@ -406,7 +414,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("Desert", 1)
         ));
 
-        register(expeditions, "Desert", 25, List.of(
+        register(expeditions, 21, "Desert", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Cactee"), 2),
                 drop(OneBlockDropId.entityDropId("Camel"), 3),
                 drop(OneBlockDropId.entityDropId("Camel_Calf"), 2),
@@ -427,7 +435,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("DryTrorkCamp", 1)), 1)
         ));
 
-        register(expeditions, "ForestEntry", 25, List.of(
+        register(expeditions, 22, "ForestEntry", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Boar"), 3),
                 drop(OneBlockDropId.entityDropId("Boar_Piglet"), 4),
                 drop(OneBlockDropId.entityDropId("Pigeon"), 4),
@@ -450,7 +458,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("Forest", 1)), 1)
         ));
 
-        register(expeditions, "Pond", 25, List.of(
+        register(expeditions, 23, "Pond", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Frog_Green"), 4),
                 drop(OneBlockDropId.entityDropId("Duck"), 4),
                 drop(OneBlockDropId.entityDropId("Bluegill"), 4),
@@ -464,7 +472,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("River", 1)
         ));
 
-        register(expeditions, "River", 25, List.of(
+        register(expeditions, 24, "River", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Frog_Green"), 3),
                 drop(OneBlockDropId.entityDropId("Duck"), 3),
                 drop(OneBlockDropId.entityDropId("Bluegill"), 4),
@@ -482,7 +490,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("Coastline", 1)), 1)
         ));
 
-        register(expeditions, "Lake", 28, List.of(
+        register(expeditions, 25, "Lake", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Frog_Green"), 3),
                 drop(OneBlockDropId.entityDropId("Duck"), 3),
                 drop(OneBlockDropId.entityDropId("Bluegill"), 4),
@@ -496,7 +504,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 2)
         ));
 
-        register(expeditions, "Sea", 30, List.of(
+        register(expeditions, 26, "Sea", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Crab"), 4),
                 drop(OneBlockDropId.entityDropId("Bluegill"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Pirate_Striker"), 2),
@@ -516,7 +524,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("PirateShipwreck", 1)
         ));
 
-        register(expeditions, "Coastline", 25, List.of(
+        register(expeditions, 27, "Coastline", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Crab"), 4),
                 drop(OneBlockDropId.entityDropId("Duck"), 3),
                 drop(OneBlockDropId.entityDropId("Cactee"), 1),
@@ -531,7 +539,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("SeaCavern", 1)
         ));
 
-        register(expeditions, "SeaCavern", 28, List.of(
+        register(expeditions, 28, "SeaCavern", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Crab"), 3),
                 drop(OneBlockDropId.entityDropId("Spider_Cave"), 2),
                 drop(OneBlockDropId.entityDropId("Scarak_Louse"), 1),
@@ -545,7 +553,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("SeaInfestedNest", 1)
         ));
 
-        register(expeditions, "SeaInfestedNest", 28, List.of(
+        register(expeditions, 29, "SeaInfestedNest", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Scarak_Louse"), 3),
                 drop(OneBlockDropId.entityDropId("Scarak_Fighter"), 2),
                 drop(OneBlockDropId.entityDropId("Scarak_Seeker"), 1),
@@ -561,7 +569,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("SeaMonster", 1)
         ));
 
-        register(expeditions, "Forest", 25, List.of(
+        register(expeditions, 30, "Forest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Boar"), 3),
                 drop(OneBlockDropId.entityDropId("Boar_Piglet"), 4),
                 drop(OneBlockDropId.entityDropId("Fox"), 2),
@@ -585,7 +593,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("JungleEdge", 1)), 1)
         ));
 
-        register(expeditions, "AridForest", 25, List.of(
+        register(expeditions, 31, "AridForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Fox"), 2),
                 drop(OneBlockDropId.entityDropId("Armadillo"), 3),
                 drop(OneBlockDropId.entityDropId("Cactee"), 1),
@@ -601,7 +609,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("Desert", 1)
         ));
 
-        register(expeditions, "Swamp", 25, List.of(
+        register(expeditions, 32, "Swamp", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Frog_Green"), 4),
                 drop(OneBlockDropId.entityDropId("Crocodile"), 2),
                 drop(OneBlockDropId.entityDropId("Fen_Stalker"), 1),
@@ -617,7 +625,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("EnchantedForest", 1)
         ));
 
-        register(expeditions, "EnchantedForest", 25, List.of(
+        register(expeditions, 33, "EnchantedForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Deer_Doe"), 3),
                 drop(OneBlockDropId.entityDropId("Bluebird"), 4),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 1),
@@ -634,7 +642,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("FairyPond", 1)
         ));
 
-        register(expeditions, "FairyPond", 25, List.of(
+        register(expeditions, 34, "FairyPond", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Frog_Green"), 3),
                 drop(OneBlockDropId.entityDropId("Duck"), 3),
                 drop(OneBlockDropId.entityDropId("Bluebird"), 4),
@@ -650,7 +658,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 5)
         ));
 
-        register(expeditions, "DeepForest", 25, List.of(
+        register(expeditions, 35, "DeepForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Boar"), 3),
                 drop(OneBlockDropId.entityDropId("Fox"), 2),
                 drop(OneBlockDropId.entityDropId("Wolf_Black"), 2),
@@ -671,7 +679,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("TrorkHuntingGround", 1)), 1)
         ));
 
-        register(expeditions, "DarkForest", 25, List.of(
+        register(expeditions, 36, "DarkForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Wolf_Black"), 2),
                 drop(OneBlockDropId.entityDropId("Crawler"), 2),
                 drop(OneBlockDropId.entityDropId("Zombie"), 2),
@@ -689,7 +697,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("CursedForest", 1)), 1)
         ));
 
-        register(expeditions, "BurnedForest", 25, List.of(
+        register(expeditions, 37, "BurnedForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Burnt"), 2),
                 drop(OneBlockDropId.entityDropId("Emberwulf"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Archer"), 1),
@@ -704,7 +712,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("FireLand", 1)
         ));
 
-        register(expeditions, "CursedForest", 25, List.of(
+        register(expeditions, 38, "CursedForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie"), 3),
                 drop(OneBlockDropId.entityDropId("Zombie_Aberrant"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Scout"), 2),
@@ -723,7 +731,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("Graveyard", 1)), 1)
         ));
 
-        register(expeditions, "Graveyard", 25, List.of(
+        register(expeditions, 39, "Graveyard", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Scout"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Archer"), 2),
@@ -741,7 +749,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("UndeadTemple", 1)
         ));
 
-        register(expeditions, "VoidPortal", 25, List.of(
+        register(expeditions, 40, "VoidPortal", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Larva_Void"), 3),
                 drop(OneBlockDropId.entityDropId("Crawler_Void"), 2),
                 drop(OneBlockDropId.entityDropId("Eye_Void"), 1),
@@ -759,7 +767,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("SpiritThreshold", 1)), 1)
         ));
 
-        register(expeditions, "OutlanderForest", 25, List.of(
+        register(expeditions, 41, "OutlanderForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Outlander_Cultist"), 3),
                 drop(OneBlockDropId.entityDropId("Outlander_Hunter"), 2),
                 drop(OneBlockDropId.entityDropId("Outlander_Marauder"), 1),
@@ -776,7 +784,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("OutlanderPlain", 1)), 1)
         ));
 
-        register(expeditions, "OutlanderPlain", 25, List.of(
+        register(expeditions, 42, "OutlanderPlain", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Outlander_Cultist"), 3),
                 drop(OneBlockDropId.entityDropId("Outlander_Hunter"), 3),
                 drop(OneBlockDropId.entityDropId("Outlander_Berserker"), 2),
@@ -796,7 +804,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("Tundra", 1)), 1)
         ));
 
-        register(expeditions, "Tundra", 25, List.of(
+        register(expeditions, 43, "Tundra", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Wolf_Black"), 2),
                 drop(OneBlockDropId.entityDropId("Zombie_Frost"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Scout"), 1),
@@ -813,7 +821,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("IceLand", 1)), 1)
         ));
 
-        register(expeditions, "FrozenForest", 25, List.of(
+        register(expeditions, 44, "FrozenForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Wolf_Black"), 2),
                 drop(OneBlockDropId.entityDropId("Zombie_Frost"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Ranger"), 1),
@@ -829,7 +837,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("IcyForest", 1)
         ));
 
-        register(expeditions, "IceLand", 25, List.of(
+        register(expeditions, 45, "IceLand", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Frost"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Scout"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Frost"), 1),
@@ -844,7 +852,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("IcyCavern", 1)
         ));
 
-        register(expeditions, "IcyCavern", 28, List.of(
+        register(expeditions, 46, "IcyCavern", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Frost"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Fighter"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Mage"), 1),
@@ -861,7 +869,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("FrozenGraveyard", 1)), 1)
         ));
 
-        register(expeditions, "YetiCavern", 28, List.of(
+        register(expeditions, 47, "YetiCavern", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Frost"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Knight"), 2),
                 drop(OneBlockDropId.entityDropId("Dragon_Frost"), 1),
@@ -876,7 +884,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("IceTemple", 1)
         ));
 
-        register(expeditions, "IcyForest", 25, List.of(
+        register(expeditions, 48, "IcyForest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Wolf_Black"), 2),
                 drop(OneBlockDropId.entityDropId("Zombie_Frost"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Ranger"), 2),
@@ -892,7 +900,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("SpiritThreshold", 1)
         ));
 
-        register(expeditions, "FireLand", 25, List.of(
+        register(expeditions, 49, "FireLand", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Burnt"), 2),
                 drop(OneBlockDropId.entityDropId("Emberwulf"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Soldier"), 1),
@@ -909,7 +917,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("FieryGraveyard", 1)), 1)
         ));
 
-        register(expeditions, "FieryGraveyard", 25, List.of(
+        register(expeditions, 50, "FieryGraveyard", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Burnt"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Soldier"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Archer"), 2),
@@ -927,7 +935,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("BurntBattlefield", 1)), 1)
         ));
 
-        register(expeditions, "InfernalGate", 25, List.of(
+        register(expeditions, 51, "InfernalGate", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Incandescent_Fighter"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Incandescent_Mage"), 1),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Flame"), 1),
@@ -944,7 +952,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("InfernalSwamp", 1)), 1)
         ));
 
-        register(expeditions, "InfernalPlain", 25, List.of(
+        register(expeditions, 52, "InfernalPlain", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Incandescent_Fighter"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Incandescent_Footman"), 2),
                 drop(OneBlockDropId.entityDropId("Emberwulf"), 2),
@@ -960,7 +968,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("FireGemCave", 1)
         ));
 
-        register(expeditions, "InfernalSwamp", 25, List.of(
+        register(expeditions, 53, "InfernalSwamp", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Fen_Stalker"), 2),
                 drop(OneBlockDropId.entityDropId("Zombie_Burnt"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Incandescent_Mage"), 1),
@@ -976,7 +984,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 10)
         ));
 
-        register(expeditions, "FireGemCave", 28, List.of(
+        register(expeditions, 54, "FireGemCave", 28, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Incandescent_Fighter"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Incandescent_Mage"), 1),
                 drop(OneBlockDropId.entityDropId("Golem_Firesteel"), 1),
@@ -992,7 +1000,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("ElementalConfluence", 1)
         ));
 
-        register(expeditions, "DesertTempleEntrance", 25, List.of(
+        register(expeditions, 55, "DesertTempleEntrance", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Sand"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Scout"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Archer"), 1),
@@ -1007,7 +1015,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("DeeperDesertTemple", 1)
         ));
 
-        register(expeditions, "DeeperDesertTemple", 25, List.of(
+        register(expeditions, 56, "DeeperDesertTemple", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Sand"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Soldier"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Archer"), 2),
@@ -1024,7 +1032,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("DesertTemple", 1)
         ));
 
-        register(expeditions, "PharaohRoom", 25, List.of(
+        register(expeditions, 57, "PharaohRoom", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Sand"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Knight"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Mage"), 1),
@@ -1039,7 +1047,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 7)
         ));
 
-        register(expeditions, "InnerDesert", 25, List.of(
+        register(expeditions, 58, "InnerDesert", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Cactee"), 2),
                 drop(OneBlockDropId.entityDropId("Camel"), 3),
                 drop(OneBlockDropId.entityDropId("Zombie_Sand"), 1),
@@ -1058,7 +1066,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("InsectInvasion", 1)), 1)
         ));
 
-        register(expeditions, "MuddyDesert", 25, List.of(
+        register(expeditions, 59, "MuddyDesert", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Cactee"), 2),
                 drop(OneBlockDropId.entityDropId("Crocodile"), 2),
                 drop(OneBlockDropId.entityDropId("Scarak_Louse"), 1),
@@ -1073,7 +1081,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("InfestedDesert", 1)
         ));
 
-        register(expeditions, "InfestedDesert", 25, List.of(
+        register(expeditions, 60, "InfestedDesert", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Scarak_Louse"), 3),
                 drop(OneBlockDropId.entityDropId("Scarak_Fighter"), 2),
                 drop(OneBlockDropId.entityDropId("Scarak_Seeker"), 1),
@@ -1088,7 +1096,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("InsectNest", 1)
         ));
 
-        register(expeditions, "InsideInsectNest", 25, List.of(
+        register(expeditions, 61, "InsideInsectNest", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Scarak_Louse"), 3),
                 drop(OneBlockDropId.entityDropId("Scarak_Fighter"), 2),
                 drop(OneBlockDropId.entityDropId("Scarak_Defender"), 1),
@@ -1104,7 +1112,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("InsectCore", 1)
         ));
 
-        register(expeditions, "Quarry", 50, List.of(
+        register(expeditions, 62, "Quarry", 50, List.of(
                 drop(OneBlockDropId.entityDropId("Bat"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Miner"), 1),
                 drop("Rubble_Stone", 45),
@@ -1119,7 +1127,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("MysteriousCavern", 1)
         ));
 
-        register(expeditions, "Hallow", 30, List.of(
+        register(expeditions, 63, "Hallow", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Rabbit"), 4),
                 drop(OneBlockDropId.entityDropId("Sheep"), 4),
                 drop(OneBlockDropId.entityDropId("Chicken"), 4),
@@ -1137,7 +1145,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("River", 1)), 1)
         ));
 
-        register(expeditions, "CowHallow", 35, List.of(
+        register(expeditions, 64, "CowHallow", 35, List.of(
                 drop(OneBlockDropId.entityDropId("Cow"), 5),
                 drop(OneBlockDropId.entityDropId("Cow_Calf"), 4),
                 drop(OneBlockDropId.entityDropId("Wolf_Black"), 1),
@@ -1150,7 +1158,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 2)
         ));
 
-        register(expeditions, "HorseHallow", 35, List.of(
+        register(expeditions, 65, "HorseHallow", 35, List.of(
                 drop(OneBlockDropId.entityDropId("Horse"), 5),
                 drop(OneBlockDropId.entityDropId("Wolf_Black"), 1),
                 drop("Plant_Crop_Carrot_Item", 30),
@@ -1162,7 +1170,7 @@ public final class OneBlockExpeditionDefaults
                 reward("ExpeditionPoint", 2)
         ));
 
-        register(expeditions, "MysteriousCavern", 30, List.of(
+        register(expeditions, 66, "MysteriousCavern", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Bat"), 3),
                 drop(OneBlockDropId.entityDropId("Spider_Cave"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 1),
@@ -1177,7 +1185,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("MysticCave", 1)
         ));
 
-        register(expeditions, "MysticCave", 30, List.of(
+        register(expeditions, 67, "MysticCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 1),
                 drop("Rock_Runic_Brick", 22),
@@ -1190,7 +1198,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("LuxuriousCave", 1)
         ));
 
-        register(expeditions, "LuxuriousCave", 30, List.of(
+        register(expeditions, 68, "LuxuriousCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 2),
                 drop(OneBlockDropId.entityDropId("Goblin_Thief"), 1),
@@ -1205,7 +1213,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("JurassicCave", 1)
         ));
 
-        register(expeditions, "JurassicCave", 30, List.of(
+        register(expeditions, 69, "JurassicCave", 30, List.of(
                 drop(OneBlockDropId.entityDropId("Archaeopteryx"), 3),
                 drop(OneBlockDropId.entityDropId("Crocodile"), 2),
                 drop(OneBlockDropId.entityDropId("Raptor_Cave"), 2),
@@ -1222,7 +1230,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("DinoCrisis", 1)
         ));
 
-        register(expeditions, "DryTrorkCamp", 25, List.of(
+        register(expeditions, 70, "DryTrorkCamp", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Trork_Sentry"), 3),
                 drop(OneBlockDropId.entityDropId("Trork_Hunter"), 2),
                 drop(OneBlockDropId.entityDropId("Wolf_Trork_Shaman"), 2),
@@ -1238,7 +1246,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("TrorkWarband", 1)
         ));
 
-        register(expeditions, "TrorkHuntingGround", 25, List.of(
+        register(expeditions, 71, "TrorkHuntingGround", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Wolf_Trork_Shaman"), 4),
                 drop(OneBlockDropId.entityDropId("Trork_Hunter"), 3),
                 drop(OneBlockDropId.entityDropId("Trork_Sentry"), 2),
@@ -1254,7 +1262,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("TrorkWarband", 1)
         ));
 
-        register(expeditions, "TrorkStrongholdApproach", 25, List.of(
+        register(expeditions, 72, "TrorkStrongholdApproach", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Trork_Sentry"), 3),
                 drop(OneBlockDropId.entityDropId("Trork_Warrior"), 3),
                 drop(OneBlockDropId.entityDropId("Trork_Guard"), 2),
@@ -1270,7 +1278,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("TrorkElderGrove", 1)
         ));
 
-        register(expeditions, "TrorkElderGrove", 25, List.of(
+        register(expeditions, 73, "TrorkElderGrove", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Trork_Doctor_Witch"), 2),
                 drop(OneBlockDropId.entityDropId("Trork_Hunter"), 2),
                 drop(OneBlockDropId.entityDropId("Trork_Guard"), 2),
@@ -1286,7 +1294,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("TrorkChieftainCamp", 1)
         ));
 
-        register(expeditions, "FrozenGraveyard", 25, List.of(
+        register(expeditions, 74, "FrozenGraveyard", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Scout"), 4),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Ranger"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Fighter"), 3),
@@ -1307,7 +1315,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("IcyNecropolis", 1)
         ));
 
-        register(expeditions, "IcyNecropolis", 25, List.of(
+        register(expeditions, 75, "IcyNecropolis", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Ranger"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Fighter"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Frost_Archer"), 3),
@@ -1330,7 +1338,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("FrostboneCrypt", 1)
         ));
 
-        register(expeditions, "BurntBattlefield", 25, List.of(
+        register(expeditions, 76, "BurntBattlefield", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Scout"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Soldier"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Archer"), 2),
@@ -1349,7 +1357,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("AshenCatacombs", 1)
         ));
 
-        register(expeditions, "AshenCatacombs", 25, List.of(
+        register(expeditions, 77, "AshenCatacombs", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Soldier"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Archer"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Burnt_Lancer"), 2),
@@ -1371,7 +1379,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("BurntSkeletonCitadel", 1)
         ));
 
-        register(expeditions, "JungleEdge", 25, List.of(
+        register(expeditions, 78, "JungleEdge", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Parrot"), 4),
                 drop(OneBlockDropId.entityDropId("Gecko"), 4),
                 drop(OneBlockDropId.entityDropId("Frog_Green"), 3),
@@ -1391,7 +1399,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("OvergrownRuins", 1)
         ));
 
-        register(expeditions, "DryJunglePass", 25, List.of(
+        register(expeditions, 79, "DryJunglePass", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Cactee"), 2),
                 drop(OneBlockDropId.entityDropId("Gecko"), 4),
                 drop(OneBlockDropId.entityDropId("Snake_Marsh"), 2),
@@ -1414,7 +1422,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("SunkenJungleRuins", 1)
         ));
 
-        register(expeditions, "OvergrownRuins", 25, List.of(
+        register(expeditions, 80, "OvergrownRuins", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Scout"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Archer"), 1),
@@ -1433,7 +1441,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("JungleCrypt", 1)
         ));
 
-        register(expeditions, "SunkenJungleRuins", 25, List.of(
+        register(expeditions, 81, "SunkenJungleRuins", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Zombie_Sand"), 2),
                 drop(OneBlockDropId.entityDropId("Zombie"), 2),
                 drop(OneBlockDropId.entityDropId("Skeleton_Soldier"), 1),
@@ -1452,7 +1460,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("JungleCrypt", 1)
         ));
 
-        register(expeditions, "LostNecropolis", 25, List.of(
+        register(expeditions, 82, "LostNecropolis", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Skeleton_Soldier"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Fighter"), 3),
                 drop(OneBlockDropId.entityDropId("Skeleton_Archer"), 2),
@@ -1474,7 +1482,7 @@ public final class OneBlockExpeditionDefaults
                 bundle(List.of(crystalReward("ShadowedJungleRoad", 1)), 1)
         ));
 
-        register(expeditions, "ShadowedJungleRoad", 25, List.of(
+        register(expeditions, 83, "ShadowedJungleRoad", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Wraith"), 2),
                 drop(OneBlockDropId.entityDropId("Horse_Skeleton"), 2),
                 drop(OneBlockDropId.entityDropId("Horse_Skeleton_Armored"), 1),
@@ -1493,7 +1501,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("ArmoredDeadGrove", 1)
         ));
 
-        register(expeditions, "ArmoredDeadGrove", 25, List.of(
+        register(expeditions, 84, "ArmoredDeadGrove", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Horse_Skeleton_Armored"), 2),
                 drop(OneBlockDropId.entityDropId("Horse_Skeleton"), 2),
                 drop(OneBlockDropId.entityDropId("Shadow_Knight"), 1),
@@ -1513,7 +1521,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("ShadowKnightCitadel", 1)
         ));
 
-        register(expeditions, "SpiritThreshold", 25, List.of(
+        register(expeditions, 85, "SpiritThreshold", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Spirit_Root"), 2),
                 drop(OneBlockDropId.entityDropId("Spirit_Frost"), 2),
                 drop(OneBlockDropId.entityDropId("Spirit_Thunder"), 2),
@@ -1532,7 +1540,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("ElementalConfluence", 1)
         ));
 
-        register(expeditions, "ElementalConfluence", 25, List.of(
+        register(expeditions, 86, "ElementalConfluence", 25, List.of(
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Earth"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Firesteel"), 2),
                 drop(OneBlockDropId.entityDropId("Golem_Crystal_Frost"), 2),
@@ -1556,7 +1564,7 @@ public final class OneBlockExpeditionDefaults
                 crystalReward("SpiritRealmTrial", 1)
         ));
 
-        register(expeditions, "CrystalCavern", 15, List.of(
+        register(expeditions, 87, "CrystalCavern", 15, List.of(
                 drop("Ingredient_Crystal_Blue", 1),
                 drop("Ingredient_Crystal_Cyan", 1),
                 drop("Ingredient_Crystal_Green", 1),
@@ -1638,6 +1646,19 @@ public final class OneBlockExpeditionDefaults
         return COMPLETION_REWARD_DROP_IDS;
     }
 
+    /** The definition of {@code expeditionId}, or null if there is no such expedition. */
+    public static ExpeditionDefinition getDefinition(String expeditionId)
+    {
+        return expeditionId == null ? null : EXPEDITIONS.get(expeditionId);
+    }
+
+    /** The persisted unlock bit of {@code expeditionId}, or -1 if there is no such expedition. */
+    public static int getUnlockBit(String expeditionId)
+    {
+        ExpeditionDefinition def = getDefinition(expeditionId);
+        return def == null ? -1 : def.unlockBit;
+    }
+
     public static String getBlockId(String expeditionId)
     {
         ExpeditionDefinition def = EXPEDITIONS.get(expeditionId);
@@ -1650,6 +1671,23 @@ public final class OneBlockExpeditionDefaults
         return def == null ? OneBlockExpeditionResolver.DEFAULT_TICKS : def.ticks;
     }
 
+    /**
+     * How much tougher the expedition's block is than the default one: its run length relative
+     * to the default expedition's, so longer late-game runs also take longer per break.
+     */
+    public static float getDurabilityScale(String expeditionId)
+    {
+        return getDurabilityScale(getDefinition(expeditionId));
+    }
+
+    /** {@link #getDurabilityScale(String)} for an already resolved definition; null scales as the default. */
+    public static float getDurabilityScale(ExpeditionDefinition definition)
+    {
+        int baseTicks = getTicks(OneBlockExpeditionResolver.DEFAULT_EXPEDITION);
+        int ticks = definition == null ? OneBlockExpeditionResolver.DEFAULT_TICKS : definition.ticks;
+        return baseTicks <= 0 ? 1f : Math.max(1f, ticks / (float) baseTicks);
+    }
+
     private static DropDefinition drop(String dropId, int weight)
     {
         return new DropDefinition(dropId, Math.max(1, weight));
@@ -1670,29 +1708,47 @@ public final class OneBlockExpeditionDefaults
         return new RandomRewardBundle(items, weight);
     }
 
-    private static void register(Map<String, ExpeditionDefinition> map, String expeditionId, int ticks, List<DropDefinition> drops)
+    private static void register(Map<String, ExpeditionDefinition> map,
+                                 int unlockBit,
+                                 String expeditionId,
+                                 int ticks,
+                                 List<DropDefinition> drops)
     {
-        register(map, expeditionId, ticks, drops, List.of(), List.of());
+        register(map, unlockBit, expeditionId, ticks, drops, List.of(), List.of());
     }
 
     private static void register(Map<String, ExpeditionDefinition> map,
+                                 int unlockBit,
                                  String expeditionId,
                                  int ticks,
                                  List<DropDefinition> drops,
                                  List<CompletionRewardDefinition> mandatoryRewards)
     {
-        register(map, expeditionId, ticks, drops, mandatoryRewards, List.of());
+        register(map, unlockBit, expeditionId, ticks, drops, mandatoryRewards, List.of());
     }
 
+    /** Fails class init if the ID or its unlock bit is already taken, so saved unlocks can never be remapped. */
     private static void register(Map<String, ExpeditionDefinition> map,
+                                 int unlockBit,
                                  String expeditionId,
                                  int ticks,
                                  List<DropDefinition> drops,
                                  List<CompletionRewardDefinition> mandatoryRewards,
                                  List<RandomRewardBundle> randomBundles)
     {
+        if (unlockBit < 0) throw new IllegalStateException("Negative unlock bit for expedition " + expeditionId);
+        if (map.containsKey(expeditionId)) throw new IllegalStateException("Duplicate expedition " + expeditionId);
+        for (ExpeditionDefinition other : map.values())
+        {
+            if (other.unlockBit == unlockBit)
+            {
+                throw new IllegalStateException("Expeditions " + other.expeditionId + " and " + expeditionId
+                        + " share unlock bit " + unlockBit);
+            }
+        }
+
         String blockId = "OneBlock_Block_" + expeditionId;
-        map.put(expeditionId, new ExpeditionDefinition(expeditionId, blockId, ticks, drops, mandatoryRewards, randomBundles));
+        map.put(expeditionId, new ExpeditionDefinition(expeditionId, unlockBit, blockId, ticks, drops, mandatoryRewards, randomBundles));
     }
 
     private static Map<String, List<String>> buildDefaultIds(Map<String, ExpeditionDefinition> expeditions)
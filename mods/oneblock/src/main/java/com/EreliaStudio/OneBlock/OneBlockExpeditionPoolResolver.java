@@ -9,4 +9,10 @@ public final class OneBlockExpeditionPoolResolver implements OneBlockPoolResolve
     {
         return OneBlockExpeditionResolver.expeditionFromBlockType(blockType);
     }
+
+    @Override
+    public String resolvePoolId(OneBlockBlockTable.Entry entry)
+    {
+        return entry.expeditionId();
+    }
 }
@@ -1,110 +1,156 @@
 package com.EreliaStudio.OneBlock;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class OneBlockExpeditionStateProvider
 {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-
-    private final Path filePath;
-    private volatile SaveData state;
-    public OneBlockExpeditionStateProvider(Path filePath)
+    /**
+     * Immutable view of the expedition state. Every transition replaces it as a whole.
+     * {@code runId} increases with every start, so two runs of the same expedition are never
+     * confused; {@code lastCompletedId} remembers which expedition the idle state follows.
+     */
+    public record Snapshot(long runId, String expeditionId, int ticksRemaining, int totalTicks, String lastCompletedId)
     {
-        this.filePath = filePath;
-        this.state = load();
-    }
+        public static final Snapshot IDLE = new Snapshot(0L, null, 0, 0, null);
 
-    public synchronized boolean hasActiveExpedition()
-    {
-        return state.expeditionId != null && !state.expeditionId.isEmpty();
+        public boolean isActive()
+        {
+            return expeditionId != null && !expeditionId.isEmpty();
+        }
+
+        private Snapshot started(String nextExpeditionId, int ticks)
+        {
+            return new Snapshot(runId + 1, nextExpeditionId, ticks, ticks, null);
+        }
+
+        private Snapshot idle(String completedId)
+        {
+            return new Snapshot(runId, null, 0, 0, completedId);
+        }
     }
 
-    public synchronized String getActiveExpeditionId()
+    /** Outcome of a single tick transition: the state it was applied to and the state it produced. */
+    public record TickResult(Snapshot before, Snapshot after)
     {
-        return state.expeditionId;
+        /** Returns the expedition this tick finished, or null if it is still ongoing or was not active. */
+        public String completedExpeditionId()
+        {
+            return before.isActive() && !after.isActive() ? before.expeditionId() : null;
+        }
+
+        /** Whether this break ticked a run; false when no run was active or the break's run had ended. */
+        public boolean applied()
+        {
+            return before != after;
+        }
     }
 
-    public synchronized int getTicksRemaining()
+    private final AtomicReference<Snapshot> state;
+
+    public OneBlockExpeditionStateProvider()
     {
-        return state.ticksRemaining;
+        this.state = new AtomicReference<>(Snapshot.IDLE);
     }
 
-    public synchronized void startExpedition(String expeditionId, int ticks)
+    public Snapshot snapshot()
     {
-        state.expeditionId = expeditionId;
-        state.ticksRemaining = ticks;
-        state.totalTicks = ticks;
-        save();
+        return state.get();
     }
 
     /**
-     * Called on each OneBlock break. Returns the completed expedition ID if the expedition
-     * just finished, or null if the expedition is still ongoing or was not active.
+     * Starts an expedition only if the state is still {@code expected}. Returns the started
+     * state, or null if another transition happened in between.
      */
-    public synchronized String onBreak()
+    public Snapshot tryStart(Snapshot expected, String expeditionId, int ticks)
     {
-        if (!hasActiveExpedition()) return null;
-
-        state.ticksRemaining--;
-        save();
-        if (state.ticksRemaining > 0) return null;
-
-        String completedExpedition = state.expeditionId;
-        state.expeditionId = null;
-        state.ticksRemaining = 0;
-        save();
-
-        return completedExpedition;
+        Snapshot started = expected.started(expeditionId, ticks);
+        return state.compareAndSet(expected, started) ? started : null;
     }
 
-    public synchronized void endExpedition()
+    public Snapshot startExpedition(String expeditionId, int ticks)
     {
-        state.expeditionId = null;
-        state.ticksRemaining = 0;
-        save();
+        return state.updateAndGet(current -> current.started(expeditionId, ticks));
     }
 
-    private void save()
+    /**
+     * Called on each OneBlock break with the snapshot the break was resolved against.
+     * The transition is first attempted from {@code expected}; if another break of the same run
+     * won the race it is retried from the current state, so no tick is ever lost or applied
+     * twice. If the run itself changed in between, the break belonged to a run that is over and
+     * nothing is applied.
+     */
+    public TickResult decrementTick(Snapshot expected)
     {
-        try
+        Snapshot current = expected != null ? expected : state.get();
+        while (true)
         {
-            Files.createDirectories(filePath.getParent());
-            try (Writer writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8))
-            {
-                GSON.toJson(state, writer);
-            }
+            if (!current.isActive()) return new TickResult(current, current);
+
+            int ticksRemaining = current.ticksRemaining() - 1;
+            Snapshot next = ticksRemaining > 0
+                    ? new Snapshot(current.runId(), current.expeditionId(), ticksRemaining, current.totalTicks(), null)
+                    : current.idle(current.expeditionId());
+
+            if (state.compareAndSet(current, next)) return new TickResult(current, next);
+
+            Snapshot latest = state.get();
+            if (latest.runId() != current.runId()) return new TickResult(latest, latest);
+            current = latest;
         }
-        catch (IOException ignored) {}
     }
 
-    private SaveData load()
+    public void endExpedition()
     {
-        if (filePath == null || !Files.exists(filePath)) return new SaveData();
-        try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8))
-        {
-            SaveData loaded = GSON.fromJson(reader, SaveData.class);
-            return loaded != null ? loaded : new SaveData();
-        }
-        catch (Exception ignored) { return new SaveData(); }
+        state.updateAndGet(current -> current.idle(null));
     }
 
-    public synchronized int getTotalTicks()
+    /** Replaces the state wholesale, used when the owning resource is decoded or cloned. */
+    void restore(Snapshot snapshot)
     {
-        return state.totalTicks;
+        state.set(snapshot != null ? snapshot : Snapshot.IDLE);
     }
 
-    private static final class SaveData
+    /** Codec-facing mutable form of a {@link Snapshot}. */
+    static final class SaveData
     {
+        static final BuilderCodec<SaveData> CODEC = BuilderCodec.builder(SaveData.class, SaveData::new)
+                .append(new KeyedCodec<>("RunId", Codec.LONG),
+                        (data, value) -> data.runId = value, data -> data.runId)
+                .add()
+                .append(new KeyedCodec<>("ExpeditionId", Codec.STRING),
+                        (data, value) -> data.expeditionId = value, data -> data.expeditionId)
+                .add()
+                .append(new KeyedCodec<>("TicksRemaining", Codec.INTEGER),
+                        (data, value) -> data.ticksRemaining = value, data -> data.ticksRemaining)
+                .add()
+                .append(new KeyedCodec<>("TotalTicks", Codec.INTEGER),
+                        (data, value) -> data.totalTicks = value, data -> data.totalTicks)
+                .add()
+                .build();
+
+        private long runId;
         private String expeditionId;
         private int ticksRemaining;
         private int totalTicks;
+
+        static SaveData of(Snapshot snapshot)
+        {
+            SaveData data = new SaveData();
+            data.runId = snapshot.runId();
+            data.expeditionId = snapshot.expeditionId();
+            data.ticksRemaining = snapshot.ticksRemaining();
+            data.totalTicks = snapshot.totalTicks();
+            return data;
+        }
+
+        Snapshot toSnapshot()
+        {
+            Snapshot snapshot = new Snapshot(runId, expeditionId, ticksRemaining, totalTicks, null);
+            return snapshot.isActive() ? snapshot : snapshot.idle(null);
+        }
     }
 }
@@ -4,7 +4,7 @@ import com.hypixel.hytale.component.ArchetypeChunk;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.ComponentType;
 import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.ResourceType;
 import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.component.query.Query;
 import com.hypixel.hytale.component.system.tick.ArchetypeTickingSystem;
@@ -25,9 +25,15 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import java.util.UUID;
 
+/**
+ * Catches players who fall into the void of a OneBlock world: below {@link #FALLBACK_Y} they are
+ * teleported to their island's spawn, or killed when fall protection is off. Runs every tick on
+ * entities with a {@link PlayerRef}, including players whose {@link Player} component is not
+ * attached yet; other entities that fall are left to {@link OneBlockFallSweeper}.
+ */
 public final class OneBlockFallBackSystem extends ArchetypeTickingSystem<EntityStore>
 {
-    private static final double FALLBACK_Y = 85.0;
+    static final double FALLBACK_Y = 85.0;
     private static final Vector3d DEFAULT_SPAWN_POS = new Vector3d(0.5, 102.0, 0.5);
     private static final float VOID_DAMAGE_AMOUNT = Float.MAX_VALUE;
 
@@ -41,7 +47,7 @@ public final class OneBlockFallBackSystem extends ArchetypeTickingSystem<EntityS
     @Override
     public Query<EntityStore> getQuery()
     {
-        return TransformComponent.getComponentType();
+        return PlayerRef.getComponentType();
     }
 
     @Override
@@ -62,16 +68,16 @@ public final class OneBlockFallBackSystem extends ArchetypeTickingSystem<EntityS
         }
 
         World world = entityStore.getWorld();
-        if (!isDefaultWorld(world))
+        if (!OneBlockWorldShards.isOneBlockWorld(world))
         {
             return;
         }
 
-        ComponentType<EntityStore, Player> playerType = Player.getComponentType();
         ComponentType<EntityStore, TransformComponent> transformType = TransformComponent.getComponentType();
         ComponentType<EntityStore, PlayerRef> playerRefType = PlayerRef.getComponentType();
         ComponentType<EntityStore, Teleport> teleportType = Teleport.getComponentType();
         ComponentType<EntityStore, DeathComponent> deathType = DeathComponent.getComponentType();
+        boolean fallProtection = settingsProvider == null || settingsProvider.snapshot().fallProtection();
 
         int size = chunk.size();
         for (int i = 0; i < size; i++)
@@ -94,27 +100,20 @@ public final class OneBlockFallBackSystem extends ArchetypeTickingSystem<EntityS
                 continue;
             }
 
-            Player player = chunk.getComponent(i, playerType);
-            PlayerRef playerRef = chunk.getComponent(i, playerRefType);
-            if (player == null && playerRef == null)
-            {
-                buffer.removeEntity(ref, RemoveReason.REMOVE);
-                continue;
-            }
-
             if (buffer.getComponent(ref, teleportType) != null)
             {
                 continue;
             }
 
-            if (!isFallProtectionEnabled())
+            if (!fallProtection)
             {
                 killPlayer(buffer, ref, deathType);
                 continue;
             }
 
+            PlayerRef playerRef = chunk.getComponent(i, playerRefType);
             UUID playerId = playerRef == null ? null : playerRef.getUuid();
-            Transform spawn = resolveSpawn(world, playerId);
+            Transform spawn = resolveSpawn(store, world, playerId);
             if (spawn == null)
             {
                 continue;
@@ -125,11 +124,6 @@ public final class OneBlockFallBackSystem extends ArchetypeTickingSystem<EntityS
         }
     }
 
-    private boolean isFallProtectionEnabled()
-    {
-        return settingsProvider == null || settingsProvider.isFallProtectionEnabled();
-    }
-
     private static void killPlayer(CommandBuffer<EntityStore> buffer,
                                    Ref<EntityStore> ref,
                                    ComponentType<EntityStore, DeathComponent> deathType)
@@ -143,13 +137,21 @@ public final class OneBlockFallBackSystem extends ArchetypeTickingSystem<EntityS
         DeathComponent.tryAddComponent(buffer, ref, damage);
     }
 
-    private static Transform resolveSpawn(World world, UUID playerId)
+    private static Transform resolveSpawn(Store<EntityStore> store, World world, UUID playerId)
     {
         if (world == null || playerId == null)
         {
             return new Transform(DEFAULT_SPAWN_POS, new Rotation3f());
         }
 
+        ResourceType<EntityStore, OneBlockIslandResource> islandType = OneBlockIslandResource.getResourceType();
+        OneBlockIslandResource islands = islandType == null ? null : store.getResource(islandType);
+        OneBlockIsland owned = islands == null ? null : islands.getIslandOf(playerId);
+        if (owned != null)
+        {
+            return new Transform(owned.getSpawnPosition(), new Rotation3f());
+        }
+
         WorldConfig config = world.getWorldConfig();
         if (config != null)
         {
@@ -166,9 +168,4 @@ public final class OneBlockFallBackSystem extends ArchetypeTickingSystem<EntityS
 
         return new Transform(DEFAULT_SPAWN_POS, new Rotation3f());
     }
-
-    private static boolean isDefaultWorld(World world)
-    {
-        return world != null && World.DEFAULT.equals(world.getName());
-    }
 }
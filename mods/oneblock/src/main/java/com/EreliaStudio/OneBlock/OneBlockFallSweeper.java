@@ -0,0 +1,93 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.ArchetypeTickingSystem;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3d;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Removes items, NPCs and projectiles that fell into the void of a OneBlock world. Nothing needs
+ * them gone on the tick they cross {@link OneBlockFallBackSystem#FALLBACK_Y}, so instead of
+ * reading every transform each tick, each world is swept on one tick out of
+ * {@link #SWEEP_INTERVAL_TICKS} and at most {@link #MAX_REMOVALS_PER_SWEEP} entities are removed
+ * per sweep; the rest go on the next one. Entities with a {@link PlayerRef} are left to
+ * {@link OneBlockFallBackSystem}, which matches on the same component.
+ */
+public final class OneBlockFallSweeper extends ArchetypeTickingSystem<EntityStore>
+{
+    private static final int SWEEP_INTERVAL_TICKS = 20;
+    private static final int MAX_REMOVALS_PER_SWEEP = 64;
+
+    private final Map<String, Sweep> sweeps = new ConcurrentHashMap<>();
+
+    @Override
+    public Query<EntityStore> getQuery()
+    {
+        return Query.and(TransformComponent.getComponentType(), Query.not(PlayerRef.getComponentType()));
+    }
+
+    /** Counts the world's ticks and only walks its chunks on the sweep tick. */
+    @Override
+    public void tick(float delta, int systemIndex, Store<EntityStore> store)
+    {
+        EntityStore entityStore = store == null ? null : store.getExternalData();
+        World world = entityStore == null ? null : entityStore.getWorld();
+        if (!OneBlockWorldShards.isOneBlockWorld(world)) return;
+
+        Sweep sweep = sweeps.computeIfAbsent(world.getName(), name -> new Sweep());
+        if (++sweep.ticks < SWEEP_INTERVAL_TICKS) return;
+
+        sweep.ticks = 0;
+        sweep.removals = 0;
+        super.tick(delta, systemIndex, store);
+    }
+
+    @Override
+    public void tick(float delta,
+                     ArchetypeChunk<EntityStore> chunk,
+                     Store<EntityStore> store,
+                     CommandBuffer<EntityStore> buffer)
+    {
+        if (chunk == null || store == null) return;
+
+        EntityStore entityStore = store.getExternalData();
+        World world = entityStore == null ? null : entityStore.getWorld();
+        Sweep sweep = world == null ? null : sweeps.get(world.getName());
+        if (sweep == null) return;
+
+        ComponentType<EntityStore, TransformComponent> transformType = TransformComponent.getComponentType();
+
+        int size = chunk.size();
+        for (int i = 0; i < size && sweep.removals < MAX_REMOVALS_PER_SWEEP; i++)
+        {
+            TransformComponent transform = chunk.getComponent(i, transformType);
+            Vector3d position = transform == null ? null : transform.getPosition();
+            if (position == null || position.y() >= OneBlockFallBackSystem.FALLBACK_Y) continue;
+
+            Ref<EntityStore> ref = chunk.getReferenceTo(i);
+            if (ref == null) continue;
+
+            buffer.removeEntity(ref, RemoveReason.REMOVE);
+            sweep.removals++;
+        }
+    }
+
+    /** Sweep state of one world. World thread only. */
+    private static final class Sweep
+    {
+        private int ticks;
+        private int removals;
+    }
+}
@@ -0,0 +1,120 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Stores each key in its own file under the data directory: {@code name} maps to
+ * {@code oneblock-name<ext>} and {@code namespace/name} to {@code oneblock-namespace/name<ext>},
+ * so the settings key keeps its historical {@code oneblock-settings.json} location.
+ * Writes go to a temporary file that is moved over the old one.
+ */
+abstract class OneBlockFileStateStore implements OneBlockStateStore
+{
+    private static final String PREFIX = "oneblock-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final String extension;
+
+    OneBlockFileStateStore(Path root, String extension)
+    {
+        this.root = root;
+        this.extension = extension;
+    }
+
+    protected abstract byte[] encode(JsonObject value) throws IOException;
+
+    protected abstract JsonObject decode(byte[] bytes) throws IOException;
+
+    @Override
+    public JsonObject read(String key) throws IOException
+    {
+        Path filePath = resolve(key);
+        if (!Files.exists(filePath)) return null;
+
+        return decode(Files.readAllBytes(filePath));
+    }
+
+    @Override
+    public void write(String key, JsonObject value) throws IOException
+    {
+        Path filePath = resolve(key);
+        Files.createDirectories(filePath.getParent());
+
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + TEMP_SUFFIX);
+        Files.write(tempPath, encode(value));
+
+        try
+        {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException
+    {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Set<String> keys() throws IOException
+    {
+        Set<String> keys = new TreeSet<>();
+        if (!Files.isDirectory(root)) return keys;
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root, PREFIX + "*"))
+        {
+            for (Path entry : entries)
+            {
+                String name = entry.getFileName().toString().substring(PREFIX.length());
+                if (Files.isDirectory(entry))
+                {
+                    collectNamespace(entry, name, keys);
+                }
+                else if (name.endsWith(extension))
+                {
+                    keys.add(name.substring(0, name.length() - extension.length()));
+                }
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public void close() {}
+
+    private void collectNamespace(Path directory, String namespace, Set<String> keys) throws IOException
+    {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + extension))
+        {
+            for (Path entry : entries)
+            {
+                String name = entry.getFileName().toString();
+                keys.add(namespace + "/" + name.substring(0, name.length() - extension.length()));
+            }
+        }
+    }
+
+    private Path resolve(String key)
+    {
+        OneBlockStateStore.validateKey(key);
+
+        int slash = key.indexOf('/');
+        if (slash < 0) return root.resolve(PREFIX + key + extension);
+
+        return root.resolve(PREFIX + key.substring(0, slash)).resolve(key.substring(slash + 1) + extension);
+    }
+}
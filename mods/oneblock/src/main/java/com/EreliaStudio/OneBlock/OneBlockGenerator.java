@@ -0,0 +1,202 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import org.joml.Vector3i;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One OneBlock and the state behind it: its own expedition, dungeon and contributions. Every
+ * island has a primary generator at its origin; further OneBlocks placed on the island get a
+ * generator of their own the first time they are broken, so each one runs its own cycle.
+ * <p>
+ * Generators hibernate together with their island: the providers are dropped and only the
+ * two state snapshots and a plain copy of the undrained contributions are kept, so the next
+ * completion still rewards everyone who mined before. Any accessor wakes the generator up again.
+ * <p>
+ * Most calls come from the island's world thread, but two others reach a generator. A dungeon
+ * instance's world thread resolves the island's dungeon state for arena breaks, which can wake
+ * it. The engine encodes the island resource for saving through {@link #expeditionSnapshot}
+ * and {@link #dungeonSnapshot}. Hibernating, waking and those snapshots therefore lock the
+ * generator; an awake generator is reached through the volatile {@code active} field without
+ * taking the lock.
+ */
+public final class OneBlockGenerator
+{
+    private final OneBlockIsland island;
+    private final Vector3i position;
+    private final long key;
+
+    /** Live state, or null while hibernated. */
+    private volatile Active active = new Active();
+    private OneBlockExpeditionStateProvider.Snapshot dormantExpedition;
+    private OneBlockDungeonStateProvider.Snapshot dormantDungeon;
+    private Map<Long, Set<UUID>> dormantContributions;
+    /** Damage taken since the last break when the plugin tracks durability. World thread only. */
+    private float damage;
+
+    OneBlockGenerator(OneBlockIsland island, Vector3i position)
+    {
+        this.island = island;
+        this.position = position;
+        this.key = OneBlockBlockPos.pack(position);
+    }
+
+    public OneBlockIsland getIsland() { return island; }
+    public Vector3i getPosition() { return position; }
+    public long getKey() { return key; }
+    public OneBlockExpeditionStateProvider getExpeditionState() { return wake().expedition; }
+    public OneBlockDungeonStateProvider getDungeonState() { return wake().dungeon; }
+    public OneBlockContributionTracker getContributions() { return wake().contributions; }
+
+    /** Whether this is the island's own OneBlock, the one dungeon instances and the HUD follow. */
+    public boolean isPrimary()
+    {
+        return island.getPrimaryGenerator() == this;
+    }
+
+    /**
+     * Adds {@code amount} to the block's damage. Returns true, and starts the next block at full
+     * durability, once {@code durability} is reached. World thread only.
+     */
+    boolean applyDamage(float amount, float durability)
+    {
+        damage += amount;
+        if (damage < durability) return false;
+
+        damage = 0f;
+        return true;
+    }
+
+    boolean isHibernated()
+    {
+        return active == null;
+    }
+
+    /** Drops the providers and keeps their snapshots. Called by the island's world thread. */
+    synchronized void hibernate()
+    {
+        Active current = active;
+        if (current == null) return;
+
+        dormantExpedition = current.expedition.snapshot();
+        dormantDungeon = current.dungeon.snapshot();
+        dormantContributions = current.contributions.snapshot();
+        damage = 0f;
+        active = null;
+    }
+
+    Active wake()
+    {
+        Active current = active;
+        return current != null ? current : activate();
+    }
+
+    private synchronized Active activate()
+    {
+        if (active == null)
+        {
+            Active restored = new Active();
+            restored.expedition.restore(dormantExpedition);
+            restored.dungeon.restore(dormantDungeon);
+            restored.contributions.restore(dormantContributions);
+            dormantExpedition = null;
+            dormantDungeon = null;
+            dormantContributions = null;
+            active = restored;
+        }
+        return active;
+    }
+
+    synchronized OneBlockExpeditionStateProvider.Snapshot expeditionSnapshot()
+    {
+        return active != null ? active.expedition.snapshot() : dormantExpedition;
+    }
+
+    synchronized OneBlockDungeonStateProvider.Snapshot dungeonSnapshot()
+    {
+        return active != null ? active.dungeon.snapshot() : dormantDungeon;
+    }
+
+    /** Starts the generator hibernated on the given snapshots; used when loading. */
+    synchronized void restoreDormant(OneBlockExpeditionStateProvider.Snapshot expedition,
+                                     OneBlockDungeonStateProvider.Snapshot dungeon)
+    {
+        active = null;
+        dormantExpedition = expedition != null ? expedition : OneBlockExpeditionStateProvider.Snapshot.IDLE;
+        dormantDungeon = dungeon != null ? dungeon : OneBlockDungeonStateProvider.Snapshot.IDLE;
+        dormantContributions = null;
+    }
+
+    /** Codec-facing form of an extra generator. The primary one is stored with its island. */
+    static final class SaveData
+    {
+        static final BuilderCodec<SaveData> CODEC = BuilderCodec.builder(SaveData.class, SaveData::new)
+                .append(new KeyedCodec<>("X", Codec.INTEGER),
+                        (data, value) -> data.x = value, data -> data.x)
+                .add()
+                .append(new KeyedCodec<>("Y", Codec.INTEGER),
+                        (data, value) -> data.y = value, data -> data.y)
+                .add()
+                .append(new KeyedCodec<>("Z", Codec.INTEGER),
+                        (data, value) -> data.z = value, data -> data.z)
+                .add()
+                .append(new KeyedCodec<>("Expedition", OneBlockExpeditionStateProvider.SaveData.CODEC),
+                        (data, value) -> data.expedition = value, data -> data.expedition)
+                .add()
+                .append(new KeyedCodec<>("Dungeon", OneBlockDungeonStateProvider.SaveData.CODEC),
+                        (data, value) -> data.dungeon = value, data -> data.dungeon)
+                .add()
+                .build();
+
+        private int x;
+        private int y;
+        private int z;
+        private OneBlockExpeditionStateProvider.SaveData expedition;
+        private OneBlockDungeonStateProvider.SaveData dungeon;
+
+        static SaveData of(OneBlockGenerator generator)
+        {
+            return of(generator.position, generator.expeditionSnapshot(), generator.dungeonSnapshot());
+        }
+
+        static SaveData of(Vector3i position,
+                           OneBlockExpeditionStateProvider.Snapshot expedition,
+                           OneBlockDungeonStateProvider.Snapshot dungeon)
+        {
+            SaveData data = new SaveData();
+            data.x = position.x();
+            data.y = position.y();
+            data.z = position.z();
+            data.expedition = OneBlockExpeditionStateProvider.SaveData.of(expedition);
+            data.dungeon = OneBlockDungeonStateProvider.SaveData.of(dungeon);
+            return data;
+        }
+
+        Vector3i getPosition()
+        {
+            return new Vector3i(x, y, z);
+        }
+
+        OneBlockExpeditionStateProvider.Snapshot getExpedition()
+        {
+            return expedition != null ? expedition.toSnapshot() : null;
+        }
+
+        OneBlockDungeonStateProvider.Snapshot getDungeon()
+        {
+            return dungeon != null ? dungeon.toSnapshot() : null;
+        }
+    }
+
+    static final class Active
+    {
+        private final OneBlockExpeditionStateProvider expedition = new OneBlockExpeditionStateProvider();
+        private final OneBlockDungeonStateProvider dungeon = new OneBlockDungeonStateProvider();
+        private final OneBlockContributionTracker contributions = new OneBlockContributionTracker();
+    }
+}
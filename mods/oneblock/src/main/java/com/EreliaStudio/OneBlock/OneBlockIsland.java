@@ -0,0 +1,253 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.codec.codecs.array.ArrayCodec;
+import org.joml.Vector3d;
+import org.joml.Vector3i;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One OneBlock island: its OneBlock position, its owner and the generators running on it. The
+ * primary generator sits at the island's origin and carries the state the HUD, dungeon
+ * instances and transfers work with; up to {@link #MAX_GENERATORS} OneBlocks can run on an
+ * island in total. The shared island at {@link OneBlockBlockIds#ONEBLOCK_POSITION} has no
+ * owner; in multi-island mode every player also gets an island of their own.
+ * <p>
+ * A player island nobody has been near for a while is hibernated together with all of its
+ * generators; any accessor wakes the generator it reaches up again.
+ */
+public final class OneBlockIsland
+{
+    public static final int MAIN_ISLAND_ID = 0;
+    public static final int MAX_GENERATORS = 16;
+
+    private final int id;
+    private final UUID owner;
+    private final Vector3i origin;
+    private final OneBlockGenerator primary;
+    private final List<OneBlockGenerator> generators = new CopyOnWriteArrayList<>();
+
+    private long lastVisitMillis = System.currentTimeMillis();
+    private volatile boolean inDungeonInstance;
+
+    public OneBlockIsland(int id, UUID owner, Vector3i origin)
+    {
+        this.id = id;
+        this.owner = owner;
+        this.origin = origin;
+        this.primary = new OneBlockGenerator(this, origin);
+        this.generators.add(primary);
+    }
+
+    public int getId() { return id; }
+    public UUID getOwner() { return owner; }
+    public Vector3i getOrigin() { return origin; }
+    public OneBlockGenerator getPrimaryGenerator() { return primary; }
+    public OneBlockExpeditionStateProvider getExpeditionState() { return primary.getExpeditionState(); }
+    public OneBlockDungeonStateProvider getDungeonState() { return primary.getDungeonState(); }
+    public OneBlockContributionTracker getContributions() { return primary.getContributions(); }
+
+    /** Every generator of the island, the primary one first. */
+    public List<OneBlockGenerator> getGenerators()
+    {
+        return Collections.unmodifiableList(generators);
+    }
+
+    public boolean isMain()
+    {
+        return id == MAIN_ISLAND_ID;
+    }
+
+    public boolean isHibernated()
+    {
+        return primary.isHibernated();
+    }
+
+    /** Whether the island's dungeon is running in a pooled instance world rather than here. */
+    public boolean isInDungeonInstance()
+    {
+        return inDungeonInstance;
+    }
+
+    void setInDungeonInstance(boolean value)
+    {
+        inDungeonInstance = value;
+    }
+
+    /**
+     * Adds a generator for the OneBlock at {@code position}. Returns null once the island has
+     * {@link #MAX_GENERATORS}. Registry changes happen on the world thread only.
+     */
+    OneBlockGenerator addGenerator(Vector3i position)
+    {
+        if (generators.size() >= MAX_GENERATORS) return null;
+
+        OneBlockGenerator generator = new OneBlockGenerator(this, position);
+        generators.add(generator);
+        return generator;
+    }
+
+    /**
+     * Removes an extra generator whose OneBlock is gone, freeing its place under
+     * {@link #MAX_GENERATORS}. The primary generator is never removed. World thread only.
+     */
+    boolean removeGenerator(OneBlockGenerator generator)
+    {
+        return generator != primary && generators.remove(generator);
+    }
+
+    /** Records that a player is on the island, waking it up if needed. World thread only. */
+    void markVisited(long nowMillis)
+    {
+        lastVisitMillis = nowMillis;
+        primary.wake();
+    }
+
+    long getLastVisitMillis()
+    {
+        return lastVisitMillis;
+    }
+
+    /**
+     * Hibernates every generator of the island; undrained contributions go into their dormant
+     * state. The main island and islands with a dungeon in an instance stay awake. Returns
+     * whether the island went to sleep. World thread only; each generator guards its own
+     * hibernation against the other threads that wake it.
+     */
+    boolean hibernate()
+    {
+        if (isHibernated() || isMain() || inDungeonInstance) return false;
+
+        for (OneBlockGenerator generator : generators)
+        {
+            generator.hibernate();
+        }
+        return true;
+    }
+
+    /** Where players of this island stand: centred two blocks above the OneBlock. */
+    public Vector3d getSpawnPosition()
+    {
+        return new Vector3d(origin.x() + 0.5, origin.y() + 2.0, origin.z() + 0.5);
+    }
+
+    /** The generators beyond the primary one, in codec form. */
+    OneBlockGenerator.SaveData[] saveExtraGenerators()
+    {
+        List<OneBlockGenerator.SaveData> out = new ArrayList<>();
+        for (OneBlockGenerator generator : generators)
+        {
+            if (generator != primary) out.add(OneBlockGenerator.SaveData.of(generator));
+        }
+        return out.toArray(new OneBlockGenerator.SaveData[0]);
+    }
+
+    /** Re-adds saved extra generators, skipping duplicates and any past the cap. */
+    void restoreExtraGenerators(OneBlockGenerator.SaveData[] saved, boolean dormant)
+    {
+        if (saved == null) return;
+
+        for (OneBlockGenerator.SaveData data : saved)
+        {
+            Vector3i position = data.getPosition();
+            boolean known = false;
+            for (OneBlockGenerator generator : generators)
+            {
+                if (generator.getKey() == OneBlockBlockPos.pack(position)) known = true;
+            }
+            if (known) continue;
+
+            OneBlockGenerator generator = addGenerator(position);
+            if (generator == null) return;
+
+            if (dormant)
+            {
+                generator.restoreDormant(data.getExpedition(), data.getDungeon());
+            }
+            else
+            {
+                generator.getExpeditionState().restore(data.getExpedition());
+                generator.getDungeonState().restore(data.getDungeon());
+            }
+        }
+    }
+
+    /** Codec-facing form of a player island. The main island is stored by the resource itself. */
+    static final class SaveData
+    {
+        static final BuilderCodec<SaveData> CODEC = BuilderCodec.builder(SaveData.class, SaveData::new)
+                .append(new KeyedCodec<>("Id", Codec.INTEGER),
+                        (data, value) -> data.id = value, data -> data.id)
+                .add()
+                .append(new KeyedCodec<>("Owner", Codec.STRING),
+                        (data, value) -> data.owner = value, data -> data.owner)
+                .add()
+                .append(new KeyedCodec<>("X", Codec.INTEGER),
+                        (data, value) -> data.x = value, data -> data.x)
+                .add()
+                .append(new KeyedCodec<>("Y", Codec.INTEGER),
+                        (data, value) -> data.y = value, data -> data.y)
+                .add()
+                .append(new KeyedCodec<>("Z", Codec.INTEGER),
+                        (data, value) -> data.z = value, data -> data.z)
+                .add()
+                .append(new KeyedCodec<>("Expedition", OneBlockExpeditionStateProvider.SaveData.CODEC),
+                        (data, value) -> data.expedition = value, data -> data.expedition)
+                .add()
+                .append(new KeyedCodec<>("Dungeon", OneBlockDungeonStateProvider.SaveData.CODEC),
+                        (data, value) -> data.dungeon = value, data -> data.dungeon)
+                .add()
+                .append(new KeyedCodec<>("Generators", new ArrayCodec<>(OneBlockGenerator.SaveData.CODEC, OneBlockGenerator.SaveData[]::new)),
+                        (data, value) -> data.generators = value, data -> data.generators)
+                .add()
+                .build();
+
+        private int id;
+        private String owner;
+        private int x;
+        private int y;
+        private int z;
+        private OneBlockExpeditionStateProvider.SaveData expedition;
+        private OneBlockDungeonStateProvider.SaveData dungeon;
+        private OneBlockGenerator.SaveData[] generators;
+
+        static SaveData of(OneBlockIsland island)
+        {
+            SaveData data = new SaveData();
+            data.id = island.id;
+            data.owner = island.owner != null ? island.owner.toString() : null;
+            data.x = island.origin.x();
+            data.y = island.origin.y();
+            data.z = island.origin.z();
+            data.expedition = OneBlockExpeditionStateProvider.SaveData.of(island.primary.expeditionSnapshot());
+            data.dungeon = OneBlockDungeonStateProvider.SaveData.of(island.primary.dungeonSnapshot());
+            data.generators = island.saveExtraGenerators();
+            return data;
+        }
+
+        OneBlockIsland toIsland()
+        {
+            UUID ownerId = null;
+            try
+            {
+                ownerId = owner != null ? UUID.fromString(owner) : null;
+            }
+            catch (IllegalArgumentException ignored) {}
+
+            // Loaded islands start hibernated; the first visit or access wakes them up.
+            OneBlockIsland island = new OneBlockIsland(id, ownerId, new Vector3i(x, y, z));
+            island.primary.restoreDormant(
+                    expedition != null ? expedition.toSnapshot() : null,
+                    dungeon != null ? dungeon.toSnapshot() : null);
+            island.restoreExtraGenerators(generators, true);
+            return island;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.EreliaStudio.OneBlock;
+
+import org.joml.Vector3i;
+
+import java.util.Arrays;
+
+/**
+ * Hands out island slots on a square spiral around the main island. Slot {@code n} is the
+ * {@code n}-th cell of the spiral, so islands fill rings outwards and stay clustered near the
+ * origin, where neighbours share region files. Each cell is {@link #SPACING} blocks wide, which
+ * keeps view distances of neighbouring islands apart, and every OneBlock sits in the middle of
+ * its own chunk.
+ * <p>
+ * Used slots are a bitmap of {@code long} words, persisted with the island resource. A hint
+ * to the lowest word with a free bit makes allocation and release constant time in practice.
+ * Slot 0 is the main island and is never handed out. Not thread-safe.
+ */
+final class OneBlockIslandAllocator
+{
+    static final int CHUNK_SIZE = 32;
+    /** Distance between neighbouring island cells, in blocks (16 chunks). */
+    static final int SPACING = 16 * CHUNK_SIZE;
+
+    private long[] used;
+    private int freeHint;
+
+    OneBlockIslandAllocator()
+    {
+        this(new long[1]);
+    }
+
+    private OneBlockIslandAllocator(long[] words)
+    {
+        used = words.length == 0 ? new long[1] : words;
+        used[0] |= 1L;
+        freeHint = 0;
+    }
+
+    static OneBlockIslandAllocator fromWords(long[] words)
+    {
+        return new OneBlockIslandAllocator(words == null ? new long[1] : words.clone());
+    }
+
+    long[] toWords()
+    {
+        int length = used.length;
+        while (length > 1 && used[length - 1] == 0L) length--;
+        return Arrays.copyOf(used, length);
+    }
+
+    /** Claims the lowest free slot. */
+    int allocate()
+    {
+        int word = freeHint;
+        while (word < used.length && used[word] == -1L) word++;
+        if (word == used.length) used = Arrays.copyOf(used, used.length * 2);
+
+        int bit = Long.numberOfTrailingZeros(~used[word]);
+        used[word] |= 1L << bit;
+        freeHint = word;
+        return (word << 6) | bit;
+    }
+
+    /** Marks {@code slot} as used, for islands restored from disk. */
+    void markUsed(int slot)
+    {
+        if (slot <= 0) return;
+
+        int word = slot >>> 6;
+        if (word >= used.length) used = Arrays.copyOf(used, Math.max(used.length * 2, word + 1));
+        used[word] |= 1L << slot;
+    }
+
+    void release(int slot)
+    {
+        if (slot <= 0) return;
+
+        int word = slot >>> 6;
+        if (word >= used.length) return;
+        used[word] &= ~(1L << slot);
+        freeHint = Math.min(freeHint, word);
+    }
+
+    boolean isUsed(int slot)
+    {
+        int word = slot >>> 6;
+        return word < used.length && (used[word] & (1L << slot)) != 0L;
+    }
+
+    /** OneBlock position of the spiral cell containing block column ({@code x}, {@code z}). */
+    static Vector3i cellOriginAt(double x, double z)
+    {
+        Vector3i base = OneBlockBlockIds.ONEBLOCK_POSITION;
+        int half = CHUNK_SIZE / 2;
+        int centreX = Math.floorDiv(base.x(), CHUNK_SIZE) * CHUNK_SIZE + half;
+        int centreZ = Math.floorDiv(base.z(), CHUNK_SIZE) * CHUNK_SIZE + half;
+        long cellX = Math.round((x - centreX) / SPACING);
+        long cellZ = Math.round((z - centreZ) / SPACING);
+        return new Vector3i((int) (centreX + cellX * SPACING), base.y(), (int) (centreZ + cellZ * SPACING));
+    }
+
+    /** OneBlock position of {@code slot}: the centre of a chunk, at the main island's height. */
+    static Vector3i originOf(int slot)
+    {
+        Vector3i base = OneBlockBlockIds.ONEBLOCK_POSITION;
+        if (slot == OneBlockIsland.MAIN_ISLAND_ID) return base;
+
+        int ring = (int) Math.ceil((Math.sqrt(slot + 1.0) - 1.0) / 2.0);
+        int side = 2 * ring;
+        int offset = (side + 1) * (side + 1) - 1 - slot;
+
+        int cellX;
+        int cellZ;
+        if (offset < side)
+        {
+            cellX = ring - offset;
+            cellZ = -ring;
+        }
+        else if (offset < 2 * side)
+        {
+            cellX = -ring;
+            cellZ = -ring + (offset - side);
+        }
+        else if (offset < 3 * side)
+        {
+            cellX = -ring + (offset - 2 * side);
+            cellZ = ring;
+        }
+        else
+        {
+            cellX = ring;
+            cellZ = ring - (offset - 3 * side);
+        }
+
+        int half = CHUNK_SIZE / 2;
+        return new Vector3i(
+                Math.floorDiv(base.x(), CHUNK_SIZE) * CHUNK_SIZE + cellX * SPACING + half,
+                base.y(),
+                Math.floorDiv(base.z(), CHUNK_SIZE) * CHUNK_SIZE + cellZ * SPACING + half
+        );
+    }
+}
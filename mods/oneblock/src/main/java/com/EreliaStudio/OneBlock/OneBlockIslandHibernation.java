@@ -0,0 +1,124 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.ArchetypeTickingSystem;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3d;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Puts player islands to sleep while nobody is on them. Every tick each player marks the
+ * island whose cell they stand in as visited, waking it if it was hibernated; a sweep on the
+ * world thread then hibernates islands that were not visited for the configured
+ * {@code islandIdleMinutes} and removes the extra generators of awake islands whose OneBlock
+ * is gone.
+ * <p>
+ * A hibernated island keeps only its id, owner, position and two state snapshots. Its dungeon
+ * NPCs are despawned and nothing in the plugin keeps its chunks or entities alive, so the
+ * engine unloads them, and it costs no tick time until its owner or a visitor comes back.
+ */
+public final class OneBlockIslandHibernation extends ArchetypeTickingSystem<EntityStore>
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final long SWEEP_PERIOD_SECONDS = 60;
+
+    private final ResourceType<EntityStore, OneBlockIslandResource> islandResourceType;
+    private final OneBlockWaveSpawner waveSpawner;
+    private final OneBlockSettingsProvider settingsProvider;
+    private final ScheduledExecutorService scheduler;
+
+    public OneBlockIslandHibernation(ResourceType<EntityStore, OneBlockIslandResource> islandResourceType,
+                                     OneBlockWaveSpawner waveSpawner,
+                                     OneBlockSettingsProvider settingsProvider)
+    {
+        this.islandResourceType = islandResourceType;
+        this.waveSpawner = waveSpawner;
+        this.settingsProvider = settingsProvider;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OneBlock-Hibernation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Query<EntityStore> getQuery()
+    {
+        return Player.getComponentType();
+    }
+
+    @Override
+    public void tick(float delta,
+                     ArchetypeChunk<EntityStore> chunk,
+                     Store<EntityStore> store,
+                     CommandBuffer<EntityStore> buffer)
+    {
+        if (chunk == null || store == null) return;
+
+        OneBlockIslandResource islands = store.getResource(islandResourceType);
+        if (islands == null || islands.getIslands().size() <= 1) return;
+
+        ComponentType<EntityStore, TransformComponent> transformType = TransformComponent.getComponentType();
+        long now = System.currentTimeMillis();
+
+        int size = chunk.size();
+        for (int i = 0; i < size; i++)
+        {
+            TransformComponent transform = chunk.getComponent(i, transformType);
+            Vector3d position = transform == null ? null : transform.getPosition();
+            if (position == null) continue;
+
+            OneBlockIsland island = islands.getIslandNear(position.x(), position.z());
+            if (island != null) island.markVisited(now);
+        }
+    }
+
+    /** Starts the periodic sweep of {@code world}. Runs even when the world has no players. */
+    public void watch(World world)
+    {
+        if (world == null) return;
+
+        scheduler.scheduleWithFixedDelay(
+                () -> world.execute(() -> sweep(world)),
+                SWEEP_PERIOD_SECONDS, SWEEP_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void shutdown()
+    {
+        scheduler.shutdownNow();
+    }
+
+    private void sweep(World world)
+    {
+        EntityStore entityStore = world.getEntityStore();
+        OneBlockIslandResource islands = entityStore == null ? null : entityStore.getStore().getResource(islandResourceType);
+        if (islands == null) return;
+
+        long idleSince = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(settingsProvider.getIslandIdleMinutes());
+        int hibernated = islands.hibernateIdle(idleSince);
+        if (hibernated > 0 && waveSpawner != null) waveSpawner.despawnHibernated(world);
+        int pruned = islands.pruneMissingGenerators(world);
+        int pinned = islands.getChunkPins().retain(world, islands.getIslands());
+        if (hibernated > 0 || pruned > 0)
+        {
+            LOGGER.at(Level.FINE).log("Hibernated " + hibernated + " islands in " + world.getName()
+                    + ", " + islands.countActive() + " active, " + pruned + " generators pruned, "
+                    + pinned + " chunks pinned.");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3i;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Keeps a few empty islands built ahead of new players in multi-island mode. Each pass claims
+ * one slot and asks the chunk store for its chunk, which the engine loads or generates with the
+ * world's void generator off the world thread. Once the chunk is there, the OneBlock is placed
+ * on the world thread and, if it reads back, the slot is queued on the island resource;
+ * {@link OneBlockIslandResource#createIsland} hands queued slots out first, so a first join only
+ * has to register the owner. A slot whose chunk or block could not be made is given back.
+ * <p>
+ * Each world builds one island at a time, so a rush of joins drains the queue without adding
+ * generation work to the ticks that serve those joins.
+ */
+public final class OneBlockIslandPregenerator
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final long PASS_PERIOD_SECONDS = 5;
+
+    private final ResourceType<EntityStore, OneBlockIslandResource> islandResourceType;
+    private final OneBlockSettingsProvider settingsProvider;
+    private final Set<String> building = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    public OneBlockIslandPregenerator(ResourceType<EntityStore, OneBlockIslandResource> islandResourceType,
+                                      OneBlockSettingsProvider settingsProvider)
+    {
+        this.islandResourceType = islandResourceType;
+        this.settingsProvider = settingsProvider;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OneBlock-Pregenerator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void watch(World world)
+    {
+        if (world == null) return;
+
+        scheduler.scheduleWithFixedDelay(
+                () -> world.execute(() -> pregenerate(world)),
+                PASS_PERIOD_SECONDS, PASS_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void shutdown()
+    {
+        scheduler.shutdownNow();
+    }
+
+    /** Reserves a slot and requests its chunk, unless enough are ready or one is being built. World thread only. */
+    private void pregenerate(World world)
+    {
+        if (settingsProvider == null || !settingsProvider.isMultiIslandEnabled()) return;
+
+        OneBlockIslandResource islands = islandsOf(world);
+        ChunkStore chunkStore = world.getChunkStore();
+        if (islands == null || chunkStore == null || islands.getReadySlotCount() >= settingsProvider.getReadyIslandCount()) return;
+        if (!building.add(world.getName())) return;
+
+        int slot = islands.reserveSlot();
+        Vector3i origin = OneBlockIslandAllocator.originOf(slot);
+        chunkStore.getChunkReferenceAsync(ChunkUtil.indexChunkFromBlock(origin.x(), origin.z()))
+                .whenComplete((ref, error) -> world.execute(() -> place(world, slot, origin, error == null ? ref : null)));
+    }
+
+    /** Places the OneBlock of a reserved slot once its chunk is loaded, and queues the slot if it holds. World thread only. */
+    private void place(World world, int slot, Vector3i origin, Ref<ChunkStore> chunk)
+    {
+        building.remove(world.getName());
+        OneBlockIslandResource islands = islandsOf(world);
+        if (islands == null) return;
+
+        if (chunk != null && chunk.isValid())
+        {
+            world.setBlock(origin.x(), origin.y(), origin.z(), OneBlockBlockIds.DEFAULT_BLOCK_ID);
+            if (OneBlockBlockTable.at(world, origin) != null)
+            {
+                islands.addReadySlot(slot);
+                LOGGER.at(Level.FINE).log("Pre-generated island slot " + slot + " at " + origin
+                        + " (" + islands.getReadySlotCount() + " ready).");
+                return;
+            }
+        }
+
+        islands.releaseSlot(slot);
+        LOGGER.at(Level.FINE).log("Could not pre-generate island slot " + slot + " at " + origin + "; retrying next pass.");
+    }
+
+    private OneBlockIslandResource islandsOf(World world)
+    {
+        EntityStore entityStore = world.getEntityStore();
+        return entityStore == null ? null : entityStore.getStore().getResource(islandResourceType);
+    }
+}
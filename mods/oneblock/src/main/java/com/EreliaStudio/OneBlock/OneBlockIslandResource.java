@@ -0,0 +1,406 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.codec.codecs.array.ArrayCodec;
+import com.hypixel.hytale.component.Resource;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3i;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * World-level resource holding every OneBlock island of the world. It is persisted through its
+ * codec as part of the world's own save cycle, under the world's {@code resources} folder, so
+ * the state travels with {@code universe/worlds/<name>}.
+ * <p>
+ * Every generator of every island is indexed by the packed position of its OneBlock, so a break
+ * resolves its state with a single primitive-keyed lookup however many OneBlocks an island
+ * runs; islands are also indexed by owner. The registry is only changed on the world thread;
+ * the state inside each island is safe to read and transition from any thread.
+ */
+public final class OneBlockIslandResource implements Resource<EntityStore>
+{
+    public static final String RESOURCE_ID = "OneBlockIsland";
+
+    public static final BuilderCodec<OneBlockIslandResource> CODEC = BuilderCodec.builder(
+                    OneBlockIslandResource.class,
+                    OneBlockIslandResource::new
+            )
+            .append(new KeyedCodec<>("Expedition", OneBlockExpeditionStateProvider.SaveData.CODEC),
+                    (resource, data) -> resource.main.getExpeditionState().restore(data.toSnapshot()),
+                    resource -> OneBlockExpeditionStateProvider.SaveData.of(resource.main.getExpeditionState().snapshot()))
+            .add()
+            .append(new KeyedCodec<>("Dungeon", OneBlockDungeonStateProvider.SaveData.CODEC),
+                    (resource, data) -> resource.main.getDungeonState().restore(data.toSnapshot()),
+                    resource -> OneBlockDungeonStateProvider.SaveData.of(resource.main.getDungeonState().snapshot()))
+            .add()
+            .append(new KeyedCodec<>("Generators", new ArrayCodec<>(OneBlockGenerator.SaveData.CODEC, OneBlockGenerator.SaveData[]::new)),
+                    OneBlockIslandResource::restoreMainGenerators,
+                    resource -> resource.main.saveExtraGenerators())
+            .add()
+            .append(new KeyedCodec<>("Islands", new ArrayCodec<>(OneBlockIsland.SaveData.CODEC, OneBlockIsland.SaveData[]::new)),
+                    OneBlockIslandResource::restoreIslands,
+                    OneBlockIslandResource::saveIslands)
+            .add()
+            .append(new KeyedCodec<>("IslandSlots", Codec.LONG_ARRAY),
+                    OneBlockIslandResource::restoreSlots,
+                    resource -> resource.allocator.toWords())
+            .add()
+            .append(new KeyedCodec<>("ReadySlots", Codec.INT_ARRAY),
+                    OneBlockIslandResource::restoreReadySlots,
+                    OneBlockIslandResource::saveReadySlots)
+            .add()
+            .append(new KeyedCodec<>("LegacyImported", Codec.BOOLEAN),
+                    (resource, value) -> resource.legacyImported = value,
+                    resource -> resource.legacyImported)
+            .add()
+            .build();
+
+    private final OneBlockIsland main = new OneBlockIsland(OneBlockIsland.MAIN_ISLAND_ID, null, OneBlockBlockIds.ONEBLOCK_POSITION);
+    private final OneBlockLongMap<OneBlockGenerator> generatorsByBlock = new OneBlockLongMap<>();
+    private final Map<UUID, OneBlockIsland> islandsByOwner = new HashMap<>();
+    private final List<OneBlockIsland> islands = new ArrayList<>();
+    private OneBlockIslandAllocator allocator = new OneBlockIslandAllocator();
+    private final ArrayDeque<Integer> readySlots = new ArrayDeque<>();
+    private volatile boolean legacyImported;
+    private boolean originPlaced;
+    private final OneBlockChunkPins chunkPins = new OneBlockChunkPins();
+
+    public OneBlockIslandResource()
+    {
+        register(main);
+    }
+
+    public static ResourceType<EntityStore, OneBlockIslandResource> getResourceType()
+    {
+        OneBlockPlugin plugin = OneBlockPlugin.getInstance();
+        return plugin == null ? null : plugin.getIslandResourceType();
+    }
+
+    public OneBlockIsland getMainIsland()
+    {
+        return main;
+    }
+
+    /** Returns the island whose primary OneBlock is at the packed position, or null. */
+    public OneBlockIsland getIslandAt(long packedPos)
+    {
+        OneBlockGenerator generator = generatorsByBlock.get(packedPos);
+        return generator != null && generator.isPrimary() ? generator.getIsland() : null;
+    }
+
+    public OneBlockIsland getIslandAt(Vector3i pos)
+    {
+        return pos == null ? null : getIslandAt(OneBlockBlockPos.pack(pos));
+    }
+
+    /** Returns the generator of the OneBlock at the packed position, or null. */
+    public OneBlockGenerator getGeneratorAt(long packedPos)
+    {
+        return generatorsByBlock.get(packedPos);
+    }
+
+    /**
+     * Returns the generator of the OneBlock at {@code pos}, creating one on the island whose
+     * cell holds it (the main island outside any player cell) the first time it is broken.
+     * Past {@link OneBlockIsland#MAX_GENERATORS} the block shares the island's primary state.
+     * World thread only.
+     */
+    public OneBlockGenerator resolveGenerator(Vector3i pos)
+    {
+        long key = OneBlockBlockPos.pack(pos);
+        OneBlockGenerator existing = generatorsByBlock.get(key);
+        if (existing != null) return existing;
+
+        OneBlockIsland near = getIslandNear(pos.x(), pos.z());
+        OneBlockIsland island = near != null ? near : main;
+        OneBlockGenerator created = island.addGenerator(new Vector3i(pos.x(), pos.y(), pos.z()));
+        if (created == null) return island.getPrimaryGenerator();
+
+        generatorsByBlock.put(key, created);
+        return created;
+    }
+
+    /**
+     * Forgets the extra generator at the packed position once its OneBlock is gone, so it stops
+     * counting towards {@link OneBlockIsland#MAX_GENERATORS}. Primary generators are kept.
+     * Returns whether one was removed. World thread only.
+     */
+    public boolean removeGenerator(long packedPos)
+    {
+        OneBlockGenerator generator = generatorsByBlock.get(packedPos);
+        if (generator == null || !generator.getIsland().removeGenerator(generator)) return false;
+
+        generatorsByBlock.remove(packedPos);
+        return true;
+    }
+
+    /**
+     * Removes the extra generators of awake islands whose block, read from its loaded chunk, is
+     * no longer a OneBlock, whatever replaced or removed it. Hibernated islands are left until
+     * they wake up. Returns the number removed. World thread only.
+     */
+    int pruneMissingGenerators(World world)
+    {
+        List<OneBlockGenerator> gone = new ArrayList<>();
+        for (OneBlockIsland island : islands)
+        {
+            if (island.isHibernated()) continue;
+
+            for (OneBlockGenerator generator : island.getGenerators())
+            {
+                if (generator.isPrimary()) continue;
+
+                int index = chunkPins.blockAt(world, generator.getPosition());
+                if (index >= 0 && OneBlockBlockTable.get(index) == null) gone.add(generator);
+            }
+        }
+
+        for (OneBlockGenerator generator : gone)
+        {
+            removeGenerator(generator.getKey());
+        }
+        return gone.size();
+    }
+
+    /** Returns the player island whose cell contains block column ({@code x}, {@code z}), or null. */
+    public OneBlockIsland getIslandNear(double x, double z)
+    {
+        OneBlockIsland island = getIslandAt(OneBlockIslandAllocator.cellOriginAt(x, z));
+        return island != null && !island.isMain() ? island : null;
+    }
+
+    public OneBlockIsland getIslandOf(UUID owner)
+    {
+        return owner == null ? null : islandsByOwner.get(owner);
+    }
+
+    /** The player's own island, or the shared main island if they have none. */
+    public OneBlockIsland resolveFor(UUID playerId)
+    {
+        OneBlockIsland owned = getIslandOf(playerId);
+        return owned != null ? owned : main;
+    }
+
+    public Collection<OneBlockIsland> getIslands()
+    {
+        return Collections.unmodifiableList(islands);
+    }
+
+    /**
+     * Creates an island for {@code owner}, preferring a pre-generated slot over the lowest free
+     * one. The caller places its OneBlock unless {@link #hasReadySlot()} was true.
+     */
+    public OneBlockIsland createIsland(UUID owner)
+    {
+        OneBlockIsland existing = getIslandOf(owner);
+        if (existing != null) return existing;
+
+        Integer ready = readySlots.pollFirst();
+        int slot = ready != null ? ready : allocator.allocate();
+        OneBlockIsland island = new OneBlockIsland(slot, owner, OneBlockIslandAllocator.originOf(slot));
+        register(island);
+        return island;
+    }
+
+    public boolean hasReadySlot()
+    {
+        return !readySlots.isEmpty();
+    }
+
+    int getReadySlotCount()
+    {
+        return readySlots.size();
+    }
+
+    /** Claims a slot for pre-generation. It is handed out once {@link #addReadySlot} is called. */
+    int reserveSlot()
+    {
+        return allocator.allocate();
+    }
+
+    void addReadySlot(int slot)
+    {
+        readySlots.addLast(slot);
+    }
+
+    /** Gives back a slot reserved for pre-generation whose OneBlock could not be placed. */
+    void releaseSlot(int slot)
+    {
+        allocator.release(slot);
+    }
+
+    /** Forgets the island of {@code owner} and frees its slot. The caller clears its blocks. */
+    public OneBlockIsland removeIsland(UUID owner)
+    {
+        OneBlockIsland island = getIslandOf(owner);
+        if (island == null) return null;
+
+        islands.remove(island);
+        islandsByOwner.remove(owner);
+        for (OneBlockGenerator generator : island.getGenerators())
+        {
+            generatorsByBlock.remove(generator.getKey());
+        }
+        allocator.release(island.getId());
+        return island;
+    }
+
+    /** Hibernates every player island nobody has visited since {@code idleSinceMillis}. */
+    int hibernateIdle(long idleSinceMillis)
+    {
+        int count = 0;
+        for (OneBlockIsland island : islands)
+        {
+            if (island.isHibernated() || island.getLastVisitMillis() >= idleSinceMillis) continue;
+            if (island.hibernate()) count++;
+        }
+        return count;
+    }
+
+    int countActive()
+    {
+        int count = 0;
+        for (OneBlockIsland island : islands)
+        {
+            if (!island.isHibernated()) count++;
+        }
+        return count;
+    }
+
+    /** Pinned chunks of this world's awake islands. Not persisted; world thread only. */
+    OneBlockChunkPins getChunkPins()
+    {
+        return chunkPins;
+    }
+
+    /** Returns true the first time it is called for this loaded world, when the main OneBlock must be placed. */
+    boolean claimOriginPlacement()
+    {
+        if (originPlaced) return false;
+        originPlaced = true;
+        return true;
+    }
+
+    boolean isLegacyImported()
+    {
+        return legacyImported;
+    }
+
+    void markLegacyImported()
+    {
+        legacyImported = true;
+    }
+
+    private void register(OneBlockIsland island)
+    {
+        islands.add(island);
+        for (OneBlockGenerator generator : island.getGenerators())
+        {
+            generatorsByBlock.put(generator.getKey(), generator);
+        }
+        if (island.getOwner() != null) islandsByOwner.put(island.getOwner(), island);
+    }
+
+    /** Adds imported extra generators to a live island and indexes their blocks. World thread only. */
+    void restoreGenerators(OneBlockIsland island, OneBlockGenerator.SaveData[] saved)
+    {
+        island.restoreExtraGenerators(saved, false);
+        for (OneBlockGenerator generator : island.getGenerators())
+        {
+            generatorsByBlock.put(generator.getKey(), generator);
+        }
+    }
+
+    private void restoreMainGenerators(OneBlockGenerator.SaveData[] saved)
+    {
+        main.restoreExtraGenerators(saved, false);
+        for (OneBlockGenerator generator : main.getGenerators())
+        {
+            generatorsByBlock.put(generator.getKey(), generator);
+        }
+    }
+
+    private void restoreIslands(OneBlockIsland.SaveData[] saved)
+    {
+        if (saved == null) return;
+
+        for (OneBlockIsland.SaveData data : saved)
+        {
+            OneBlockIsland island = data.toIsland();
+            if (island.isMain() || island.getOwner() == null || islandsByOwner.containsKey(island.getOwner())) continue;
+
+            register(island);
+            allocator.markUsed(island.getId());
+        }
+    }
+
+    /** Loads the persisted slot bitmap, keeping the slots of islands and ready slots already restored. */
+    private void restoreSlots(long[] words)
+    {
+        allocator = OneBlockIslandAllocator.fromWords(words);
+        for (OneBlockIsland island : islands)
+        {
+            allocator.markUsed(island.getId());
+        }
+        for (int slot : readySlots)
+        {
+            allocator.markUsed(slot);
+        }
+    }
+
+    private void restoreReadySlots(int[] slots)
+    {
+        if (slots == null) return;
+
+        for (int slot : slots)
+        {
+            if (slot <= 0 || readySlots.contains(slot)) continue;
+            readySlots.addLast(slot);
+            allocator.markUsed(slot);
+        }
+    }
+
+    private int[] saveReadySlots()
+    {
+        int[] out = new int[readySlots.size()];
+        int i = 0;
+        for (int slot : readySlots) out[i++] = slot;
+        return out;
+    }
+
+    private OneBlockIsland.SaveData[] saveIslands()
+    {
+        List<OneBlockIsland.SaveData> out = new ArrayList<>();
+        for (OneBlockIsland island : islands)
+        {
+            if (!island.isMain()) out.add(OneBlockIsland.SaveData.of(island));
+        }
+        return out.toArray(new OneBlockIsland.SaveData[0]);
+    }
+
+    @Override
+    public OneBlockIslandResource clone()
+    {
+        OneBlockIslandResource copy = new OneBlockIslandResource();
+        copy.main.getExpeditionState().restore(main.getExpeditionState().snapshot());
+        copy.main.getDungeonState().restore(main.getDungeonState().snapshot());
+        copy.restoreMainGenerators(main.saveExtraGenerators());
+        copy.restoreIslands(saveIslands());
+        copy.restoreSlots(allocator.toWords());
+        copy.restoreReadySlots(saveReadySlots());
+        copy.legacyImported = legacyImported;
+        return copy;
+    }
+}
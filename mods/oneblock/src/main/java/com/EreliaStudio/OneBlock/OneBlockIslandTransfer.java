@@ -0,0 +1,558 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.assetstore.map.BlockTypeAssetMap;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3i;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves one player's island between servers as a single {@code .obx} file: the island state
+ * (every generator's expedition and dungeon), the player's progress and the block region
+ * around the OneBlock.
+ * <p>
+ * The file is a gzip stream written through a {@link FileChannel}: a header, the state as a
+ * {@link OneBlockBinaryCodec} record, then the region one Y layer at a time as run-length
+ * encoded indices into a palette that grows as new block IDs appear. Only the region's blocks
+ * are read or written; each layer is one short task on the world thread, and everything else
+ * runs on a background thread.
+ * <p>
+ * An import decodes and validates the whole file (header owner, state, progress, every layer,
+ * the palette and the gzip checksum) before the first block is set, so a corrupt or truncated
+ * file is rejected without touching the island.
+ */
+public final class OneBlockIslandTransfer
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final int MAGIC = 0x4F424958;
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".obx";
+    private static final String EMPTY_BLOCK_ID = "Empty";
+    private static final int EMPTY_INDEX = 0;
+    private static final long LAYER_TIMEOUT_SECONDS = 30;
+    private static final int MAX_STATE_BYTES = 1 << 20;
+    private static final int MAX_EXTENT = 256;
+
+    /** Horizontal distance from the OneBlock covered by the region, in blocks. */
+    static final int RADIUS = 32;
+    static final int BELOW = 32;
+    static final int ABOVE = 64;
+
+    private final Path directory;
+    private final ExecutorService executor;
+
+    public OneBlockIslandTransfer(Path directory)
+    {
+        this.directory = directory;
+        this.executor = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OneBlock-IslandTransfer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    public Path getFile(UUID playerId)
+    {
+        return directory.resolve(playerId + EXTENSION);
+    }
+
+    /**
+     * Exports the region around the island's OneBlock and the player's progress. Must be called
+     * on the world thread, which is only used again for the per-layer block reads.
+     */
+    public CompletableFuture<Path> exportIsland(World world,
+                                                OneBlockIsland island,
+                                                UUID playerId,
+                                                OneBlockPlayerProgress progress)
+    {
+        Vector3i origin = island.getOrigin();
+        JsonObject state = new JsonObject();
+        state.add("island", islandToJson(island));
+        state.add("progress", progress != null ? OneBlockPlayerProgress.toJson(progress) : null);
+
+        Path file = getFile(playerId);
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                writeFile(world, origin, playerId, state, file);
+                LOGGER.at(Level.INFO).log("Exported island of " + playerId + " to " + file);
+                return file;
+            }
+            catch (Exception e)
+            {
+                LOGGER.at(Level.WARNING).log("Failed to export island of " + playerId + ": " + e.getMessage());
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Imports {@code file} into {@code island} and gives the stored progress to {@code playerId}:
+     * directly if they are in the world, otherwise on their next login.
+     */
+    public CompletableFuture<Void> importIsland(World world, OneBlockIsland island, UUID playerId, Path file)
+    {
+        return CompletableFuture.runAsync(() ->
+        {
+            try
+            {
+                readFile(world, island, playerId, file);
+                LOGGER.at(Level.INFO).log("Imported island of " + playerId + " from " + file);
+            }
+            catch (Exception e)
+            {
+                LOGGER.at(Level.WARNING).log("Failed to import island of " + playerId + ": " + e.getMessage());
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    private void writeFile(World world, Vector3i origin, UUID playerId, JsonObject state, Path file) throws Exception
+    {
+        Files.createDirectories(directory);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new GZIPOutputStream(Channels.newOutputStream(channel), 1 << 16))))
+        {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(playerId.getMostSignificantBits());
+            out.writeLong(playerId.getLeastSignificantBits());
+
+            byte[] stateBytes = OneBlockBinaryCodec.encode(state);
+            out.writeInt(stateBytes.length);
+            out.write(stateBytes);
+
+            out.writeInt(RADIUS);
+            out.writeInt(BELOW);
+            out.writeInt(ABOVE);
+
+            Map<String, Integer> palette = new HashMap<>();
+            for (int dy = -BELOW; dy <= ABOVE; dy++)
+            {
+                int y = origin.y() + dy;
+                String[] layer = onWorldThread(world, () -> captureLayer(world, origin, y));
+                writeLayer(out, layer, palette);
+            }
+        }
+
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** A fully decoded export. Layers hold (run, palette index) pairs, as stored in the file. */
+    private record Export(JsonObject state,
+                          OneBlockPlayerProgress progress,
+                          int radius,
+                          int below,
+                          int above,
+                          List<String> palette,
+                          List<int[]> layers) {}
+
+    private void readFile(World world, OneBlockIsland island, UUID playerId, Path file) throws Exception
+    {
+        Export export = decodeFile(playerId, file);
+
+        Vector3i origin = island.getOrigin();
+        for (int dy = -export.below(); dy <= export.above(); dy++)
+        {
+            int y = origin.y() + dy;
+            int[] layer = export.layers().get(dy + export.below());
+            onWorldThread(world, () ->
+            {
+                applyLayer(world, origin, y, export.radius(), layer, export.palette());
+                return null;
+            });
+        }
+
+        onWorldThread(world, () ->
+        {
+            applyState(world, island, playerId, export.state(), export.progress());
+            return null;
+        });
+    }
+
+    /** Reads and checks the whole file without touching the world. */
+    private static Export decodeFile(UUID playerId, Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(
+                     new GZIPInputStream(Channels.newInputStream(channel), 1 << 16))))
+        {
+            if (in.readInt() != MAGIC) throw new IOException("Not an island export");
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IOException("Unsupported island export version " + version);
+            UUID owner = new UUID(in.readLong(), in.readLong());
+            if (!owner.equals(playerId)) throw new IOException("Island export belongs to " + owner);
+
+            int stateLength = in.readInt();
+            if (stateLength < 0 || stateLength > MAX_STATE_BYTES) throw new IOException("Corrupt island state");
+            byte[] stateBytes = new byte[stateLength];
+            in.readFully(stateBytes);
+            JsonObject state = OneBlockBinaryCodec.decode(stateBytes);
+            JsonElement progressState = state.get("progress");
+            OneBlockPlayerProgress progress = progressState != null && progressState.isJsonObject()
+                    ? OneBlockPlayerProgress.fromJson(progressState)
+                    : null;
+
+            int radius = in.readInt();
+            int below = in.readInt();
+            int above = in.readInt();
+            if (radius < 0 || radius > MAX_EXTENT || below < 0 || below > MAX_EXTENT || above < 0 || above > MAX_EXTENT)
+            {
+                throw new IOException("Corrupt island region");
+            }
+
+            List<String> palette = new ArrayList<>();
+            palette.add(EMPTY_BLOCK_ID);
+            int layerSize = (radius * 2 + 1) * (radius * 2 + 1);
+            List<int[]> layers = new ArrayList<>(below + above + 1);
+            for (int dy = -below; dy <= above; dy++)
+            {
+                layers.add(readLayer(in, layerSize, palette));
+            }
+
+            // Reading to the end also makes the gzip stream verify its checksum.
+            if (in.read() != -1) throw new IOException("Trailing data after island region");
+            checkPalette(palette);
+
+            return new Export(state, progress, radius, below, above, palette, layers);
+        }
+    }
+
+    private static void checkPalette(List<String> palette) throws IOException
+    {
+        BlockTypeAssetMap<String, BlockType> assetMap = BlockType.getAssetMap();
+        if (assetMap == null) return;
+
+        Map<String, BlockType> assets = assetMap.getAssetMap();
+        for (String blockId : palette)
+        {
+            if (!EMPTY_BLOCK_ID.equals(blockId) && !assets.containsKey(blockId))
+            {
+                throw new IOException("Unknown block " + blockId + " in island export");
+            }
+        }
+    }
+
+    private static String[] captureLayer(World world, Vector3i origin, int y)
+    {
+        int width = RADIUS * 2 + 1;
+        String[] layer = new String[width * width];
+        int i = 0;
+        for (int dz = -RADIUS; dz <= RADIUS; dz++)
+        {
+            for (int dx = -RADIUS; dx <= RADIUS; dx++)
+            {
+                BlockType blockType = world.getBlockType(origin.x() + dx, y, origin.z() + dz);
+                layer[i++] = blockType == null || blockType == BlockType.EMPTY ? null : blockType.getId();
+            }
+        }
+        return layer;
+    }
+
+    /** Sets every block of the layer that differs from the export; unchanged blocks are left alone. */
+    private static void applyLayer(World world, Vector3i origin, int y, int radius, int[] layer, List<String> palette)
+    {
+        int width = radius * 2 + 1;
+        int cell = 0;
+        for (int pair = 0; pair < layer.length; pair += 2)
+        {
+            String blockId = palette.get(layer[pair + 1]);
+            for (int end = cell + layer[pair]; cell < end; cell++)
+            {
+                int x = origin.x() + cell % width - radius;
+                int z = origin.z() + cell / width - radius;
+
+                BlockType current = world.getBlockType(x, y, z);
+                String currentId = current == null || current == BlockType.EMPTY ? EMPTY_BLOCK_ID : current.getId();
+                if (!blockId.equals(currentId)) world.setBlock(x, y, z, blockId);
+            }
+        }
+    }
+
+    private static void writeLayer(DataOutputStream out, String[] layer, Map<String, Integer> palette) throws IOException
+    {
+        int i = 0;
+        while (i < layer.length)
+        {
+            String blockId = layer[i];
+            int run = 1;
+            while (i + run < layer.length && equals(layer[i + run], blockId)) run++;
+
+            writeVarInt(out, run);
+            if (blockId == null)
+            {
+                writeVarInt(out, EMPTY_INDEX);
+            }
+            else
+            {
+                Integer index = palette.get(blockId);
+                if (index == null)
+                {
+                    index = palette.size() + 1;
+                    palette.put(blockId, index);
+                    writeVarInt(out, index);
+                    out.writeUTF(blockId);
+                }
+                else
+                {
+                    writeVarInt(out, index);
+                }
+            }
+
+            i += run;
+        }
+    }
+
+    private static int[] readLayer(DataInputStream in, int layerSize, List<String> palette) throws IOException
+    {
+        int[] runs = new int[16];
+        int length = 0;
+        int i = 0;
+        while (i < layerSize)
+        {
+            int run = readVarInt(in);
+            int index = readVarInt(in);
+            if (run <= 0 || run > layerSize - i) throw new IOException("Corrupt island layer");
+
+            if (index == palette.size())
+            {
+                palette.add(in.readUTF());
+            }
+            else if (index > palette.size())
+            {
+                throw new IOException("Corrupt island palette");
+            }
+
+            if (length == runs.length) runs = Arrays.copyOf(runs, length * 2);
+            runs[length++] = run;
+            runs[length++] = index;
+            i += run;
+        }
+        return Arrays.copyOf(runs, length);
+    }
+
+    private static void applyState(World world,
+                                   OneBlockIsland island,
+                                   UUID playerId,
+                                   JsonObject state,
+                                   OneBlockPlayerProgress imported)
+    {
+        OneBlockPlugin plugin = OneBlockPlugin.getInstance();
+        if (plugin == null) return;
+
+        JsonElement islandState = state.get("island");
+        if (islandState != null && islandState.isJsonObject())
+        {
+            islandFromJson(plugin.getIsland(world), island, islandState.getAsJsonObject());
+        }
+
+        if (imported == null) return;
+
+        OneBlockPlayerRecords records = plugin.getPlayerRecords();
+        if (records != null) records.put(playerId, imported);
+
+        EntityStore entityStore = world.getEntityStore();
+        if (entityStore == null || plugin.getPlayerProgressComponentType() == null) return;
+
+        Ref<EntityStore> ref = entityStore.getRefFromUUID(playerId);
+        if (ref == null || !ref.isValid()) return;
+
+        Store<EntityStore> store = entityStore.getStore();
+        OneBlockPlayerProgress progress = store.getComponent(ref, plugin.getPlayerProgressComponentType());
+        if (progress != null)
+        {
+            progress.copyFrom(imported);
+        }
+        else
+        {
+            store.addComponent(ref, plugin.getPlayerProgressComponentType(), imported);
+        }
+    }
+
+    /**
+     * The island's state: the primary generator's expedition and dungeon, plus every extra
+     * generator with its position relative to the OneBlock, so it lands on the same block of
+     * the island it is imported into.
+     */
+    private static JsonObject islandToJson(OneBlockIsland island)
+    {
+        JsonObject out = new JsonObject();
+        if (island == null) return out;
+
+        writeState(out, island.getExpeditionState().snapshot(), island.getDungeonState().snapshot());
+
+        Vector3i origin = island.getOrigin();
+        JsonArray generators = new JsonArray();
+        for (OneBlockGenerator.SaveData data : island.saveExtraGenerators())
+        {
+            Vector3i position = data.getPosition();
+            JsonObject generator = new JsonObject();
+            generator.addProperty("dx", position.x() - origin.x());
+            generator.addProperty("dy", position.y() - origin.y());
+            generator.addProperty("dz", position.z() - origin.z());
+            writeState(generator, data.getExpedition(), data.getDungeon());
+            generators.add(generator);
+        }
+        out.add("generators", generators);
+        return out;
+    }
+
+    private static void islandFromJson(OneBlockIslandResource islands, OneBlockIsland island, JsonObject in)
+    {
+        island.getExpeditionState().restore(readExpedition(in));
+        island.getDungeonState().restore(readDungeon(in));
+
+        JsonElement generators = in.get("generators");
+        if (islands == null || generators == null || !generators.isJsonArray()) return;
+
+        Vector3i origin = island.getOrigin();
+        List<OneBlockGenerator.SaveData> saved = new ArrayList<>();
+        for (JsonElement element : generators.getAsJsonArray())
+        {
+            if (!element.isJsonObject()) continue;
+
+            JsonObject generator = element.getAsJsonObject();
+            Vector3i position = new Vector3i(
+                    origin.x() + (int) getLong(generator, "dx"),
+                    origin.y() + (int) getLong(generator, "dy"),
+                    origin.z() + (int) getLong(generator, "dz"));
+            saved.add(OneBlockGenerator.SaveData.of(position, readExpedition(generator), readDungeon(generator)));
+        }
+        islands.restoreGenerators(island, saved.toArray(new OneBlockGenerator.SaveData[0]));
+    }
+
+    private static void writeState(JsonObject out,
+                                   OneBlockExpeditionStateProvider.Snapshot expedition,
+                                   OneBlockDungeonStateProvider.Snapshot dungeon)
+    {
+        if (expedition == null) expedition = OneBlockExpeditionStateProvider.Snapshot.IDLE;
+        out.addProperty("runId", expedition.runId());
+        out.addProperty("expeditionId", expedition.expeditionId());
+        out.addProperty("ticksRemaining", expedition.ticksRemaining());
+        out.addProperty("totalTicks", expedition.totalTicks());
+        out.addProperty("lastCompletedId", expedition.lastCompletedId());
+
+        if (dungeon == null) dungeon = OneBlockDungeonStateProvider.Snapshot.IDLE;
+        out.addProperty("dungeonId", dungeon.dungeonId());
+        out.addProperty("currentWaveIndex", dungeon.currentWaveIndex());
+    }
+
+    private static OneBlockExpeditionStateProvider.Snapshot readExpedition(JsonObject in)
+    {
+        return new OneBlockExpeditionStateProvider.Snapshot(
+                getLong(in, "runId"), getString(in, "expeditionId"),
+                (int) getLong(in, "ticksRemaining"), (int) getLong(in, "totalTicks"),
+                getString(in, "lastCompletedId"));
+    }
+
+    private static OneBlockDungeonStateProvider.Snapshot readDungeon(JsonObject in)
+    {
+        String dungeonId = getString(in, "dungeonId");
+        return dungeonId == null
+                ? OneBlockDungeonStateProvider.Snapshot.IDLE
+                : new OneBlockDungeonStateProvider.Snapshot(dungeonId, (int) getLong(in, "currentWaveIndex"));
+    }
+
+    private static <T> T onWorldThread(World world, Callable<T> task)
+            throws InterruptedException, ExecutionException, TimeoutException
+    {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        world.execute(() ->
+        {
+            try
+            {
+                future.complete(task.call());
+            }
+            catch (Throwable t)
+            {
+                future.completeExceptionally(t);
+            }
+        });
+        return future.get(LAYER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static String getString(JsonObject root, String key)
+    {
+        JsonElement value = root.get(key);
+        return value != null && !value.isJsonNull() ? value.getAsString() : null;
+    }
+
+    private static long getLong(JsonObject root, String key)
+    {
+        JsonElement value = root.get(key);
+        return value != null && !value.isJsonNull() ? value.getAsLong() : 0L;
+    }
+
+    private static boolean equals(String a, String b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException
+    {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in island export");
+    }
+}
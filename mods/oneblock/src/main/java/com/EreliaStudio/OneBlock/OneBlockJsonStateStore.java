@@ -0,0 +1,40 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/** Human-readable backend: one pretty-printed JSON file per key. */
+public final class OneBlockJsonStateStore extends OneBlockFileStateStore
+{
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    public OneBlockJsonStateStore(Path root)
+    {
+        super(root, ".json");
+    }
+
+    @Override
+    protected byte[] encode(JsonObject value)
+    {
+        return GSON.toJson(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected JsonObject decode(byte[] bytes) throws IOException
+    {
+        try
+        {
+            return GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), JsonObject.class);
+        }
+        catch (JsonParseException e)
+        {
+            throw new IOException("Malformed JSON state", e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded key-value backend: a single append-only log file with an in-memory index from
+ * key to value position. A write appends one record, a read is one positional read, and
+ * the directory holds one file whatever the number of players.
+ * <p>
+ * Record layout: {@code int crc, short keyLength, key, int valueLength (-1 = deleted), value},
+ * with the CRC covering everything after it. A torn record at the tail is cut off on open.
+ * The log is rewritten without dead records once they outweigh the live ones.
+ */
+public final class OneBlockKeyValueStateStore implements OneBlockStateStore
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final int TOMBSTONE = -1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    private static final long COMPACT_MIN_BYTES = 1L << 20;
+
+    private record Entry(long offset, int length, int recordBytes) {}
+
+    private final Path filePath;
+    private final Map<String, Entry> index = new HashMap<>();
+    private FileChannel channel;
+    private long liveBytes;
+    private long deadBytes;
+
+    public OneBlockKeyValueStateStore(Path filePath) throws IOException
+    {
+        this.filePath = filePath;
+        Files.createDirectories(filePath.getParent());
+        this.channel = open(filePath);
+        loadIndex();
+    }
+
+    @Override
+    public synchronized JsonObject read(String key) throws IOException
+    {
+        Entry entry = index.get(key);
+        if (entry == null) return null;
+
+        ByteBuffer value = ByteBuffer.allocate(entry.length());
+        readFully(channel, value, entry.offset());
+        return OneBlockBinaryCodec.decode(value.array());
+    }
+
+    @Override
+    public synchronized void write(String key, JsonObject value) throws IOException
+    {
+        OneBlockStateStore.validateKey(key);
+        append(key, OneBlockBinaryCodec.encode(value));
+        compactIfNeeded();
+    }
+
+    @Override
+    public synchronized void delete(String key) throws IOException
+    {
+        if (!index.containsKey(key)) return;
+
+        append(key, null);
+        compactIfNeeded();
+    }
+
+    @Override
+    public synchronized Set<String> keys()
+    {
+        return new TreeSet<>(index.keySet());
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (channel == null) return;
+
+        channel.force(true);
+        channel.close();
+        channel = null;
+    }
+
+    private void append(String key, byte[] value) throws IOException
+    {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value == null ? TOMBSTONE : value.length;
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + keyBytes.length + Integer.BYTES + Math.max(0, valueLength));
+        record.putInt(0);
+        record.putShort((short) keyBytes.length);
+        record.put(keyBytes);
+        record.putInt(valueLength);
+        if (value != null) record.put(value);
+        record.putInt(0, checksum(record.array(), Integer.BYTES, record.capacity() - Integer.BYTES));
+        record.flip();
+
+        long recordOffset = channel.size();
+        long valueOffset = recordOffset + HEADER_BYTES + keyBytes.length + Integer.BYTES;
+        while (record.hasRemaining()) channel.write(record, recordOffset + record.position());
+
+        Entry entry = value == null ? null : new Entry(valueOffset, value.length, record.capacity());
+        track(key, entry, record.capacity());
+    }
+
+    /** Updates the index and the live/dead byte counts for one record; {@code entry} is null for a deletion. */
+    private void track(String key, Entry entry, int recordBytes)
+    {
+        Entry previous = entry == null ? index.remove(key) : index.put(key, entry);
+        if (previous != null)
+        {
+            liveBytes -= previous.recordBytes();
+            deadBytes += previous.recordBytes();
+        }
+
+        if (entry != null) liveBytes += recordBytes;
+        else deadBytes += recordBytes;
+    }
+
+    private void loadIndex() throws IOException
+    {
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+        while (offset < size)
+        {
+            try
+            {
+                header.clear();
+                readFully(channel, header, offset);
+                int crc = header.getInt(0);
+                int keyLength = Short.toUnsignedInt(header.getShort(Integer.BYTES));
+
+                ByteBuffer keyAndLength = ByteBuffer.allocate(keyLength + Integer.BYTES);
+                readFully(channel, keyAndLength, offset + HEADER_BYTES);
+                int valueLength = keyAndLength.getInt(keyLength);
+                long valueOffset = offset + HEADER_BYTES + keyAndLength.capacity();
+                if (valueLength < TOMBSTONE || valueLength > size - valueOffset) break;
+
+                ByteBuffer value = ByteBuffer.allocate(Math.max(0, valueLength));
+                readFully(channel, value, valueOffset);
+
+                CRC32 check = new CRC32();
+                check.update(header.array(), Integer.BYTES, Short.BYTES);
+                check.update(keyAndLength.array());
+                check.update(value.array());
+                if ((int) check.getValue() != crc) break;
+
+                String key = new String(keyAndLength.array(), 0, keyLength, StandardCharsets.UTF_8);
+                int recordBytes = HEADER_BYTES + keyAndLength.capacity() + value.capacity();
+                track(key, valueLength == TOMBSTONE ? null : new Entry(valueOffset, valueLength, recordBytes), recordBytes);
+
+                offset += recordBytes;
+            }
+            catch (EOFException e)
+            {
+                break;
+            }
+        }
+
+        if (offset < size)
+        {
+            LOGGER.at(Level.WARNING).log("Truncating " + (size - offset) + " unreadable bytes at the end of " + filePath);
+            channel.truncate(offset);
+        }
+    }
+
+    private void compactIfNeeded() throws IOException
+    {
+        if (deadBytes < COMPACT_MIN_BYTES || deadBytes < liveBytes) return;
+
+        Path compactPath = filePath.resolveSibling(filePath.getFileName() + ".compact");
+        Files.deleteIfExists(compactPath);
+
+        Map<String, Entry> live = new HashMap<>(index);
+        FileChannel source = channel;
+        channel = open(compactPath);
+        index.clear();
+        liveBytes = 0;
+        deadBytes = 0;
+
+        for (Map.Entry<String, Entry> entry : live.entrySet())
+        {
+            ByteBuffer value = ByteBuffer.allocate(entry.getValue().length());
+            readFully(source, value, entry.getValue().offset());
+            append(entry.getKey(), value.array());
+        }
+
+        channel.force(true);
+        channel.close();
+        source.close();
+
+        try
+        {
+            Files.move(compactPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(compactPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        channel = open(filePath);
+    }
+
+    private static FileChannel open(Path path) throws IOException
+    {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+        }
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,114 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * One-time import of the state files older versions wrote to the plugin data directory.
+ * The files are renamed once imported so a later world reset does not pick them up again; a
+ * file that cannot be parsed is left in place and retried on the next start.
+ */
+final class OneBlockLegacyStateImporter
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final Gson GSON = new Gson();
+
+    static final String EXPEDITION_FILE = "oneblock-expedition.json";
+    static final String DUNGEON_FILE = "oneblock-dungeon.json";
+    private static final String IMPORTED_SUFFIX = ".imported";
+
+    private OneBlockLegacyStateImporter() {}
+
+    static void importInto(OneBlockIslandResource resource, Path dataDirectory)
+    {
+        if (resource == null || resource.isLegacyImported()) return;
+        if (dataDirectory == null)
+        {
+            resource.markLegacyImported();
+            return;
+        }
+
+        boolean expeditionDone = importFile(dataDirectory.resolve(EXPEDITION_FILE), expedition ->
+        {
+            String expeditionId = getString(expedition, "expeditionId");
+            if (expeditionId != null && !expeditionId.isEmpty())
+            {
+                int ticksRemaining = getInt(expedition, "ticksRemaining");
+                int totalTicks = getInt(expedition, "totalTicks");
+                resource.getMainIsland().getExpeditionState().restore(new OneBlockExpeditionStateProvider.Snapshot(
+                        getLong(expedition, "runId"), expeditionId, ticksRemaining, totalTicks, null));
+            }
+        });
+
+        boolean dungeonDone = importFile(dataDirectory.resolve(DUNGEON_FILE), dungeon ->
+        {
+            String dungeonId = getString(dungeon, "dungeonId");
+            if (dungeonId != null && !dungeonId.isEmpty())
+            {
+                resource.getMainIsland().getDungeonState().restore(new OneBlockDungeonStateProvider.Snapshot(
+                        dungeonId, getInt(dungeon, "currentWaveIndex")));
+            }
+        });
+
+        // A file that failed to import is kept and retried on the next start.
+        if (expeditionDone && dungeonDone) resource.markLegacyImported();
+    }
+
+    /**
+     * Parses {@code filePath} and hands it to {@code apply}, then retires the file. Returns false,
+     * leaving the file in place, if it could not be read or applied; true once imported or absent.
+     */
+    private static boolean importFile(Path filePath, Consumer<JsonObject> apply)
+    {
+        if (!Files.exists(filePath)) return true;
+
+        try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8))
+        {
+            JsonObject loaded = GSON.fromJson(reader, JsonObject.class);
+            if (loaded == null) throw new IOException("empty file");
+            apply.accept(loaded);
+        }
+        catch (Exception e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to read legacy state " + filePath + ", keeping it: " + e.getMessage());
+            return false;
+        }
+
+        try
+        {
+            Files.move(filePath, filePath.resolveSibling(filePath.getFileName() + IMPORTED_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.at(Level.INFO).log("Imported legacy state from " + filePath);
+        }
+        catch (Exception e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to retire legacy state " + filePath + ": " + e.getMessage());
+        }
+        return true;
+    }
+
+    private static String getString(JsonObject root, String key)
+    {
+        return root.has(key) && !root.get(key).isJsonNull() ? root.get(key).getAsString() : null;
+    }
+
+    private static int getInt(JsonObject root, String key)
+    {
+        return root.has(key) && !root.get(key).isJsonNull() ? root.get(key).getAsInt() : 0;
+    }
+
+    private static long getLong(JsonObject root, String key)
+    {
+        return root.has(key) && !root.get(key).isJsonNull() ? root.get(key).getAsLong() : 0L;
+    }
+}
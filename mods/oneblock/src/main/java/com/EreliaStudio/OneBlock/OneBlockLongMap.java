@@ -0,0 +1,171 @@
+package com.EreliaStudio.OneBlock;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to non-null values. Lookups hash
+ * the key and probe linearly, with no boxing and no per-entry allocation. Not thread-safe.
+ */
+public final class OneBlockLongMap<V>
+{
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public OneBlockLongMap()
+    {
+        this(MIN_CAPACITY);
+    }
+
+    public OneBlockLongMap(int expectedSize)
+    {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key)
+    {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask)
+        {
+            Object value = values[slot];
+            if (value == null) return null;
+            if (keys[slot] == key) return (V) value;
+        }
+    }
+
+    public boolean containsKey(long key)
+    {
+        return get(key) != null;
+    }
+
+    /** Associates {@code value} with {@code key}; returns the previous value or null. */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value)
+    {
+        if (value == null) throw new IllegalArgumentException("Null value");
+
+        for (int slot = slot(key); ; slot = (slot + 1) & mask)
+        {
+            Object current = values[slot];
+            if (current == null)
+            {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size * 2 > keys.length) resize(keys.length << 1);
+                return null;
+            }
+            if (keys[slot] == key)
+            {
+                values[slot] = value;
+                return (V) current;
+            }
+        }
+    }
+
+    /** Removes {@code key}, shifting later entries of its probe run back so lookups stay correct. */
+    @SuppressWarnings("unchecked")
+    public V remove(long key)
+    {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask)
+        {
+            Object value = values[slot];
+            if (value == null) return null;
+            if (keys[slot] != key) continue;
+
+            shiftBack(slot);
+            size--;
+            return (V) value;
+        }
+    }
+
+    /** Removes every entry whose key matches {@code filter}, in place. */
+    public void removeIf(LongPredicate filter)
+    {
+        for (int slot = 0; slot < values.length; slot++)
+        {
+            // A removal shifts a later entry of the probe run into this slot, so it is tested too.
+            while (values[slot] != null && filter.test(keys[slot]))
+            {
+                shiftBack(slot);
+                size--;
+            }
+        }
+    }
+
+    public void clear()
+    {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<Long, V> action)
+    {
+        for (int slot = 0; slot < values.length; slot++)
+        {
+            if (values[slot] != null) action.accept(keys[slot], (V) values[slot]);
+        }
+    }
+
+    private void shiftBack(int hole)
+    {
+        int slot = hole;
+        while (true)
+        {
+            slot = (slot + 1) & mask;
+            Object value = values[slot];
+            if (value == null) break;
+
+            int home = slot(keys[slot]);
+            boolean movable = hole <= slot ? (home <= hole || home > slot) : (home <= hole && home > slot);
+            if (movable)
+            {
+                keys[hole] = keys[slot];
+                values[hole] = value;
+                hole = slot;
+            }
+        }
+        values[hole] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity)
+    {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        size = 0;
+
+        for (int i = 0; i < oldValues.length; i++)
+        {
+            if (oldValues[i] != null) put(oldKeys[i], (V) oldValues[i]);
+        }
+    }
+
+    private int slot(long key)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
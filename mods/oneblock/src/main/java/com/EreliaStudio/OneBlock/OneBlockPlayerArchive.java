@@ -0,0 +1,318 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold tier for player records: append-only segment files of deflated records, with an
+ * in-memory index from player UUID to the record's segment and offset. Segments roll over
+ * at {@link #SEGMENT_BYTES} and are compacted once they are mostly dead records, so disk
+ * usage and file count follow the live data.
+ * <p>
+ * Record layout: {@code long uuidMost, long uuidLeast, int length (-1 = removed), payload}.
+ */
+final class OneBlockPlayerArchive
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final long SEGMENT_BYTES = 16L << 20;
+    private static final int HEADER_BYTES = Long.BYTES * 2 + Integer.BYTES;
+    private static final int REMOVED = -1;
+
+    private record Location(int segment, long offset, int length) {}
+
+    private final Path directory;
+    private final Map<UUID, Location> index = new HashMap<>();
+    private final Map<Integer, Long> liveBytesBySegment = new TreeMap<>();
+    private int currentSegment;
+    private FileChannel current;
+
+    OneBlockPlayerArchive(Path directory) throws IOException
+    {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        loadIndex();
+        openCurrent();
+    }
+
+    synchronized boolean contains(UUID playerId)
+    {
+        return index.containsKey(playerId);
+    }
+
+    synchronized int size()
+    {
+        return index.size();
+    }
+
+    synchronized void put(UUID playerId, JsonObject record) throws IOException
+    {
+        byte[] payload = deflate(OneBlockBinaryCodec.encode(record));
+        long offset = append(playerId, payload);
+        track(playerId, new Location(currentSegment, offset, payload.length));
+    }
+
+    /** Reads and removes the archived record of {@code playerId}, or returns null if none is archived. */
+    synchronized JsonObject take(UUID playerId) throws IOException
+    {
+        Location location = index.get(playerId);
+        if (location == null) return null;
+
+        JsonObject record = OneBlockBinaryCodec.decode(inflate(readPayload(location)));
+        append(playerId, null);
+        track(playerId, null);
+        return record;
+    }
+
+    /**
+     * Once sealed segments are mostly dead records, copies their live records into the current
+     * segment and deletes them. All sealed segments go at once, so a removal marker can never be
+     * dropped while the record it hides survives in an older segment.
+     */
+    synchronized void compact() throws IOException
+    {
+        List<Integer> sealed = new ArrayList<>();
+        long sealedBytes = 0L;
+        long sealedLiveBytes = 0L;
+        for (Map.Entry<Integer, Long> entry : liveBytesBySegment.entrySet())
+        {
+            if (entry.getKey() >= currentSegment) continue;
+
+            Path segmentPath = segmentPath(entry.getKey());
+            sealed.add(entry.getKey());
+            sealedBytes += Files.exists(segmentPath) ? Files.size(segmentPath) : 0L;
+            sealedLiveBytes += entry.getValue();
+        }
+
+        if (sealed.isEmpty() || sealedLiveBytes * 2 > sealedBytes) return;
+
+        List<Map.Entry<UUID, Location>> live = new ArrayList<>();
+        for (Map.Entry<UUID, Location> entry : index.entrySet())
+        {
+            if (sealed.contains(entry.getValue().segment())) live.add(Map.entry(entry.getKey(), entry.getValue()));
+        }
+
+        for (Map.Entry<UUID, Location> entry : live)
+        {
+            byte[] payload = readPayload(entry.getValue());
+            long offset = append(entry.getKey(), payload);
+            track(entry.getKey(), new Location(currentSegment, offset, payload.length));
+        }
+
+        current.force(true);
+        for (int segment : sealed)
+        {
+            Files.deleteIfExists(segmentPath(segment));
+            liveBytesBySegment.remove(segment);
+        }
+
+        LOGGER.at(Level.INFO).log("Compacted " + sealed.size() + " archive segments, kept " + live.size() + " records.");
+    }
+
+    synchronized void close() throws IOException
+    {
+        if (current == null) return;
+
+        current.force(true);
+        current.close();
+        current = null;
+    }
+
+    private long append(UUID playerId, byte[] payload) throws IOException
+    {
+        if (current.size() >= SEGMENT_BYTES)
+        {
+            current.force(true);
+            current.close();
+            currentSegment++;
+            openCurrent();
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + (payload == null ? 0 : payload.length));
+        record.putLong(playerId.getMostSignificantBits());
+        record.putLong(playerId.getLeastSignificantBits());
+        record.putInt(payload == null ? REMOVED : payload.length);
+        if (payload != null) record.put(payload);
+        record.flip();
+
+        long offset = current.size();
+        while (record.hasRemaining()) current.write(record, offset + record.position());
+        return offset + HEADER_BYTES;
+    }
+
+    private void track(UUID playerId, Location location)
+    {
+        Location previous = location == null ? index.remove(playerId) : index.put(playerId, location);
+        if (previous != null)
+        {
+            liveBytesBySegment.merge(previous.segment(), -(long) (HEADER_BYTES + previous.length()), Long::sum);
+        }
+        if (location != null)
+        {
+            liveBytesBySegment.merge(location.segment(), (long) (HEADER_BYTES + location.length()), Long::sum);
+        }
+    }
+
+    private void loadIndex() throws IOException
+    {
+        List<Integer> segments = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX))
+        {
+            for (Path entry : entries)
+            {
+                String name = entry.getFileName().toString();
+                try
+                {
+                    segments.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                }
+                catch (NumberFormatException ignored) {}
+            }
+        }
+        segments.sort(null);
+
+        for (int segment : segments)
+        {
+            liveBytesBySegment.putIfAbsent(segment, 0L);
+            scanSegment(segment);
+            currentSegment = segment;
+        }
+    }
+
+    private void scanSegment(int segment) throws IOException
+    {
+        Path segmentPath = segmentPath(segment);
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            long size = channel.size();
+            long offset = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+            while (offset + HEADER_BYTES <= size)
+            {
+                header.clear();
+                readFully(channel, header, offset);
+                UUID playerId = new UUID(header.getLong(0), header.getLong(Long.BYTES));
+                int length = header.getInt(Long.BYTES * 2);
+                long payloadOffset = offset + HEADER_BYTES;
+                if (length < REMOVED || length > size - payloadOffset) break;
+
+                track(playerId, length == REMOVED ? null : new Location(segment, payloadOffset, length));
+                offset = payloadOffset + Math.max(0, length);
+            }
+
+            if (offset < size)
+            {
+                LOGGER.at(Level.WARNING).log("Truncating " + (size - offset) + " unreadable bytes at the end of " + segmentPath);
+                channel.truncate(offset);
+            }
+        }
+    }
+
+    private byte[] readPayload(Location location) throws IOException
+    {
+        ByteBuffer payload = ByteBuffer.allocate(location.length());
+        if (location.segment() == currentSegment)
+        {
+            readFully(current, payload, location.offset());
+            return payload.array();
+        }
+
+        try (FileChannel channel = FileChannel.open(segmentPath(location.segment()), StandardOpenOption.READ))
+        {
+            readFully(channel, payload, location.offset());
+        }
+        return payload.array();
+    }
+
+    private void openCurrent() throws IOException
+    {
+        current = FileChannel.open(segmentPath(currentSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        liveBytesBySegment.putIfAbsent(currentSegment, 0L);
+    }
+
+    private Path segmentPath(int segment)
+    {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes)
+    {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try
+        {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished())
+            {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws IOException
+    {
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 4);
+            byte[] buffer = new byte[512];
+            while (!inflater.finished())
+            {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    throw new IOException("Truncated archive record");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+        catch (DataFormatException e)
+        {
+            throw new IOException("Corrupt archive record", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
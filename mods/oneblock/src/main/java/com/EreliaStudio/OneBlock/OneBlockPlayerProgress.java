@@ -0,0 +1,216 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.ExtraInfo;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.bson.BsonDocument;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-player OneBlock progress, attached to the player entity and saved with the player's
+ * data. Unlocks are bitsets indexed by the explicit unlock bit each definition declares in
+ * {@link OneBlockExpeditionDefaults} and {@link OneBlockDungeonDefaults}.
+ */
+public final class OneBlockPlayerProgress implements Component<EntityStore>
+{
+    public static final String COMPONENT_ID = "OneBlockPlayerProgress";
+
+    public static final BuilderCodec<OneBlockPlayerProgress> CODEC = BuilderCodec.builder(
+                    OneBlockPlayerProgress.class,
+                    OneBlockPlayerProgress::new
+            )
+            .append(new KeyedCodec<>("ExpeditionUnlocks", Codec.INT_ARRAY),
+                    (progress, value) -> progress.expeditionUnlocks = value != null ? value : new int[0],
+                    progress -> progress.expeditionUnlocks)
+            .add()
+            .append(new KeyedCodec<>("DungeonUnlocks", Codec.INT_ARRAY),
+                    (progress, value) -> progress.dungeonUnlocks = value != null ? value : new int[0],
+                    progress -> progress.dungeonUnlocks)
+            .add()
+            .append(new KeyedCodec<>("BlocksBroken", Codec.LONG),
+                    (progress, value) -> progress.blocksBroken = value, progress -> progress.blocksBroken)
+            .add()
+            .append(new KeyedCodec<>("ExpeditionsCompleted", Codec.INTEGER),
+                    (progress, value) -> progress.expeditionsCompleted = value, progress -> progress.expeditionsCompleted)
+            .add()
+            .append(new KeyedCodec<>("DungeonsCompleted", Codec.INTEGER),
+                    (progress, value) -> progress.dungeonsCompleted = value, progress -> progress.dungeonsCompleted)
+            .add()
+            .append(new KeyedCodec<>("DungeonWaves", Codec.INTEGER),
+                    (progress, value) -> progress.dungeonWaves = value, progress -> progress.dungeonWaves)
+            .add()
+            .build();
+
+    /** Extended mode keeps {@code BlocksBroken} typed as a long through the JSON round trip. */
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private static final Map<String, Integer> EXPEDITION_BITS =
+            bitsOf(OneBlockExpeditionDefaults.getExpeditionIds(), OneBlockExpeditionDefaults::getUnlockBit);
+    private static final Map<String, Integer> DUNGEON_BITS =
+            bitsOf(OneBlockDungeonDefaults.getDungeonIds(), OneBlockDungeonDefaults::getUnlockBit);
+    private static final String[] EXPEDITION_IDS = idsByBit(EXPEDITION_BITS);
+    private static final String[] DUNGEON_IDS = idsByBit(DUNGEON_BITS);
+
+    private int[] expeditionUnlocks = new int[0];
+    private int[] dungeonUnlocks = new int[0];
+    private long blocksBroken;
+    private int expeditionsCompleted;
+    private int dungeonsCompleted;
+    private int dungeonWaves;
+
+    public static ComponentType<EntityStore, OneBlockPlayerProgress> getComponentType()
+    {
+        OneBlockPlugin plugin = OneBlockPlugin.getInstance();
+        return plugin == null ? null : plugin.getPlayerProgressComponentType();
+    }
+
+    /** Marks an expedition or dungeon as unlocked. Returns true if it was not unlocked before. */
+    public boolean unlock(String expeditionId)
+    {
+        if (expeditionId == null) return false;
+
+        Integer dungeonBit = DUNGEON_BITS.get(expeditionId);
+        if (dungeonBit != null)
+        {
+            dungeonUnlocks = ensureCapacity(dungeonUnlocks, dungeonBit);
+            return setBit(dungeonUnlocks, dungeonBit);
+        }
+
+        Integer expeditionBit = EXPEDITION_BITS.get(expeditionId);
+        if (expeditionBit == null) return false;
+
+        expeditionUnlocks = ensureCapacity(expeditionUnlocks, expeditionBit);
+        return setBit(expeditionUnlocks, expeditionBit);
+    }
+
+    public boolean isUnlocked(String expeditionId)
+    {
+        if (expeditionId == null) return false;
+
+        Integer dungeonBit = DUNGEON_BITS.get(expeditionId);
+        if (dungeonBit != null) return hasBit(dungeonUnlocks, dungeonBit);
+
+        Integer expeditionBit = EXPEDITION_BITS.get(expeditionId);
+        return expeditionBit != null && hasBit(expeditionUnlocks, expeditionBit);
+    }
+
+    public List<String> getUnlockedIds()
+    {
+        List<String> out = new ArrayList<>();
+        collectBits(expeditionUnlocks, EXPEDITION_IDS, out);
+        collectBits(dungeonUnlocks, DUNGEON_IDS, out);
+        return out;
+    }
+
+    public void recordBreak() { blocksBroken++; }
+    public void recordExpeditionCompleted() { expeditionsCompleted++; }
+    public void recordDungeonCompleted() { dungeonsCompleted++; }
+    public void recordDungeonWave() { dungeonWaves++; }
+
+    public long getBlocksBroken() { return blocksBroken; }
+    public int getExpeditionsCompleted() { return expeditionsCompleted; }
+    public int getDungeonsCompleted() { return dungeonsCompleted; }
+    public int getDungeonWaves() { return dungeonWaves; }
+
+    /** Replaces this progress with {@code other}, used when a player's record is restored. */
+    void copyFrom(OneBlockPlayerProgress other)
+    {
+        expeditionUnlocks = other.expeditionUnlocks != null ? other.expeditionUnlocks.clone() : new int[0];
+        dungeonUnlocks = other.dungeonUnlocks != null ? other.dungeonUnlocks.clone() : new int[0];
+        blocksBroken = other.blocksBroken;
+        expeditionsCompleted = other.expeditionsCompleted;
+        dungeonsCompleted = other.dungeonsCompleted;
+        dungeonWaves = other.dungeonWaves;
+    }
+
+    /** Encodes {@code progress} through {@link #CODEC}, for stores that hold JSON. */
+    static JsonElement toJson(OneBlockPlayerProgress progress)
+    {
+        String json = CODEC.encode(progress, ExtraInfo.THREAD_LOCAL.get()).asDocument().toJson(JSON_SETTINGS);
+        return JsonParser.parseString(json);
+    }
+
+    /** Decodes progress written by {@link #toJson}. */
+    static OneBlockPlayerProgress fromJson(JsonElement json)
+    {
+        return CODEC.decode(BsonDocument.parse(json.toString()), ExtraInfo.THREAD_LOCAL.get());
+    }
+
+    @Override
+    public OneBlockPlayerProgress clone()
+    {
+        OneBlockPlayerProgress copy = new OneBlockPlayerProgress();
+        copy.expeditionUnlocks = expeditionUnlocks.clone();
+        copy.dungeonUnlocks = dungeonUnlocks.clone();
+        copy.blocksBroken = blocksBroken;
+        copy.expeditionsCompleted = expeditionsCompleted;
+        copy.dungeonsCompleted = dungeonsCompleted;
+        copy.dungeonWaves = dungeonWaves;
+        return copy;
+    }
+
+    private static Map<String, Integer> bitsOf(Iterable<String> ids, ToIntFunction<String> unlockBit)
+    {
+        Map<String, Integer> out = new HashMap<>();
+        for (String id : ids) out.put(id, unlockBit.applyAsInt(id));
+        return Map.copyOf(out);
+    }
+
+    /** The inverse of {@code bits}; bits no definition uses are null. */
+    private static String[] idsByBit(Map<String, Integer> bits)
+    {
+        int size = 0;
+        for (int bit : bits.values()) size = Math.max(size, bit + 1);
+
+        String[] out = new String[size];
+        for (Map.Entry<String, Integer> entry : bits.entrySet()) out[entry.getValue()] = entry.getKey();
+        return out;
+    }
+
+    private static int[] ensureCapacity(int[] words, int bit)
+    {
+        int required = (bit >>> 5) + 1;
+        return words.length >= required ? words : Arrays.copyOf(words, required);
+    }
+
+    private static boolean setBit(int[] words, int bit)
+    {
+        int mask = 1 << (bit & 31);
+        int word = words[bit >>> 5];
+        if ((word & mask) != 0) return false;
+
+        words[bit >>> 5] = word | mask;
+        return true;
+    }
+
+    private static boolean hasBit(int[] words, int bit)
+    {
+        int index = bit >>> 5;
+        return index < words.length && (words[index] & (1 << (bit & 31))) != 0;
+    }
+
+    private static void collectBits(int[] words, String[] ids, List<String> out)
+    {
+        int limit = Math.min(ids.length, words.length << 5);
+        for (int bit = 0; bit < limit; bit++)
+        {
+            if (ids[bit] != null && hasBit(words, bit)) out.add(ids[bit]);
+        }
+    }
+}
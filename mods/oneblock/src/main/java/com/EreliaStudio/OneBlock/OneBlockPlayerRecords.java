@@ -0,0 +1,224 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Offline copy of each player's progress, kept in two tiers. The progress component on the
+ * entity stays the authoritative copy and is persisted by the engine; this is a login-time
+ * snapshot for players who are away. Players seen recently have a {@code players/<uuid>} record
+ * in the {@link OneBlockStateStore}; records whose last login is older than the configured
+ * number of days are moved into the compressed {@link OneBlockPlayerArchive}.
+ * A login brings the record back to the hot tier, and restores the progress component if the
+ * player's entity data no longer has one.
+ * <p>
+ * All storage work runs on one background thread, so tiering and logins never race and the
+ * world thread never waits on disk.
+ */
+public final class OneBlockPlayerRecords
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    static final String NAMESPACE = "players/";
+    private static final long TIERING_PERIOD_MINUTES = 6 * 60;
+
+    private final OneBlockStateStore store;
+    private final Path archiveDirectory;
+    private final long archiveAfterMillis;
+    private final ScheduledExecutorService executor;
+    private OneBlockPlayerArchive archive;
+
+    public OneBlockPlayerRecords(OneBlockStateStore store, Path archiveDirectory, int archiveAfterDays)
+    {
+        this.store = store;
+        this.archiveDirectory = archiveDirectory;
+        this.archiveAfterMillis = TimeUnit.DAYS.toMillis(Math.max(0, archiveAfterDays));
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OneBlock-PlayerRecords");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start()
+    {
+        executor.execute(this::openArchive);
+
+        if (archiveAfterMillis > 0)
+        {
+            executor.scheduleWithFixedDelay(this::archiveInactive, 1, TIERING_PERIOD_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    public void shutdown()
+    {
+        executor.shutdown();
+        try
+        {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS))
+            {
+                LOGGER.at(Level.WARNING).log("Player record thread did not stop in time.");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        try
+        {
+            if (archive != null) archive.close();
+        }
+        catch (IOException e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to close player archive: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records a login with the player's current progress, or null if the entity has none.
+     * Completes with the progress stored before this login, rehydrated from the archive if needed.
+     */
+    public CompletableFuture<OneBlockPlayerProgress> touch(UUID playerId, OneBlockPlayerProgress progress)
+    {
+        JsonElement current = progress != null ? OneBlockPlayerProgress.toJson(progress) : null;
+        return CompletableFuture.supplyAsync(() -> touchNow(playerId, current), executor);
+    }
+
+    /** Replaces the stored progress of {@code playerId}, e.g. after an island import. */
+    public CompletableFuture<Void> put(UUID playerId, OneBlockPlayerProgress progress)
+    {
+        JsonElement current = OneBlockPlayerProgress.toJson(progress);
+        return CompletableFuture.runAsync(() ->
+        {
+            try
+            {
+                load(playerId);
+
+                JsonObject next = new JsonObject();
+                next.addProperty("lastSeen", System.currentTimeMillis());
+                next.add("progress", current);
+                store.write(NAMESPACE + playerId, next);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                LOGGER.at(Level.WARNING).log("Failed to store player record " + playerId + ": " + e.getMessage());
+            }
+        }, executor);
+    }
+
+    private OneBlockPlayerProgress touchNow(UUID playerId, JsonElement current)
+    {
+        try
+        {
+            JsonObject record = load(playerId);
+            JsonElement previous = record != null ? record.get("progress") : null;
+
+            JsonObject next = new JsonObject();
+            next.addProperty("lastSeen", System.currentTimeMillis());
+            next.add("progress", current != null ? current : previous);
+            store.write(NAMESPACE + playerId, next);
+
+            return previous != null && previous.isJsonObject()
+                    ? OneBlockPlayerProgress.fromJson(previous)
+                    : null;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to update player record " + playerId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Reads the hot record, rehydrating it from the archive first if it was moved there. */
+    private JsonObject load(UUID playerId) throws IOException
+    {
+        JsonObject record = store.read(NAMESPACE + playerId);
+        if (record != null || archive == null) return record;
+
+        record = archive.take(playerId);
+        if (record != null)
+        {
+            store.write(NAMESPACE + playerId, record);
+            LOGGER.at(Level.INFO).log("Restored archived record of " + playerId);
+        }
+        return record;
+    }
+
+    private void openArchive()
+    {
+        try
+        {
+            archive = new OneBlockPlayerArchive(archiveDirectory);
+            LOGGER.at(Level.INFO).log("Player archive holds " + archive.size() + " records.");
+        }
+        catch (IOException e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to open player archive, archiving disabled: " + e.getMessage());
+        }
+    }
+
+    private void archiveInactive()
+    {
+        if (archive == null) return;
+
+        long cutoff = System.currentTimeMillis() - archiveAfterMillis;
+        int archived = 0;
+
+        try
+        {
+            for (String key : store.keys())
+            {
+                if (!key.startsWith(NAMESPACE)) continue;
+
+                UUID playerId = parseUuid(key.substring(NAMESPACE.length()));
+                JsonObject record = playerId != null ? store.read(key) : null;
+                if (record == null || lastSeen(record) >= cutoff) continue;
+
+                archive.put(playerId, record);
+                store.delete(key);
+                archived++;
+            }
+
+            archive.compact();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.at(Level.WARNING).log("Player archiving stopped early: " + e.getMessage());
+        }
+
+        if (archived > 0)
+        {
+            LOGGER.at(Level.INFO).log("Archived " + archived + " inactive player records.");
+        }
+    }
+
+    private static long lastSeen(JsonObject record)
+    {
+        JsonElement lastSeen = record.get("lastSeen");
+        return lastSeen != null && lastSeen.isJsonPrimitive() ? lastSeen.getAsLong() : 0L;
+    }
+
+    private static UUID parseUuid(String value)
+    {
+        try
+        {
+            return UUID.fromString(value);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+}
@@ -1,21 +1,35 @@
 package com.EreliaStudio.OneBlock;
 
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.math.vector.Rotation3f;
+import com.hypixel.hytale.math.vector.Transform;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
 import com.hypixel.hytale.server.core.event.events.PrepareUniverseEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.entity.teleport.Teleport;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.Interaction;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.WorldConfig;
 import com.hypixel.hytale.server.core.universe.world.WorldConfigProvider;
 import com.hypixel.hytale.server.core.universe.world.events.AddWorldEvent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3i;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
@@ -25,10 +39,19 @@ public final class OneBlockPlugin extends JavaPlugin
     private static OneBlockPlugin instance;
 
     private OneBlockDropRegistry dropRegistry;
-    private OneBlockExpeditionStateProvider expeditionStateProvider;
-    private OneBlockDungeonStateProvider dungeonStateProvider;
+    private ResourceType<EntityStore, OneBlockIslandResource> islandResourceType;
+    private ComponentType<EntityStore, OneBlockPlayerProgress> playerProgressComponentType;
     private OneBlockHudService hudService;
     private OneBlockSettingsProvider settingsProvider;
+    private OneBlockStateStore stateStore;
+    private OneBlockPlayerRecords playerRecords;
+    private OneBlockIslandTransfer islandTransfer;
+    private OneBlockIslandHibernation islandHibernation;
+    private OneBlockIslandPregenerator islandPregenerator;
+    private OneBlockWorldShards worldShards;
+    private OneBlockDungeonInstances dungeonInstances;
+    private OneBlockDungeonSpawnSites dungeonSpawnSites;
+    private OneBlockWaveSpawner waveSpawner;
 
     public OneBlockPlugin(@Nonnull JavaPluginInit init)
     {
@@ -48,35 +71,51 @@ public final class OneBlockPlugin extends JavaPlugin
 
         // ── Services ─────────────────────────────────────────────────────────
         hudService = new OneBlockHudService();
-        settingsProvider = new OneBlockSettingsProvider(
-                getDataDirectory().resolve("oneblock-settings.json")
+        OneBlockStateStores.Config storageConfig = readStorageConfig();
+        stateStore = openStateStore(storageConfig);
+        settingsProvider = new OneBlockSettingsProvider(stateStore);
+        playerRecords = new OneBlockPlayerRecords(
+                stateStore,
+                getDataDirectory().resolve("oneblock-archive"),
+                storageConfig.getArchiveAfterDays()
         );
+        islandTransfer = new OneBlockIslandTransfer(getDataDirectory().resolve("oneblock-exports"));
 
         // ── Drop engine ──────────────────────────────────────────────────────
         dropRegistry = new OneBlockDropRegistry();
 
-        expeditionStateProvider = new OneBlockExpeditionStateProvider(
-                getDataDirectory().resolve("oneblock-expedition.json")
+        islandResourceType = getEntityStoreRegistry().registerResource(
+                OneBlockIslandResource.class,
+                OneBlockIslandResource.RESOURCE_ID,
+                OneBlockIslandResource.CODEC
         );
 
-        dungeonStateProvider = new OneBlockDungeonStateProvider(
-                getDataDirectory().resolve("oneblock-dungeon.json")
+        playerProgressComponentType = getEntityStoreRegistry().registerComponent(
+                OneBlockPlayerProgress.class,
+                OneBlockPlayerProgress.COMPONENT_ID,
+                OneBlockPlayerProgress.CODEC
         );
 
         dropRegistry.registerDropable(new ItemDropable(OneBlockDropRegistry.DEFAULT_ITEM_ID));
 
-        getEntityStoreRegistry().registerSystem(
-                new OneBlockBreakSystem(
-                        dropRegistry,
-                        expeditionStateProvider,
-                        dungeonStateProvider
-                )
+        dungeonSpawnSites = new OneBlockDungeonSpawnSites();
+        waveSpawner = new OneBlockWaveSpawner(dungeonSpawnSites, settingsProvider);
+        OneBlockBreakSystem breakSystem = new OneBlockBreakSystem(
+                dropRegistry,
+                islandResourceType,
+                dungeonSpawnSites,
+                waveSpawner
         );
+        getEntityStoreRegistry().registerSystem(breakSystem);
+        getEntityStoreRegistry().registerSystem(new OneBlockSpawnSiteInvalidation(dungeonSpawnSites));
+        getEntityStoreRegistry().registerSystem(new OneBlockDurabilitySystem(breakSystem, settingsProvider));
 
         getCommandRegistry().registerCommand(new OneBlockCommand());
 
         // ── Expedition progression ───────────────────────────────────────────
         OneBlockPools.setResolver(new OneBlockExpeditionPoolResolver());
+        getEventRegistry().register(LoadedAssetsEvent.class, BlockType.class,
+                event -> OneBlockBlockTable.rebuild());
 
         Map<String, Map<String, Integer>> defaultWeights =
                 OneBlockExpeditionDefaults.getDefaultWeights();
@@ -102,9 +141,24 @@ public final class OneBlockPlugin extends JavaPlugin
         );
 
         // ── World ────────────────────────────────────────────────────────────
-        OneBlockWorldBootstrap.ensureVoidDefaultWorldConfig(getDataDirectory());
+        for (String worldName : OneBlockWorldShards.shardNames(settingsProvider.getWorldShardCount()))
+        {
+            OneBlockWorldBootstrap.ensureVoidWorldConfig(getDataDirectory(), worldName);
+        }
+        for (String worldName : OneBlockDungeonInstances.instanceNames(settingsProvider.getDungeonInstanceCount()))
+        {
+            OneBlockWorldBootstrap.ensureVoidWorldConfig(getDataDirectory(), worldName);
+        }
 
         getEntityStoreRegistry().registerSystem(new OneBlockFallBackSystem(settingsProvider));
+        getEntityStoreRegistry().registerSystem(new OneBlockFallSweeper());
+
+        islandHibernation = new OneBlockIslandHibernation(islandResourceType, waveSpawner, settingsProvider);
+        getEntityStoreRegistry().registerSystem(islandHibernation);
+        islandPregenerator = new OneBlockIslandPregenerator(islandResourceType, settingsProvider);
+        worldShards = new OneBlockWorldShards(islandResourceType, settingsProvider.getWorldShardCount());
+        dungeonInstances = new OneBlockDungeonInstances();
+        getEntityStoreRegistry().registerSystem(new OneBlockDungeonInstances.Entrants(dungeonInstances));
 
         getEventRegistry().registerGlobal(PrepareUniverseEvent.class, event ->
         {
@@ -117,7 +171,7 @@ public final class OneBlockPlugin extends JavaPlugin
                 {
                     CompletableFuture<WorldConfig> future = original.load(path, worldName);
 
-                    if (!World.DEFAULT.equals(worldName))
+                    if (!OneBlockWorldShards.isOneBlockWorld(worldName))
                     {
                         return future;
                     }
@@ -146,26 +200,61 @@ public final class OneBlockPlugin extends JavaPlugin
         {
             World world = event.getWorld();
 
-            if (OneBlockWorldInitializer.isDefaultWorld(world))
+            if (OneBlockWorldShards.isOneBlockWorld(world) && OneBlockDungeonInstances.isInstanceWorld(world.getName()))
             {
                 OneBlockWorldBootstrap.ensureVoidWorldAtSavePath(world.getSavePath());
-                OneBlockWorldInitializer.initializeWorld(world, resolveActiveBlockId());
+                OneBlockWorldInitializer.initializeWorld(world, ignored -> null);
+                world.execute(() -> dungeonInstances.register(world));
+            }
+            else if (OneBlockWorldShards.isIslandShard(world))
+            {
+                OneBlockWorldBootstrap.ensureVoidWorldAtSavePath(world.getSavePath());
+                OneBlockWorldInitializer.initializeWorld(world, this::prepareIsland);
+                world.execute(() -> worldShards.register(world));
+                islandHibernation.watch(world);
+                islandPregenerator.watch(world);
             }
         });
 
         getEventRegistry().registerGlobal(PlayerReadyEvent.class, event ->
         {
-            if (!expeditionStateProvider.hasActiveExpedition())
+            Player player = event.getPlayer();
+            World world = player == null ? null : player.getWorld();
+            if (world == null)
             {
                 return;
             }
 
-            Player player = event.getPlayer();
-            String expeditionId = expeditionStateProvider.getActiveExpeditionId();
-            int ticksRemaining = expeditionStateProvider.getTicksRemaining();
-            int totalTicks = expeditionStateProvider.getTotalTicks();
+            world.execute(() ->
+            {
+                syncPlayerProgress(world, player);
+                if (leaveDungeonInstance(world, player))
+                {
+                    return;
+                }
+                ensurePlayerIsland(world, player);
+
+                OneBlockIslandResource islands = getIsland(world);
+                PlayerRef playerRef = player.getPlayerRef();
+                if (islands == null || playerRef == null)
+                {
+                    return;
+                }
 
-            hudService.restoreExpeditionHud(player, expeditionId, ticksRemaining, totalTicks);
+                OneBlockIsland island = islands.resolveFor(playerRef.getUuid());
+                OneBlockExpeditionStateProvider.Snapshot expedition = island.getExpeditionState().snapshot();
+                if (!expedition.isActive())
+                {
+                    return;
+                }
+
+                hudService.restoreExpeditionHud(
+                        player,
+                        expedition.expeditionId(),
+                        expedition.ticksRemaining(),
+                        expedition.totalTicks()
+                );
+            });
         });
 
         LOGGER.at(Level.INFO).log("Setup complete.");
@@ -174,6 +263,9 @@ public final class OneBlockPlugin extends JavaPlugin
     @Override
     protected void start()
     {
+        OneBlockEntitySpawner.requireNpcPlugin();
+        playerRecords.start();
+        if (!OneBlockBlockTable.isBuilt()) OneBlockBlockTable.rebuild();
         LOGGER.at(Level.INFO).log("Started.");
     }
 
@@ -182,22 +274,60 @@ public final class OneBlockPlugin extends JavaPlugin
     {
         LOGGER.at(Level.INFO).log("Shutting down...");
 
+        if (islandTransfer != null) islandTransfer.shutdown();
+        if (islandHibernation != null) islandHibernation.shutdown();
+        if (islandPregenerator != null) islandPregenerator.shutdown();
+        if (worldShards != null) worldShards.shutdown();
+        if (dungeonInstances != null) dungeonInstances.shutdown();
+        if (waveSpawner != null) waveSpawner.shutdown();
+        if (playerRecords != null) playerRecords.shutdown();
+
+        try
+        {
+            if (stateStore != null) stateStore.close();
+        }
+        catch (IOException e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to close state storage: " + e.getMessage());
+        }
+
         instance = null;
         hudService = null;
         settingsProvider = null;
+        stateStore = null;
+        playerRecords = null;
+        islandTransfer = null;
+        islandHibernation = null;
+        islandPregenerator = null;
+        worldShards = null;
+        dungeonInstances = null;
+        dungeonSpawnSites = null;
+        waveSpawner = null;
         dropRegistry = null;
-        expeditionStateProvider = null;
-        dungeonStateProvider = null;
+        islandResourceType = null;
+        playerProgressComponentType = null;
     }
 
-    public OneBlockExpeditionStateProvider getExpeditionStateProvider()
+    public ResourceType<EntityStore, OneBlockIslandResource> getIslandResourceType()
     {
-        return expeditionStateProvider;
+        return islandResourceType;
     }
 
-    public OneBlockDungeonStateProvider getDungeonStateProvider()
+    public ComponentType<EntityStore, OneBlockPlayerProgress> getPlayerProgressComponentType()
     {
-        return dungeonStateProvider;
+        return playerProgressComponentType;
+    }
+
+    /** Returns the island state of {@code world}. Must be called on the world thread. */
+    public OneBlockIslandResource getIsland(World world)
+    {
+        if (world == null || islandResourceType == null)
+        {
+            return null;
+        }
+
+        EntityStore entityStore = world.getEntityStore();
+        return entityStore == null ? null : entityStore.getStore().getResource(islandResourceType);
     }
 
     public OneBlockDropRegistry getDropRegistry()
@@ -215,24 +345,296 @@ public final class OneBlockPlugin extends JavaPlugin
         return settingsProvider;
     }
 
-    private String resolveActiveBlockId()
+    public OneBlockStateStore getStateStore()
     {
-        if (dungeonStateProvider != null && dungeonStateProvider.isDungeonActive())
+        return stateStore;
+    }
+
+    public OneBlockPlayerRecords getPlayerRecords()
+    {
+        return playerRecords;
+    }
+
+    public OneBlockIslandTransfer getIslandTransfer()
+    {
+        return islandTransfer;
+    }
+
+    public OneBlockWorldShards getWorldShards()
+    {
+        return worldShards;
+    }
+
+    public OneBlockDungeonInstances getDungeonInstances()
+    {
+        return dungeonInstances;
+    }
+
+    public OneBlockDungeonSpawnSites getDungeonSpawnSites()
+    {
+        return dungeonSpawnSites;
+    }
+
+    public OneBlockWaveSpawner getWaveSpawner()
+    {
+        return waveSpawner;
+    }
+
+    private OneBlockStateStores.Config readStorageConfig()
+    {
+        try
         {
-            String dungeonId = dungeonStateProvider.getActiveDungeonId();
-            String blockId = OneBlockDungeonDefaults.getBlockId(dungeonId);
+            return OneBlockStateStores.readConfig(getDataDirectory());
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to read storage config, using defaults: " + e.getMessage());
+            return new OneBlockStateStores.Config();
+        }
+    }
+
+    /** Opens the configured storage backend, falling back to JSON files if it cannot be opened. */
+    private OneBlockStateStore openStateStore(OneBlockStateStores.Config config)
+    {
+        try
+        {
+            return OneBlockStateStores.open(getDataDirectory(), config);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to open state storage, using JSON files: " + e.getMessage());
+            return new OneBlockJsonStateStore(getDataDirectory());
+        }
+    }
+
+    /**
+     * Runs on the world thread once the world is loaded: imports state left by older versions,
+     * then returns the block ID matching the main island's active expedition or dungeon, or
+     * null if this world's OneBlock was already placed since it loaded.
+     */
+    private String prepareIsland(World world)
+    {
+        OneBlockIslandResource islands = getIsland(world);
+        if (islands == null)
+        {
+            return OneBlockBlockIds.DEFAULT_BLOCK_ID;
+        }
+
+        if (!islands.claimOriginPlacement())
+        {
+            return null;
+        }
+
+        if (World.DEFAULT.equals(world.getName()))
+        {
+            OneBlockLegacyStateImporter.importInto(islands, getDataDirectory());
+        }
+        OneBlockIsland island = islands.getMainIsland();
+
+        OneBlockDungeonStateProvider.Snapshot dungeon = island.getDungeonState().snapshot();
+        if (dungeon.isActive())
+        {
+            String blockId = OneBlockDungeonDefaults.getBlockId(dungeon.dungeonId());
             return blockId != null ? blockId : OneBlockBlockIds.DEFAULT_BLOCK_ID;
         }
 
-        if (expeditionStateProvider != null && expeditionStateProvider.hasActiveExpedition())
+        OneBlockExpeditionStateProvider.Snapshot expedition = island.getExpeditionState().snapshot();
+        if (expedition.isActive())
         {
-            String expeditionId = expeditionStateProvider.getActiveExpeditionId();
-            return OneBlockExpeditionResolver.blockIdForExpedition(expeditionId);
+            return OneBlockExpeditionResolver.blockIdForExpedition(expedition.expeditionId());
         }
 
         return OneBlockBlockIds.DEFAULT_BLOCK_ID;
     }
 
+    /**
+     * In multi-island mode, gives {@code playerId} an island of their own in {@code world} if
+     * they have none there or in another shard, and places its OneBlock. Returns the new island,
+     * or null if nothing was created. Must be called on the world thread.
+     */
+    OneBlockIsland createPlayerIsland(World world, UUID playerId)
+    {
+        OneBlockIslandResource islands = getIsland(world);
+        if (islands == null || playerId == null || islands.getIslandOf(playerId) != null)
+        {
+            return null;
+        }
+
+        if (!OneBlockWorldShards.isIslandShard(world) || settingsProvider == null || !settingsProvider.isMultiIslandEnabled())
+        {
+            return null;
+        }
+
+        World home = worldShards.homeOf(playerId);
+        if (home != null && home != world)
+        {
+            return null;
+        }
+        worldShards.recordHome(playerId, world);
+
+        boolean prebuilt = islands.hasReadySlot();
+        OneBlockIsland island = islands.createIsland(playerId);
+        Vector3i origin = island.getOrigin();
+        if (!prebuilt)
+        {
+            world.setBlock(origin.x(), origin.y(), origin.z(), OneBlockBlockIds.DEFAULT_BLOCK_ID);
+        }
+        LOGGER.at(Level.INFO).log("Created island " + island.getId() + " in " + world.getName() + " at " + origin + " for " + playerId);
+        return island;
+    }
+
+    /**
+     * Gives a player without an island one on the least loaded shard, then moves them onto it.
+     * The island is created on the shard's thread and the teleport added on the player's.
+     */
+    private void ensurePlayerIsland(World world, Player player)
+    {
+        Ref<EntityStore> ref = player.getReference();
+        PlayerRef playerRef = player.getPlayerRef();
+        if (ref == null || playerRef == null || settingsProvider == null || !settingsProvider.isMultiIslandEnabled())
+        {
+            return;
+        }
+
+        if (!worldShards.isRegistered())
+        {
+            // Their island may be on a shard still loading; decide once every shard is indexed.
+            worldShards.whenRegistered(() -> world.execute(() ->
+            {
+                if (ref.isValid())
+                {
+                    ensurePlayerIsland(world, player);
+                }
+            }));
+            return;
+        }
+
+        UUID playerId = playerRef.getUuid();
+        World shard = worldShards.claimHome(playerId);
+        if (shard == null)
+        {
+            return;
+        }
+
+        shard.execute(() ->
+        {
+            OneBlockIsland island = createPlayerIsland(shard, playerId);
+            if (island == null)
+            {
+                return;
+            }
+
+            Transform spawn = new Transform(island.getSpawnPosition(), new Rotation3f());
+            world.execute(() ->
+            {
+                if (!ref.isValid())
+                {
+                    return;
+                }
+
+                Teleport teleport = Teleport.createForPlayer(shard, spawn);
+                world.getEntityStore().getStore().addComponent(ref, Teleport.getComponentType(), teleport);
+            });
+        });
+    }
+
+    /**
+     * Sends a player who logged in inside a dungeon instance to their island, or to the main
+     * island if they have none, unless a run is still bound to that instance, which they join.
+     * Instances are not saved, so after a restart or once the run was released nothing else
+     * would take them out. Returns true if the player is being sent home.
+     */
+    private boolean leaveDungeonInstance(World world, Player player)
+    {
+        Ref<EntityStore> ref = player.getReference();
+        PlayerRef playerRef = player.getPlayerRef();
+        if (ref == null || playerRef == null || dungeonInstances == null
+                || !OneBlockDungeonInstances.isInstanceWorld(world.getName()))
+        {
+            return false;
+        }
+
+        UUID playerId = playerRef.getUuid();
+        if (dungeonInstances.join(world, playerId))
+        {
+            return false;
+        }
+
+        World owned = worldShards.homeOf(playerId);
+        World home = owned != null ? owned : worldShards.defaultShard();
+        if (home == null)
+        {
+            return false;
+        }
+
+        home.execute(() ->
+        {
+            OneBlockIslandResource islands = getIsland(home);
+            if (islands == null)
+            {
+                return;
+            }
+
+            Transform spawn = new Transform(islands.resolveFor(playerId).getSpawnPosition(), new Rotation3f());
+            world.execute(() ->
+            {
+                if (!ref.isValid())
+                {
+                    return;
+                }
+
+                Teleport teleport = Teleport.createForPlayer(home, spawn);
+                world.getEntityStore().getStore().addComponent(ref, Teleport.getComponentType(), teleport);
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Attaches a progress component to players that have none, then records the login in the
+     * offline player records. If the entity had no progress but a stored record exists (for
+     * example after the record was archived and the player data was reset), it is restored.
+     */
+    private void syncPlayerProgress(World world, Player player)
+    {
+        Ref<EntityStore> ref = player.getReference();
+        PlayerRef playerRef = player.getPlayerRef();
+        EntityStore entityStore = world.getEntityStore();
+        if (ref == null || playerRef == null || entityStore == null || playerProgressComponentType == null)
+        {
+            return;
+        }
+
+        Store<EntityStore> store = entityStore.getStore();
+        OneBlockPlayerProgress progress = store.getComponent(ref, playerProgressComponentType);
+        boolean fresh = progress == null;
+        if (fresh)
+        {
+            store.addComponent(ref, playerProgressComponentType, new OneBlockPlayerProgress());
+        }
+
+        if (playerRecords == null)
+        {
+            return;
+        }
+
+        playerRecords.touch(playerRef.getUuid(), fresh ? null : progress).thenAccept(stored ->
+        {
+            if (!fresh || stored == null)
+            {
+                return;
+            }
+
+            world.execute(() ->
+            {
+                if (!ref.isValid()) return;
+
+                OneBlockPlayerProgress current = store.getComponent(ref, playerProgressComponentType);
+                if (current != null) current.copyFrom(stored);
+            });
+        });
+    }
+
     private static void registerDropables(OneBlockDropRegistry registry, Iterable<String> dropableIds)
     {
         if (registry == null || dropableIds == null)
@@ -5,4 +5,10 @@ import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
 public interface OneBlockPoolResolver
 {
     String resolvePoolId(BlockType blockType);
+
+    /** Resolves the pool of a block already classified by {@link OneBlockBlockTable}. */
+    default String resolvePoolId(OneBlockBlockTable.Entry entry)
+    {
+        return resolvePoolId(entry.blockType());
+    }
 }
@@ -26,6 +26,11 @@ public final class OneBlockPools
         return normalizePoolId(resolver.resolvePoolId(blockType));
     }
 
+    public static String resolvePoolId(OneBlockBlockTable.Entry entry)
+    {
+        return normalizePoolId(resolver.resolvePoolId(entry));
+    }
+
     public static String normalizePoolId(String poolId)
     {
         if (poolId == null || poolId.isEmpty()) return DEFAULT_POOL_ID;
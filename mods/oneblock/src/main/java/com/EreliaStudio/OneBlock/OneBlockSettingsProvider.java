@@ -1,26 +1,34 @@
 package com.EreliaStudio.OneBlock;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.logger.HytaleLogger;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.logging.Level;
 
 public final class OneBlockSettingsProvider
 {
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final Gson GSON = new Gson();
 
-    private final Path filePath;
+    static final String STATE_KEY = "settings";
+
+    private final OneBlockStateStore store;
     private volatile SaveData state;
+    private volatile Snapshot snapshot;
 
-    public OneBlockSettingsProvider(Path filePath)
+    public OneBlockSettingsProvider(OneBlockStateStore store)
     {
-        this.filePath = filePath;
+        this.store = store;
         this.state = load();
+        this.snapshot = Snapshot.of(state);
+    }
+
+    /** The settings as of the last change. Hot paths read it once per tick instead of locking per call. */
+    public Snapshot snapshot()
+    {
+        return snapshot;
     }
 
     public synchronized boolean isFallProtectionEnabled()
@@ -31,29 +39,94 @@ public final class OneBlockSettingsProvider
     public synchronized void setFallProtectionEnabled(boolean enabled)
     {
         state.fallProtection = enabled;
+        snapshot = Snapshot.of(state);
+        save();
+    }
+
+    /** When enabled, every player gets an island of their own instead of sharing the main one. */
+    public synchronized boolean isMultiIslandEnabled()
+    {
+        return state.multiIsland;
+    }
+
+    public synchronized void setMultiIslandEnabled(boolean enabled)
+    {
+        state.multiIsland = enabled;
+        snapshot = Snapshot.of(state);
         save();
     }
 
+    /** Number of empty islands kept generated ahead of new players in multi-island mode. */
+    public synchronized int getReadyIslandCount()
+    {
+        return Math.max(0, state.readyIslands);
+    }
+
+    /** Number of void worlds islands are spread across, the default world included. */
+    public synchronized int getWorldShardCount()
+    {
+        return Math.max(1, state.worldShards);
+    }
+
+    /** Number of pooled instance worlds dungeons run in; 0 runs dungeons on the island. */
+    public synchronized int getDungeonInstanceCount()
+    {
+        return Math.max(0, state.dungeonInstances);
+    }
+
+    /**
+     * Damage a OneBlock takes before it breaks when the plugin tracks durability itself, before
+     * the expedition's scale; 0 leaves durability to the engine's block health.
+     */
+    public synchronized float getOneBlockDurability()
+    {
+        return Math.max(0f, state.oneBlockDurability);
+    }
+
+    /** When enabled, starting a dungeon with spawn anchors lays a floor block under every anchor missing one. */
+    public synchronized boolean isDungeonArenaEnabled()
+    {
+        return state.dungeonArenas;
+    }
+
+    /** Dungeon NPCs spawned per tick in one world; larger waves are spread over the next ticks. */
+    public synchronized int getDungeonSpawnsPerTick()
+    {
+        return Math.max(1, state.dungeonSpawnsPerTick);
+    }
+
+    /** Dungeon NPCs an island may have alive or queued before its next wave is held back; 0 disables the cap. */
+    public synchronized int getDungeonMobCap()
+    {
+        return Math.max(0, state.dungeonMobCap);
+    }
+
+    /** Minutes a player island may go without a visitor before it hibernates. */
+    public synchronized int getIslandIdleMinutes()
+    {
+        return Math.max(1, state.islandIdleMinutes);
+    }
+
     private void save()
     {
         try
         {
-            Files.createDirectories(filePath.getParent());
-            try (Writer writer = Files.newBufferedWriter(filePath, StandardCharsets.UTF_8))
-            {
-                GSON.toJson(state, writer);
-            }
+            store.write(STATE_KEY, GSON.toJsonTree(state).getAsJsonObject());
+        }
+        catch (IOException e)
+        {
+            LOGGER.at(Level.WARNING).log("Failed to save settings: " + e.getMessage());
         }
-        catch (IOException ignored) {}
     }
 
     private SaveData load()
     {
-        if (filePath == null || !Files.exists(filePath)) return new SaveData();
+        if (store == null) return new SaveData();
 
-        try (Reader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8))
+        try
         {
-            SaveData loaded = GSON.fromJson(reader, SaveData.class);
+            JsonObject raw = store.read(STATE_KEY);
+            SaveData loaded = raw != null ? GSON.fromJson(raw, SaveData.class) : null;
             return loaded != null ? loaded : new SaveData();
         }
         catch (Exception ignored)
@@ -62,8 +135,31 @@ public final class OneBlockSettingsProvider
         }
     }
 
+    /** Immutable copy of the settings read on every tick or hit, clamped like their getters. */
+    public record Snapshot(boolean fallProtection, float oneBlockDurability, int dungeonSpawnsPerTick, int dungeonMobCap)
+    {
+        private static Snapshot of(SaveData state)
+        {
+            return new Snapshot(
+                    state.fallProtection,
+                    Math.max(0f, state.oneBlockDurability),
+                    Math.max(1, state.dungeonSpawnsPerTick),
+                    Math.max(0, state.dungeonMobCap)
+            );
+        }
+    }
+
     private static final class SaveData
     {
         private boolean fallProtection = true;
+        private boolean multiIsland = false;
+        private int readyIslands = 4;
+        private int worldShards = 1;
+        private int dungeonInstances = 0;
+        private float oneBlockDurability = 0f;
+        private boolean dungeonArenas = false;
+        private int dungeonSpawnsPerTick = 2;
+        private int dungeonMobCap = 24;
+        private int islandIdleMinutes = 5;
     }
 }
@@ -0,0 +1,62 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * NPC spawn failures, counted per role instead of logged one by one. {@link OneBlockWaveSpawner}
+ * calls {@link #report} every {@link #REPORT_INTERVAL_SECONDS} from its scheduler; it writes one
+ * summary line covering everything counted since the last one, so a bad arena cannot flood the
+ * log and spawning never pays for the logging. Safe to use from any thread.
+ */
+final class OneBlockSpawnFailures
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    static final long REPORT_INTERVAL_SECONDS = 60;
+
+    private static final Map<String, Counter> byRole = new ConcurrentHashMap<>();
+
+    private OneBlockSpawnFailures() {}
+
+    /** Counts a failed attempt to spawn {@code role}; {@code lost} when no attempt is left for it. */
+    static void record(String role, String reason, boolean lost)
+    {
+        Counter counter = byRole.computeIfAbsent(role, key -> new Counter());
+        counter.failures.increment();
+        if (lost) counter.lost.increment();
+        counter.lastReason = reason;
+    }
+
+    /** Logs the failures counted since the last report, if there were any. */
+    static void report()
+    {
+        StringBuilder line = new StringBuilder("NPC spawn failures:");
+        int roles = 0;
+        for (Map.Entry<String, Counter> entry : byRole.entrySet())
+        {
+            Counter counter = entry.getValue();
+            long failures = counter.failures.sumThenReset();
+            long lost = counter.lost.sumThenReset();
+            if (failures == 0) continue;
+
+            line.append(roles++ == 0 ? " " : ", ")
+                    .append(entry.getKey()).append(' ')
+                    .append(failures).append(" failed, ")
+                    .append(lost).append(" lost (last ")
+                    .append(counter.lastReason).append(')');
+        }
+        if (roles > 0) LOGGER.at(Level.WARNING).log(line.toString());
+    }
+
+    private static final class Counter
+    {
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder lost = new LongAdder();
+        private volatile String lastReason;
+    }
+}
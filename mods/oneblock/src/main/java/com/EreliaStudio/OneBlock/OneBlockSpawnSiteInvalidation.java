@@ -0,0 +1,46 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.ecs.PlaceBlockEvent;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Drops cached dungeon spawn sites when a player places a block inside their volume. Player
+ * breaks are covered by {@link OneBlockBreakSystem}, which already sees every one. Changes by
+ * anything else are re-validated lazily by {@link OneBlockDungeonSpawnSites.Sites#pick}.
+ */
+public final class OneBlockSpawnSiteInvalidation extends EntityEventSystem<EntityStore, PlaceBlockEvent>
+{
+    private final OneBlockDungeonSpawnSites spawnSites;
+
+    public OneBlockSpawnSiteInvalidation(OneBlockDungeonSpawnSites spawnSites)
+    {
+        super(PlaceBlockEvent.class);
+        this.spawnSites = spawnSites;
+    }
+
+    @Override
+    public Query<EntityStore> getQuery()
+    {
+        return Player.getComponentType();
+    }
+
+    @Override
+    public void handle(int entityIndex,
+                       ArchetypeChunk<EntityStore> chunk,
+                       Store<EntityStore> store,
+                       @Nonnull CommandBuffer<EntityStore> commandBuffer,
+                       @Nonnull PlaceBlockEvent event)
+    {
+        if (event.isCancelled()) return;
+
+        spawnSites.invalidate(OneBlockBreakSystem.worldOf(store), event.getTargetBlock());
+    }
+}
@@ -0,0 +1,73 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Keyed storage for plugin-owned state that does not live in a world or on an entity.
+ * Records are exchanged as {@link JsonObject} so callers keep using Gson for mapping,
+ * while each backend decides how the record is laid out on disk.
+ * <p>
+ * Keys are {@code name} or {@code namespace/name}, made of letters, digits, {@code -},
+ * {@code _} and {@code .} (not leading).
+ */
+public interface OneBlockStateStore extends Closeable
+{
+    /** Returns the record stored under {@code key}, or null if there is none. */
+    JsonObject read(String key) throws IOException;
+
+    void write(String key, JsonObject value) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    Set<String> keys() throws IOException;
+
+    /** Storage backends selectable through {@code oneblock-storage.json}. */
+    enum Backend
+    {
+        /** One pretty-printed JSON file per key, for debugging and hand editing. */
+        JSON,
+        /** One compact binary file per key. */
+        BINARY,
+        /** A single append-only log with an in-memory index, for very large player counts. */
+        KV;
+
+        public static Backend parse(String value, Backend fallback)
+        {
+            if (value == null || value.isBlank()) return fallback;
+
+            for (Backend backend : values())
+            {
+                if (backend.name().equalsIgnoreCase(value.trim())) return backend;
+            }
+            return fallback;
+        }
+    }
+
+    static void validateKey(String key)
+    {
+        if (key == null || key.isEmpty()) throw new IllegalArgumentException("Empty state key");
+
+        int slashes = 0;
+        for (int i = 0; i < key.length(); i++)
+        {
+            char c = key.charAt(i);
+            if (c == '/')
+            {
+                if (++slashes > 1 || i == 0 || i == key.length() - 1)
+                {
+                    throw new IllegalArgumentException("Invalid state key: " + key);
+                }
+                continue;
+            }
+
+            boolean segmentStart = i == 0 || key.charAt(i - 1) == '/';
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || (c == '.' && !segmentStart);
+            if (!valid) throw new IllegalArgumentException("Invalid state key: " + key);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.hypixel.hytale.logger.HytaleLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+
+/**
+ * Opens the {@link OneBlockStateStore} selected in {@code oneblock-storage.json} and runs the
+ * backend migration it requests:
+ * <pre>
+ * { "backend": "kv", "migrateFrom": "json", "archiveAfterDays": 30 }
+ * </pre>
+ * When {@code migrateFrom} names another backend, every record is copied from it into the
+ * selected backend on startup, then the field is cleared. The source files are left in place.
+ */
+public final class OneBlockStateStores
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final Gson GSON = new Gson();
+
+    static final String CONFIG_KEY = "storage";
+    private static final String KV_FILE = "oneblock-state.kv";
+
+    private OneBlockStateStores() {}
+
+    public static Config readConfig(Path dataDirectory) throws IOException
+    {
+        JsonObject rawConfig = new OneBlockJsonStateStore(dataDirectory).read(CONFIG_KEY);
+        Config config = rawConfig != null ? GSON.fromJson(rawConfig, Config.class) : null;
+        return config != null ? config : new Config();
+    }
+
+    public static OneBlockStateStore open(Path dataDirectory, Config config) throws IOException
+    {
+
+        OneBlockStateStore.Backend backend = OneBlockStateStore.Backend.parse(config.backend, OneBlockStateStore.Backend.JSON);
+        OneBlockStateStore.Backend migrateFrom = OneBlockStateStore.Backend.parse(config.migrateFrom, null);
+        OneBlockStateStore store = create(backend, dataDirectory);
+
+        if (migrateFrom != null && migrateFrom != backend)
+        {
+            try (OneBlockStateStore source = create(migrateFrom, dataDirectory))
+            {
+                int copied = migrate(source, store);
+                LOGGER.at(Level.INFO).log("Migrated " + copied + " state records from " + migrateFrom + " to " + backend);
+            }
+            catch (IOException e)
+            {
+                store.close();
+                throw e;
+            }
+        }
+
+        config.backend = backend.name().toLowerCase();
+        config.migrateFrom = null;
+        new OneBlockJsonStateStore(dataDirectory).write(CONFIG_KEY, GSON.toJsonTree(config).getAsJsonObject());
+
+        LOGGER.at(Level.INFO).log("Using " + backend + " state storage.");
+        return store;
+    }
+
+    public static OneBlockStateStore create(OneBlockStateStore.Backend backend, Path dataDirectory) throws IOException
+    {
+        return switch (backend)
+        {
+            case JSON -> new OneBlockJsonStateStore(dataDirectory);
+            case BINARY -> new OneBlockBinaryStateStore(dataDirectory);
+            case KV -> new OneBlockKeyValueStateStore(dataDirectory.resolve(KV_FILE));
+        };
+    }
+
+    /** Copies every record except the storage config from {@code source} to {@code target}. Returns the number copied. */
+    public static int migrate(OneBlockStateStore source, OneBlockStateStore target) throws IOException
+    {
+        int copied = 0;
+        for (String key : source.keys())
+        {
+            if (CONFIG_KEY.equals(key)) continue;
+
+            JsonObject value = source.read(key);
+            if (value == null) continue;
+
+            target.write(key, value);
+            copied++;
+        }
+        return copied;
+    }
+
+    public static final class Config
+    {
+        private String backend = "json";
+        private String migrateFrom;
+        private int archiveAfterDays = 30;
+
+        /** Days without a login after which a player record moves to the archive; 0 disables archiving. */
+        public int getArchiveAfterDays()
+        {
+            return archiveAfterDays;
+        }
+    }
+}
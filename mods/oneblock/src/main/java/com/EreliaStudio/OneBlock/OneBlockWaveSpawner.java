@@ -0,0 +1,472 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import org.joml.Vector3i;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Spreads dungeon waves over ticks. The NPCs of a wave are queued per world and spawned at most
+ * {@code dungeonSpawnsPerTick} at a time, so a large wave, or several dungeons breaking on one
+ * world together, costs a few spawns per tick instead of one spike.
+ * <p>
+ * Waves are planned ahead: once a wave is queued, the next wave of the same run is rolled on a
+ * later tick with budget to spare, its NPCs and spawn sites fixed, so the break that calls it
+ * only queues it. A plan rolled on spawn sites that were invalidated since is rolled again.
+ * <p>
+ * Each run keeps the references of the NPCs it spawned. While an island's runs have
+ * {@code dungeonMobCap} NPCs alive or queued, the NPCs of its next waves are held back and
+ * released, oldest first, as its live NPCs drop below the cap. A completed run's
+ * NPCs are despawned together after {@link #COMPLETED_LINGER_SECONDS}, and those of a run cut
+ * short (instance released, island hibernated) right away.
+ * <p>
+ * A spawn that fails is queued again at the next candidate site, within
+ * {@link OneBlockEntitySpawner#MAX_ATTEMPTS}; every failed attempt is counted in
+ * {@link OneBlockSpawnFailures} rather than logged, and the scheduler writes its summary.
+ * <p>
+ * The queues and plans of a world are only touched on that world's thread; the scheduler thread
+ * just posts the next drain to it.
+ */
+public final class OneBlockWaveSpawner
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    /** One server tick. */
+    private static final long TICK_MILLIS = 33;
+    /** How often held NPCs are checked against their island's mob cap when nothing else is queued. */
+    private static final long HELD_POLL_MILLIS = 1000;
+    /** How long the NPCs of a completed run, its final wave included, stay to be fought. */
+    private static final long COMPLETED_LINGER_SECONDS = 120;
+
+    private final OneBlockDungeonSpawnSites spawnSites;
+    private final OneBlockSettingsProvider settingsProvider;
+    private final Map<String, Waves> byWorld = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public OneBlockWaveSpawner(OneBlockDungeonSpawnSites spawnSites, OneBlockSettingsProvider settingsProvider)
+    {
+        this.spawnSites = spawnSites;
+        this.settingsProvider = settingsProvider;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OneBlock-WaveSpawner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(OneBlockSpawnFailures::report,
+                OneBlockSpawnFailures.REPORT_INTERVAL_SECONDS,
+                OneBlockSpawnFailures.REPORT_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * The plan of wave {@code waveIndex} of {@code dungeonId} at {@code source}: the pre-rolled
+     * one if it still holds, otherwise one rolled now. World thread only.
+     */
+    public Plan takePlan(World world, Vector3i source, String dungeonId, int waveIndex)
+    {
+        OneBlockDungeonSpawnSites.Sites sites = spawnSites.sitesFor(world, source, dungeonId);
+        Plan plan = wavesOf(world).plans.remove(OneBlockBlockPos.pack(source));
+        if (plan != null && plan.matches(dungeonId, waveIndex, sites)) return plan;
+
+        return roll(world, source, dungeonId, waveIndex, sites);
+    }
+
+    /**
+     * Queues the NPCs of {@code plan} for the run at {@code source}; they spawn over the next
+     * ticks within the world's budget. NPCs that would take the island past its mob cap are
+     * held until enough of its NPCs are gone. World thread only.
+     */
+    public void spawn(World world, OneBlockIsland island, Vector3i source, Plan plan)
+    {
+        Waves waves = wavesOf(world);
+        Run run = waves.runAt(OneBlockBlockPos.pack(source), island);
+        int cap = mobCap();
+        int population = cap > 0 ? population(waves, island) : 0;
+        for (int i = 0; i < plan.entityIds.length; i++)
+        {
+            Spawn spawn = new Spawn(run, plan.rolledOn, plan.entityIds[i], plan.sites[i], 0);
+            if (cap > 0 && population >= cap)
+            {
+                waves.held.add(spawn);
+                continue;
+            }
+
+            waves.spawns.add(spawn);
+            run.queued++;
+            population++;
+        }
+        schedule(world, waves, waves.spawns.isEmpty() ? HELD_POLL_MILLIS : 0);
+    }
+
+    private int mobCap()
+    {
+        return settingsProvider == null ? 0 : settingsProvider.snapshot().dungeonMobCap();
+    }
+
+    /** NPCs alive or queued across {@code island}'s runs in this world. */
+    private static int population(Waves waves, OneBlockIsland island)
+    {
+        int population = 0;
+        for (Run run : waves.runs)
+        {
+            if (run.island == island) population += run.population();
+        }
+        return population;
+    }
+
+    /** Moves held NPCs of islands back under their mob cap onto the spawn queue, oldest first. */
+    private void releaseHeld(Waves waves)
+    {
+        if (waves.held.isEmpty()) return;
+
+        int cap = mobCap();
+        Iterator<Spawn> held = waves.held.iterator();
+        while (held.hasNext())
+        {
+            Spawn spawn = held.next();
+            if (!spawn.run.closed && cap > 0 && population(waves, spawn.run.island) >= cap) continue;
+
+            held.remove();
+            if (spawn.run.closed) continue;
+
+            waves.spawns.add(spawn);
+            spawn.run.queued++;
+        }
+    }
+
+    /** Asks for wave {@code waveIndex} of the run at {@code source} to be rolled ahead of its break. */
+    public void preRoll(World world, Vector3i source, String dungeonId, int waveIndex)
+    {
+        if (waveIndex < 0 || waveIndex >= OneBlockDungeonDefaults.getWaveCount(dungeonId)) return;
+
+        Waves waves = wavesOf(world);
+        waves.rolls.add(new Roll(OneBlockBlockPos.pack(source), dungeonId, waveIndex));
+        schedule(world, waves, 0);
+    }
+
+    /**
+     * Ends the completed run at {@code source}: its plan is dropped, NPCs already queued still
+     * spawn, and all of them are despawned once the linger time is up. World thread only.
+     */
+    public void release(World world, Vector3i source)
+    {
+        Waves waves = world == null ? null : byWorld.get(world.getName());
+        if (waves == null) return;
+
+        long key = OneBlockBlockPos.pack(source);
+        forget(waves, key);
+
+        for (Run run : waves.runs)
+        {
+            if (run.source != key || run.finished) continue;
+
+            run.finished = true;
+            if (!scheduler.isShutdown())
+            {
+                scheduler.schedule(() -> world.execute(() -> despawn(world, waves, run)),
+                        COMPLETED_LINGER_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /** Ends the runs at {@code source} now and despawns their NPCs, queued ones included. World thread only. */
+    public void despawn(World world, Vector3i source)
+    {
+        Waves waves = world == null ? null : byWorld.get(world.getName());
+        if (waves == null) return;
+
+        long key = OneBlockBlockPos.pack(source);
+        forget(waves, key);
+        for (Run run : List.copyOf(waves.runs))
+        {
+            if (run.source == key) despawn(world, waves, run);
+        }
+    }
+
+    /** Ends the runs of hibernated islands and despawns their NPCs. World thread only. */
+    public void despawnHibernated(World world)
+    {
+        Waves waves = world == null ? null : byWorld.get(world.getName());
+        if (waves == null) return;
+
+        for (Run run : List.copyOf(waves.runs))
+        {
+            if (!run.island.isHibernated()) continue;
+
+            forget(waves, run.source);
+            despawn(world, waves, run);
+        }
+    }
+
+    public void shutdown()
+    {
+        scheduler.shutdownNow();
+        byWorld.clear();
+        OneBlockSpawnFailures.report();
+    }
+
+    private static void forget(Waves waves, long source)
+    {
+        waves.plans.remove(source);
+        waves.rolls.removeIf(roll -> roll.source == source);
+    }
+
+    private static void despawn(World world, Waves waves, Run run)
+    {
+        if (run.closed) return;
+
+        run.closed = true;
+        waves.runs.remove(run);
+
+        EntityStore entityStore = world.getEntityStore();
+        int despawned = entityStore == null ? 0 : run.despawn(entityStore.getStore());
+        if (despawned > 0)
+        {
+            LOGGER.at(Level.FINE).log("Despawned " + despawned + " dungeon NPCs in " + world.getName() + ".");
+        }
+    }
+
+    private Waves wavesOf(World world)
+    {
+        return byWorld.computeIfAbsent(world.getName(), name -> new Waves());
+    }
+
+    private void schedule(World world, Waves waves, long delayMillis)
+    {
+        if (waves.scheduled || scheduler.isShutdown()) return;
+
+        waves.scheduled = true;
+        scheduler.schedule(() -> world.execute(() -> drain(world, waves)), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** One tick of a world's queue: spawns up to the budget, then rolls a plan if budget is left. */
+    private void drain(World world, Waves waves)
+    {
+        waves.scheduled = false;
+
+        EntityStore entityStore = world.getEntityStore();
+        Store<EntityStore> store = entityStore == null ? null : entityStore.getStore();
+        if (store == null)
+        {
+            waves.spawns.forEach(spawn -> spawn.run.queued--);
+            waves.spawns.clear();
+            waves.rolls.clear();
+            waves.held.clear();
+            return;
+        }
+
+        releaseHeld(waves);
+
+        int budget = settingsProvider == null ? 1 : settingsProvider.snapshot().dungeonSpawnsPerTick();
+        while (budget > 0 && !waves.spawns.isEmpty())
+        {
+            Spawn spawn = waves.spawns.poll();
+            Run run = spawn.run;
+            run.queued--;
+            if (run.closed) continue;
+
+            budget--;
+            OneBlockEntitySpawner.Outcome outcome =
+                    OneBlockEntitySpawner.spawnTrackedNpc(world, store, OneBlockBlockPos.unpack(spawn.site), spawn.entityId);
+            if (outcome.spawned())
+            {
+                run.add(outcome.ref());
+                continue;
+            }
+
+            int attempt = spawn.attempt + 1;
+            boolean lost = attempt >= OneBlockEntitySpawner.MAX_ATTEMPTS;
+            OneBlockSpawnFailures.record(spawn.entityId, outcome.failure(), lost);
+            long next = spawn.sites.after(spawn.site);
+            if (OneBlockEntitySpawner.NO_SPACE.equals(outcome.failure())) spawn.sites.discard(spawn.site);
+            if (!lost)
+            {
+                waves.spawns.add(new Spawn(run, spawn.sites, spawn.entityId, next, attempt));
+                run.queued++;
+            }
+        }
+
+        if (budget > 0 && waves.spawns.isEmpty() && !waves.rolls.isEmpty())
+        {
+            Roll roll = waves.rolls.poll();
+            Vector3i source = OneBlockBlockPos.unpack(roll.source);
+            OneBlockDungeonSpawnSites.Sites sites = spawnSites.sitesFor(world, source, roll.dungeonId);
+            waves.plans.put(roll.source, roll(world, source, roll.dungeonId, roll.waveIndex, sites));
+        }
+
+        if (!waves.spawns.isEmpty() || !waves.rolls.isEmpty()) schedule(world, waves, TICK_MILLIS);
+        else if (!waves.held.isEmpty()) schedule(world, waves, HELD_POLL_MILLIS);
+    }
+
+    /**
+     * Splits a wave into its NPCs, each given a site, and any other drops. Without spawn sites
+     * NPCs appear above the block, as before sites existed.
+     */
+    private static Plan roll(World world,
+                             Vector3i source,
+                             String dungeonId,
+                             int waveIndex,
+                             OneBlockDungeonSpawnSites.Sites sites)
+    {
+        List<String> wave = OneBlockDungeonDefaults.getWave(dungeonId, waveIndex);
+        List<String> entityIds = new ArrayList<>(wave.size());
+        List<String> drops = new ArrayList<>();
+        for (String dropId : wave)
+        {
+            OneBlockDropId parsed = OneBlockDropId.parse(dropId);
+            if (parsed.isEntity() && !parsed.getId().isEmpty()) entityIds.add(parsed.getId());
+            else drops.add(dropId);
+        }
+
+        long above = OneBlockBlockPos.pack(source.x(), source.y() + 1, source.z());
+        long[] packed = new long[entityIds.size()];
+        for (int i = 0; i < packed.length; i++)
+        {
+            packed[i] = sites.isEmpty() ? above : sites.pick(world, i, above);
+        }
+
+        return new Plan(dungeonId, waveIndex, sites, entityIds.toArray(new String[0]), packed, List.copyOf(drops));
+    }
+
+    /** A rolled wave: its NPCs with their packed sites, and the drops of the wave that are not NPCs. */
+    public static final class Plan
+    {
+        private final String dungeonId;
+        private final int waveIndex;
+        private final OneBlockDungeonSpawnSites.Sites rolledOn;
+        private final String[] entityIds;
+        private final long[] sites;
+        private final List<String> drops;
+
+        private Plan(String dungeonId,
+                     int waveIndex,
+                     OneBlockDungeonSpawnSites.Sites rolledOn,
+                     String[] entityIds,
+                     long[] sites,
+                     List<String> drops)
+        {
+            this.dungeonId = dungeonId;
+            this.waveIndex = waveIndex;
+            this.rolledOn = rolledOn;
+            this.entityIds = entityIds;
+            this.sites = sites;
+            this.drops = drops;
+        }
+
+        public List<String> getDrops()
+        {
+            return drops;
+        }
+
+        /** Whether the plan is for that wave and its sites were not re-resolved since it was rolled. */
+        private boolean matches(String dungeonId, int waveIndex, OneBlockDungeonSpawnSites.Sites sites)
+        {
+            return this.waveIndex == waveIndex && this.rolledOn == sites && this.dungeonId.equals(dungeonId);
+        }
+    }
+
+    private record Spawn(Run run, OneBlockDungeonSpawnSites.Sites sites, String entityId, long site, int attempt) {}
+
+    private record Roll(long source, String dungeonId, int waveIndex) {}
+
+    private static final class Waves
+    {
+        private final ArrayDeque<Spawn> spawns = new ArrayDeque<>();
+        /** NPCs of islands at their mob cap, not counted as queued until released. */
+        private final ArrayDeque<Spawn> held = new ArrayDeque<>();
+        private final ArrayDeque<Roll> rolls = new ArrayDeque<>();
+        private final OneBlockLongMap<Plan> plans = new OneBlockLongMap<>();
+        private final List<Run> runs = new ArrayList<>();
+        private boolean scheduled;
+
+        /** The unfinished run at {@code source}, started if there is none. */
+        private Run runAt(long source, OneBlockIsland island)
+        {
+            for (Run run : runs)
+            {
+                if (run.source == source && !run.finished) return run;
+            }
+
+            Run run = new Run(source, island);
+            runs.add(run);
+            return run;
+        }
+    }
+
+    /** One dungeon run: the NPCs it spawned, compacted as they die, and how many are still queued. */
+    private static final class Run
+    {
+        private final long source;
+        private final OneBlockIsland island;
+        @SuppressWarnings("unchecked")
+        private Ref<EntityStore>[] mobs = new Ref[8];
+        private int count;
+        private int queued;
+        /** No further waves join the run; set when it completes. */
+        private boolean finished;
+        /** The run's NPCs were despawned; queued ones are dropped. */
+        private boolean closed;
+
+        private Run(long source, OneBlockIsland island)
+        {
+            this.source = source;
+            this.island = island;
+        }
+
+        private void add(Ref<EntityStore> ref)
+        {
+            if (count == mobs.length) compact();
+            if (count == mobs.length) mobs = Arrays.copyOf(mobs, count * 2);
+            mobs[count++] = ref;
+        }
+
+        /** NPCs alive or queued. Drops the references of dead ones along the way. */
+        private int population()
+        {
+            compact();
+            return count + queued;
+        }
+
+        private void compact()
+        {
+            int live = 0;
+            for (int i = 0; i < count; i++)
+            {
+                if (mobs[i].isValid()) mobs[live++] = mobs[i];
+            }
+            Arrays.fill(mobs, live, count, null);
+            count = live;
+        }
+
+        private int despawn(Store<EntityStore> store)
+        {
+            int despawned = 0;
+            for (int i = 0; i < count; i++)
+            {
+                if (!mobs[i].isValid()) continue;
+
+                store.removeEntity(mobs[i], RemoveReason.REMOVE);
+                despawned++;
+            }
+            Arrays.fill(mobs, 0, count, null);
+            count = 0;
+            return despawned;
+        }
+    }
+}
@@ -27,7 +27,6 @@ final class OneBlockWorldBootstrap
     private static final String VOID_WORLD_GEN = "Void";
     private static final String VOID_ENVIRONMENT = "Env_Default_Void";
     private static final String VOID_TINT = "#5a992b";
-    private static final String WORLD_NAME = "default";
     private static final String MARKER_FILE = "void-world-ready.marker";
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
@@ -36,7 +35,7 @@ final class OneBlockWorldBootstrap
     {
     }
 
-    static void ensureVoidDefaultWorldConfig(Path dataDir)
+    static void ensureVoidWorldConfig(Path dataDir, String worldName)
     {
         Path serverRoot = resolveServerRoot(dataDir);
         if (serverRoot == null)
@@ -45,7 +44,7 @@ final class OneBlockWorldBootstrap
             return;
         }
 
-        Path worldDir = serverRoot.resolve("universe").resolve("worlds").resolve(WORLD_NAME);
+        Path worldDir = serverRoot.resolve("universe").resolve("worlds").resolve(worldName);
         ensureVoidWorldDir(worldDir);
     }
 
@@ -75,7 +74,7 @@ final class OneBlockWorldBootstrap
         boolean updated = updateWorldGenToVoid(configPath);
         if (updated)
         {
-            LOGGER.at(Level.INFO).log("WorldGen for '" + WORLD_NAME + "' set to Void.");
+            LOGGER.at(Level.INFO).log("WorldGen for '" + worldDir.getFileName() + "' set to Void.");
         }
 
         Path marker = worldDir.resolve(MARKER_FILE);
@@ -9,7 +9,7 @@ import com.hypixel.hytale.server.core.universe.world.WorldConfig;
 import com.hypixel.hytale.server.core.universe.world.spawn.GlobalSpawnProvider;
 import com.hypixel.hytale.server.core.universe.world.worldgen.provider.VoidWorldGenProvider;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.logging.Level;
 import org.joml.Vector3d;
 import org.joml.Vector3i;
@@ -17,7 +17,7 @@ import org.joml.Vector3i;
 final class OneBlockWorldInitializer
 {
     private static final String START_BLOCK_ID = "OneBlock_Block_Default";
-    private static final Vector3i ORIGIN_BLOCK = new Vector3i(0, 100, 0);
+    private static final Vector3i ORIGIN_BLOCK = OneBlockBlockIds.ONEBLOCK_POSITION;
     private static final Vector3d SPAWN_POS = new Vector3d(0.5, 102.0, 0.5);
     private static final Color VOID_TINT = new Color((byte) 0x5a, (byte) 0x99, (byte) 0x2b);
     private static final String VOID_ENVIRONMENT = "Env_Default_Void";
@@ -28,23 +28,21 @@ final class OneBlockWorldInitializer
     }
 
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
-    private static final AtomicBoolean ORIGIN_PLACED = new AtomicBoolean(false);
 
     private OneBlockWorldInitializer() {}
 
-    static boolean isDefaultWorld(World world)
-    {
-        return world != null && World.DEFAULT.equals(world.getName());
-    }
-
-    static void initializeWorld(World world, String blockId)
+    /**
+     * Configures {@code world} as a void OneBlock world and places its main OneBlock. The
+     * resolver returns the block to place, or null if this world's OneBlock is already placed.
+     */
+    static void initializeWorld(World world, Function<World, String> blockIdResolver)
     {
         if (world == null) return;
 
-        String resolvedBlockId = (blockId != null && !blockId.isBlank()) ? blockId : START_BLOCK_ID;
-
         world.execute(() ->
         {
+            String resolvedBlockId = blockIdResolver != null ? blockIdResolver.apply(world) : START_BLOCK_ID;
+
             WorldConfig config = world.getWorldConfig();
             if (config != null)
             {
@@ -54,10 +52,10 @@ final class OneBlockWorldInitializer
                 config.markChanged();
             }
 
-            if (ORIGIN_PLACED.compareAndSet(false, true))
+            if (resolvedBlockId != null && !resolvedBlockId.isBlank())
             {
                 world.setBlock(ORIGIN_BLOCK.x(), ORIGIN_BLOCK.y(), ORIGIN_BLOCK.z(), resolvedBlockId);
-                LOGGER.at(Level.INFO).log("Placed OneBlock at " + ORIGIN_BLOCK + " with block " + resolvedBlockId);
+                LOGGER.at(Level.INFO).log("Placed OneBlock in " + world.getName() + " at " + ORIGIN_BLOCK + " with block " + resolvedBlockId);
             }
         });
     }
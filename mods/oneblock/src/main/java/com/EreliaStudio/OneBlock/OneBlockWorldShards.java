@@ -0,0 +1,238 @@
+package com.EreliaStudio.OneBlock;
+
+import com.hypixel.hytale.component.ResourceType;
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * The void worlds islands are spread across. Shard 0 is the default world, the others are
+ * {@code oneblock-1} to {@code oneblock-<n-1>}; each ticks on its own world thread and keeps
+ * its islands in its own {@link OneBlockIslandResource}.
+ * <p>
+ * This class is the cross-world part: which shard each player's island lives in, and how
+ * busy each shard is. Load is measured by posting a probe task to every shard and timing how
+ * long it waits in the world's queue. New islands go to the shard in the lowest bucket of
+ * {@link #WAIT_BUCKET_MILLIS} of smoothed wait, then to the one with the fewest islands, so
+ * probe jitter does not send every island to the same shard. Shards not probed yet have no
+ * wait to compare and are only picked when no shard has been probed.
+ * <p>
+ * Homes are indexed from each shard's islands as it registers, so no home is claimed until
+ * every configured shard has registered: a player whose island is on a shard still loading
+ * would otherwise get a second island. Work that needs a home waits in {@link #whenRegistered}.
+ */
+public final class OneBlockWorldShards
+{
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+
+    static final String SHARD_PREFIX = "oneblock-";
+    private static final long PROBE_PERIOD_SECONDS = 5;
+    private static final double SMOOTHING = 0.2;
+    private static final double WAIT_BUCKET_MILLIS = 2.0;
+
+    private final ResourceType<EntityStore, OneBlockIslandResource> islandResourceType;
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+    private final Map<UUID, String> homes = new ConcurrentHashMap<>();
+    private final Set<String> configured;
+    private final ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler;
+
+    public OneBlockWorldShards(ResourceType<EntityStore, OneBlockIslandResource> islandResourceType, int shardCount)
+    {
+        this.islandResourceType = islandResourceType;
+        this.configured = Set.copyOf(shardNames(shardCount));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OneBlock-Shards");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::probe, PROBE_PERIOD_SECONDS, PROBE_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** Names of the {@code count} shard worlds, the default world first. */
+    static List<String> shardNames(int count)
+    {
+        List<String> names = new ArrayList<>();
+        names.add(World.DEFAULT);
+        for (int i = 1; i < count; i++)
+        {
+            names.add(SHARD_PREFIX + i);
+        }
+        return names;
+    }
+
+    /** Any void world managed by the plugin: island shards and dungeon instances. */
+    static boolean isOneBlockWorld(String worldName)
+    {
+        return World.DEFAULT.equals(worldName) || (worldName != null && worldName.startsWith(SHARD_PREFIX));
+    }
+
+    static boolean isOneBlockWorld(World world)
+    {
+        return world != null && isOneBlockWorld(world.getName());
+    }
+
+    static boolean isIslandShard(World world)
+    {
+        return isOneBlockWorld(world) && !OneBlockDungeonInstances.isInstanceWorld(world.getName());
+    }
+
+    /**
+     * Indexes the owners of a loaded shard's islands, then adds it. Runs the work waiting in
+     * {@link #whenRegistered} once it is the last configured shard. Must be called on its world thread.
+     */
+    public void register(World world)
+    {
+        Shard shard = new Shard(world);
+
+        EntityStore entityStore = world.getEntityStore();
+        OneBlockIslandResource islands = entityStore == null ? null : entityStore.getStore().getResource(islandResourceType);
+        if (islands != null)
+        {
+            for (OneBlockIsland island : islands.getIslands())
+            {
+                if (island.getOwner() == null) continue;
+                if (homes.putIfAbsent(island.getOwner(), world.getName()) == null) shard.islands.incrementAndGet();
+            }
+        }
+
+        shards.put(world.getName(), shard);
+        if (isRegistered()) runPending();
+    }
+
+    /** Whether every configured shard has registered, so the home index is complete. */
+    public boolean isRegistered()
+    {
+        return shards.keySet().containsAll(configured);
+    }
+
+    /** Runs {@code task} once every configured shard has registered: now if they all have. */
+    public void whenRegistered(Runnable task)
+    {
+        pending.add(task);
+        if (isRegistered()) runPending();
+    }
+
+    private void runPending()
+    {
+        Runnable task;
+        while ((task = pending.poll()) != null)
+        {
+            task.run();
+        }
+    }
+
+    /** The world holding {@code playerId}'s island, or null if they have none yet. */
+    public World homeOf(UUID playerId)
+    {
+        String name = playerId == null ? null : homes.get(playerId);
+        Shard shard = name == null ? null : shards.get(name);
+        return shard == null ? null : shard.world;
+    }
+
+    /** The default world, where the shared main island lives, or null while it is not loaded. */
+    public World defaultShard()
+    {
+        Shard shard = shards.get(World.DEFAULT);
+        return shard == null ? null : shard.world;
+    }
+
+    public boolean hasHome(UUID playerId)
+    {
+        return playerId != null && homes.containsKey(playerId);
+    }
+
+    /**
+     * Picks the least loaded shard and claims it as {@code playerId}'s home. Returns null if the
+     * player already has a home or not every configured shard has registered yet.
+     */
+    public World claimHome(UUID playerId)
+    {
+        if (playerId == null || !isRegistered()) return null;
+
+        Shard best = null;
+        for (Shard shard : shards.values())
+        {
+            if (best == null || isLessLoaded(shard, best)) best = shard;
+        }
+        if (best == null || homes.putIfAbsent(playerId, best.world.getName()) != null) return null;
+
+        best.islands.incrementAndGet();
+        return best.world;
+    }
+
+    /** Records an island created in {@code world} outside {@link #claimHome}, e.g. by an import. */
+    public void recordHome(UUID playerId, World world)
+    {
+        Shard shard = shards.get(world.getName());
+        if (shard != null && homes.putIfAbsent(playerId, world.getName()) == null) shard.islands.incrementAndGet();
+    }
+
+    public void shutdown()
+    {
+        scheduler.shutdownNow();
+    }
+
+    /** Probed before unprobed, then lower wait bucket, then fewer islands. */
+    private static boolean isLessLoaded(Shard shard, Shard best)
+    {
+        boolean probed = shard.waitMillis > 0;
+        if (probed != best.waitMillis > 0) return probed;
+
+        long bucket = (long) (shard.waitMillis / WAIT_BUCKET_MILLIS);
+        long bestBucket = (long) (best.waitMillis / WAIT_BUCKET_MILLIS);
+        if (bucket != bestBucket) return bucket < bestBucket;
+
+        return shard.islands.get() < best.islands.get();
+    }
+
+    private void probe()
+    {
+        for (Shard shard : shards.values())
+        {
+            long posted = System.nanoTime();
+            shard.world.execute(() ->
+            {
+                double waited = (System.nanoTime() - posted) / 1_000_000.0;
+                shard.waitMillis = shard.waitMillis + SMOOTHING * (waited - shard.waitMillis);
+            });
+        }
+
+        if (shards.size() > 1)
+        {
+            StringBuilder line = new StringBuilder("Shard load:");
+            for (Map.Entry<String, Shard> entry : shards.entrySet())
+            {
+                line.append(' ').append(entry.getKey())
+                        .append('=').append(String.format("%.1fms/%d", entry.getValue().waitMillis, entry.getValue().islands.get()));
+            }
+            LOGGER.at(Level.FINE).log(line.toString());
+        }
+    }
+
+    private static final class Shard
+    {
+        private final World world;
+        private final AtomicInteger islands = new AtomicInteger();
+        private volatile double waitMillis;
+
+        private Shard(World world)
+        {
+            this.world = world;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OneBlockBinaryCodecTest
+{
+    @Test
+    void roundTripsEveryValueKind() throws IOException
+    {
+        JsonArray array = new JsonArray();
+        array.add(1);
+        array.add("two");
+        array.add(JsonNull.INSTANCE);
+        array.add(new JsonArray());
+
+        JsonObject nested = new JsonObject();
+        nested.addProperty("flag", false);
+        nested.add("empty", new JsonObject());
+
+        JsonObject value = new JsonObject();
+        value.addProperty("zero", 0);
+        value.addProperty("negative", -1);
+        value.addProperty("max", Long.MAX_VALUE);
+        value.addProperty("min", Long.MIN_VALUE);
+        value.addProperty("double", 2.5);
+        value.addProperty("true", true);
+        value.addProperty("string", "OneBlock_Block_Default");
+        value.addProperty("unicode", "é世😀");
+        value.addProperty("", "empty key");
+        value.add("null", JsonNull.INSTANCE);
+        value.add("array", array);
+        value.add("nested", nested);
+
+        assertEquals(value, OneBlockBinaryCodec.decode(OneBlockBinaryCodec.encode(value)));
+    }
+
+    @Test
+    void roundTripsEmptyObject() throws IOException
+    {
+        assertEquals(new JsonObject(), OneBlockBinaryCodec.decode(OneBlockBinaryCodec.encode(new JsonObject())));
+    }
+
+    @Test
+    void rejectsUnknownVersion() throws IOException
+    {
+        byte[] bytes = OneBlockBinaryCodec.encode(sample());
+        bytes[0] = 2;
+
+        assertThrows(IOException.class, () -> OneBlockBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    void rejectsUnknownTag() throws IOException
+    {
+        byte[] bytes = OneBlockBinaryCodec.encode(new JsonObject());
+        bytes[1] = 42;
+
+        assertThrows(IOException.class, () -> OneBlockBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    void rejectsEveryTruncation() throws IOException
+    {
+        byte[] bytes = OneBlockBinaryCodec.encode(sample());
+
+        for (int length = 0; length < bytes.length; length++)
+        {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> OneBlockBinaryCodec.decode(truncated));
+        }
+    }
+
+    @Test
+    void rejectsOversizedLength()
+    {
+        // Object tag followed by a length far beyond the remaining bytes.
+        byte[] bytes = {1, 7, (byte) 0xFF, (byte) 0xFF, 0x7F};
+
+        assertThrows(IOException.class, () -> OneBlockBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    void rejectsMalformedVarint()
+    {
+        byte[] bytes = new byte[13];
+        bytes[0] = 1;
+        bytes[1] = 3;
+        Arrays.fill(bytes, 2, bytes.length, (byte) 0x80);
+
+        assertThrows(IOException.class, () -> OneBlockBinaryCodec.decode(bytes));
+    }
+
+    private static JsonObject sample()
+    {
+        JsonObject value = new JsonObject();
+        value.addProperty("blocksBroken", 1234567);
+        value.addProperty("expedition", "Default");
+        value.addProperty("ratio", 0.75);
+        JsonArray slots = new JsonArray();
+        slots.add(3);
+        slots.add(-7);
+        value.add("slots", slots);
+        return value;
+    }
+}
@@ -0,0 +1,82 @@
+package com.EreliaStudio.OneBlock;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OneBlockBlockPosTest
+{
+    private static final int XZ_MIN = -(1 << 25);
+    private static final int XZ_MAX = (1 << 25) - 1;
+    private static final int Y_MIN = -(1 << 11);
+    private static final int Y_MAX = (1 << 11) - 1;
+
+    @Test
+    void roundTripsBoundaries()
+    {
+        int[] horizontal = {XZ_MIN, XZ_MIN + 1, -513, -1, 0, 1, 512, XZ_MAX - 1, XZ_MAX};
+        int[] vertical = {Y_MIN, Y_MIN + 1, -1, 0, 1, 100, 319, Y_MAX - 1, Y_MAX};
+
+        for (int x : horizontal)
+        {
+            for (int y : vertical)
+            {
+                for (int z : horizontal)
+                {
+                    long packed = OneBlockBlockPos.pack(x, y, z);
+                    assertEquals(x, OneBlockBlockPos.unpackX(packed), "x of " + x + "," + y + "," + z);
+                    assertEquals(y, OneBlockBlockPos.unpackY(packed), "y of " + x + "," + y + "," + z);
+                    assertEquals(z, OneBlockBlockPos.unpackZ(packed), "z of " + x + "," + y + "," + z);
+                }
+            }
+        }
+    }
+
+    @Test
+    void neighboursPackToDistinctKeys()
+    {
+        Set<Long> keys = new HashSet<>();
+        for (int x = -1; x <= 1; x++)
+        {
+            for (int y = -1; y <= 1; y++)
+            {
+                for (int z = -1; z <= 1; z++)
+                {
+                    keys.add(OneBlockBlockPos.pack(x, y, z));
+                    keys.add(OneBlockBlockPos.pack(XZ_MAX - 1 + x, Y_MAX - 1 + y, XZ_MIN + 1 + z));
+                }
+            }
+        }
+
+        assertEquals(54, keys.size());
+    }
+
+    @Test
+    void vectorFormsMatchScalarForms()
+    {
+        Vector3i position = new Vector3i(-12345, 100, 67890);
+        long packed = OneBlockBlockPos.pack(position);
+        Vector3i unpacked = OneBlockBlockPos.unpack(packed);
+
+        assertEquals(OneBlockBlockPos.pack(-12345, 100, 67890), packed);
+        assertEquals(position.x(), unpacked.x());
+        assertEquals(position.y(), unpacked.y());
+        assertEquals(position.z(), unpacked.z());
+    }
+
+    @Test
+    void outOfRangeCoordinatesWrap()
+    {
+        long packed = OneBlockBlockPos.pack(XZ_MAX + 1, Y_MAX + 1, XZ_MIN - 1);
+
+        assertEquals(XZ_MIN, OneBlockBlockPos.unpackX(packed));
+        assertEquals(Y_MIN, OneBlockBlockPos.unpackY(packed));
+        assertEquals(XZ_MAX, OneBlockBlockPos.unpackZ(packed));
+        assertTrue(packed != OneBlockBlockPos.pack(XZ_MAX, Y_MAX, XZ_MIN));
+    }
+}
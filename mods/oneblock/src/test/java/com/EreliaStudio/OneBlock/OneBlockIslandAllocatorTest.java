@@ -0,0 +1,139 @@
+package com.EreliaStudio.OneBlock;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OneBlockIslandAllocatorTest
+{
+    private static final int SPACING = OneBlockIslandAllocator.SPACING;
+
+    @Test
+    void spiralFillsRingsOutwardsWithoutGaps()
+    {
+        int rings = 12;
+        int slots = (2 * rings + 1) * (2 * rings + 1);
+        Vector3i main = OneBlockIslandAllocator.originOf(OneBlockIsland.MAIN_ISLAND_ID);
+        Vector3i centre = OneBlockIslandAllocator.cellOriginAt(main.x(), main.z());
+        int centreX = centre.x();
+        int centreZ = centre.z();
+
+        Set<Long> cells = new HashSet<>();
+        cells.add(0L);
+        int previousRing = 0;
+        for (int slot = 1; slot < slots; slot++)
+        {
+            Vector3i origin = OneBlockIslandAllocator.originOf(slot);
+            assertEquals(main.y(), origin.y());
+            assertEquals(0, Math.floorMod(origin.x() - centreX, SPACING), "x of slot " + slot);
+            assertEquals(0, Math.floorMod(origin.z() - centreZ, SPACING), "z of slot " + slot);
+
+            int x = (origin.x() - centreX) / SPACING;
+            int z = (origin.z() - centreZ) / SPACING;
+            int ring = Math.max(Math.abs(x), Math.abs(z));
+            assertTrue(ring >= previousRing && ring <= previousRing + 1, "slot " + slot + " jumped to ring " + ring);
+            assertTrue(cells.add(((long) x << 32) | (z & 0xFFFFFFFFL)), "slot " + slot + " reuses a cell");
+            previousRing = ring;
+        }
+
+        assertEquals(rings, previousRing);
+        assertEquals(slots, cells.size());
+    }
+
+    @Test
+    void islandsSitInTheMiddleOfAChunk()
+    {
+        for (int slot = 1; slot < 500; slot++)
+        {
+            Vector3i origin = OneBlockIslandAllocator.originOf(slot);
+            int half = OneBlockIslandAllocator.CHUNK_SIZE / 2;
+            assertEquals(half, Math.floorMod(origin.x(), OneBlockIslandAllocator.CHUNK_SIZE));
+            assertEquals(half, Math.floorMod(origin.z(), OneBlockIslandAllocator.CHUNK_SIZE));
+        }
+    }
+
+    @Test
+    void cellOriginAtFindsTheSlotAroundAPosition()
+    {
+        for (int slot = 1; slot < 500; slot++)
+        {
+            Vector3i origin = OneBlockIslandAllocator.originOf(slot);
+            int reach = SPACING / 2 - 1;
+            int[][] offsets = {{0, 0}, {reach, reach}, {-reach, -reach}, {reach, -reach}, {-reach, reach}};
+
+            for (int[] offset : offsets)
+            {
+                Vector3i found = OneBlockIslandAllocator.cellOriginAt(origin.x() + offset[0] + 0.5, origin.z() + offset[1] + 0.5);
+                assertEquals(origin.x(), found.x(), "x near slot " + slot);
+                assertEquals(origin.y(), found.y(), "y near slot " + slot);
+                assertEquals(origin.z(), found.z(), "z near slot " + slot);
+            }
+        }
+    }
+
+    @Test
+    void allocatesLowestFreeSlotAndNeverTheMainIsland()
+    {
+        OneBlockIslandAllocator allocator = new OneBlockIslandAllocator();
+        assertTrue(allocator.isUsed(OneBlockIsland.MAIN_ISLAND_ID));
+
+        for (int expected = 1; expected <= 200; expected++)
+        {
+            assertEquals(expected, allocator.allocate());
+        }
+
+        allocator.release(70);
+        allocator.release(3);
+        allocator.release(OneBlockIsland.MAIN_ISLAND_ID);
+        assertFalse(allocator.isUsed(3));
+        assertTrue(allocator.isUsed(OneBlockIsland.MAIN_ISLAND_ID));
+
+        assertEquals(3, allocator.allocate());
+        assertEquals(70, allocator.allocate());
+        assertEquals(201, allocator.allocate());
+    }
+
+    @Test
+    void markUsedGrowsAndIsSkippedByAllocate()
+    {
+        OneBlockIslandAllocator allocator = new OneBlockIslandAllocator();
+        allocator.markUsed(1);
+        allocator.markUsed(2);
+        allocator.markUsed(1000);
+
+        assertTrue(allocator.isUsed(1000));
+        assertFalse(allocator.isUsed(999));
+        assertFalse(allocator.isUsed(100_000));
+        assertEquals(3, allocator.allocate());
+    }
+
+    @Test
+    void wordsRoundTripAndDropTrailingEmptyWords()
+    {
+        OneBlockIslandAllocator allocator = new OneBlockIslandAllocator();
+        allocator.markUsed(5);
+        allocator.markUsed(130);
+        allocator.markUsed(400);
+        allocator.release(400);
+
+        long[] words = allocator.toWords();
+        assertEquals(3, words.length);
+
+        OneBlockIslandAllocator restored = OneBlockIslandAllocator.fromWords(words);
+        assertArrayEquals(words, restored.toWords());
+        assertTrue(restored.isUsed(5));
+        assertTrue(restored.isUsed(130));
+        assertFalse(restored.isUsed(400));
+        assertEquals(1, restored.allocate());
+
+        assertTrue(OneBlockIslandAllocator.fromWords(new long[0]).isUsed(OneBlockIsland.MAIN_ISLAND_ID));
+        assertTrue(OneBlockIslandAllocator.fromWords(null).isUsed(OneBlockIsland.MAIN_ISLAND_ID));
+    }
+}
@@ -0,0 +1,88 @@
+package com.EreliaStudio.OneBlock;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OneBlockIslandTest
+{
+    @Test
+    void idleMinedIslandHibernatesAndKeepsContributions()
+    {
+        UUID owner = UUID.randomUUID();
+        UUID helper = UUID.randomUUID();
+        OneBlockIslandResource islands = new OneBlockIslandResource();
+        OneBlockIsland island = islands.createIsland(owner);
+
+        // Mining auto-starts the Default expedition; its contributions stay undrained until it completes.
+        OneBlockExpeditionStateProvider.Snapshot run = island.getExpeditionState().startExpedition("Default", 100);
+        island.getContributions().record(run.runId(), owner);
+        island.getContributions().record(run.runId(), owner);
+        island.getContributions().record(run.runId(), helper);
+        island.getExpeditionState().decrementTick(run);
+
+        assertEquals(1, islands.hibernateIdle(System.currentTimeMillis() + 1));
+        assertTrue(island.isHibernated());
+        assertFalse(islands.getMainIsland().isHibernated());
+
+        OneBlockExpeditionStateProvider.Snapshot woken = island.getExpeditionState().snapshot();
+        assertFalse(island.isHibernated());
+        assertEquals(run.runId(), woken.runId());
+        assertEquals(99, woken.ticksRemaining());
+        assertEquals(Set.of(owner, helper), island.getContributions().drain(run.runId()));
+    }
+
+    @Test
+    void visitedIslandStaysAwake()
+    {
+        OneBlockIslandResource islands = new OneBlockIslandResource();
+        OneBlockIsland island = islands.createIsland(UUID.randomUUID());
+        island.markVisited(System.currentTimeMillis());
+
+        assertEquals(0, islands.hibernateIdle(island.getLastVisitMillis()));
+        assertFalse(island.isHibernated());
+    }
+
+    @Test
+    void islandWithDungeonInInstanceStaysAwake()
+    {
+        OneBlockIslandResource islands = new OneBlockIslandResource();
+        OneBlockIsland island = islands.createIsland(UUID.randomUUID());
+        island.setInDungeonInstance(true);
+
+        assertEquals(0, islands.hibernateIdle(System.currentTimeMillis() + 1));
+        assertFalse(island.isHibernated());
+    }
+
+    @Test
+    void removedGeneratorFreesItsPlaceUnderTheCap()
+    {
+        OneBlockIslandResource islands = new OneBlockIslandResource();
+        OneBlockIsland main = islands.getMainIsland();
+        for (int i = 1; i < OneBlockIsland.MAX_GENERATORS; i++)
+        {
+            islands.resolveGenerator(new Vector3i(1000 + i, 64, 0));
+        }
+
+        // Past the cap a new OneBlock shares the primary state.
+        assertSame(main.getPrimaryGenerator(), islands.resolveGenerator(new Vector3i(2000, 64, 0)));
+
+        long gone = OneBlockBlockPos.pack(1001, 64, 0);
+        assertTrue(islands.removeGenerator(gone));
+        assertNull(islands.getGeneratorAt(gone));
+        assertEquals(OneBlockIsland.MAX_GENERATORS - 1, main.getGenerators().size());
+
+        OneBlockGenerator replacement = islands.resolveGenerator(new Vector3i(2000, 64, 0));
+        assertNotSame(main.getPrimaryGenerator(), replacement);
+        assertFalse(islands.removeGenerator(OneBlockBlockPos.pack(main.getOrigin())));
+    }
+}
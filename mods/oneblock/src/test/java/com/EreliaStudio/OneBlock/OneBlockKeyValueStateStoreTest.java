@@ -0,0 +1,170 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OneBlockKeyValueStateStoreTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWritesAfterReopen() throws IOException
+    {
+        Path file = directory.resolve("state.kv");
+
+        OneBlockKeyValueStateStore store = new OneBlockKeyValueStateStore(file);
+        store.write("settings", value("fallProtection", 1));
+        store.write("players/a", value("blocks", 10));
+        store.write("players/a", value("blocks", 11));
+        store.close();
+
+        store = new OneBlockKeyValueStateStore(file);
+        assertEquals(value("fallProtection", 1), store.read("settings"));
+        assertEquals(value("blocks", 11), store.read("players/a"));
+        assertNull(store.read("players/b"));
+        assertEquals(Set.of("players/a", "settings"), store.keys());
+        store.close();
+    }
+
+    @Test
+    void deletionSurvivesReopen() throws IOException
+    {
+        Path file = directory.resolve("state.kv");
+
+        OneBlockKeyValueStateStore store = new OneBlockKeyValueStateStore(file);
+        store.write("players/a", value("blocks", 1));
+        store.write("players/b", value("blocks", 2));
+        store.delete("players/a");
+        store.delete("players/missing");
+        store.close();
+
+        store = new OneBlockKeyValueStateStore(file);
+        assertNull(store.read("players/a"));
+        assertEquals(value("blocks", 2), store.read("players/b"));
+        assertEquals(Set.of("players/b"), store.keys());
+        store.close();
+    }
+
+    @Test
+    void rejectsInvalidKeys() throws IOException
+    {
+        OneBlockKeyValueStateStore store = new OneBlockKeyValueStateStore(directory.resolve("state.kv"));
+
+        assertThrows(IllegalArgumentException.class, () -> store.write("", value("a", 1)));
+        assertThrows(IllegalArgumentException.class, () -> store.write("a/b/c", value("a", 1)));
+        assertThrows(IllegalArgumentException.class, () -> store.write("/a", value("a", 1)));
+        store.close();
+    }
+
+    @Test
+    void cutsTornTailOnOpen() throws IOException
+    {
+        Path file = directory.resolve("state.kv");
+
+        OneBlockKeyValueStateStore store = new OneBlockKeyValueStateStore(file);
+        store.write("settings", value("version", 1));
+        store.close();
+        long intact = Files.size(file);
+
+        store = new OneBlockKeyValueStateStore(file);
+        store.write("settings", value("version", 2));
+        store.close();
+
+        // Drop the last bytes of the second record, as a crash mid-write would.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.truncate(Files.size(file) - 3);
+        }
+
+        store = new OneBlockKeyValueStateStore(file);
+        assertEquals(value("version", 1), store.read("settings"));
+        assertEquals(intact, Files.size(file));
+
+        store.write("settings", value("version", 3));
+        store.close();
+
+        store = new OneBlockKeyValueStateStore(file);
+        assertEquals(value("version", 3), store.read("settings"));
+        store.close();
+    }
+
+    @Test
+    void cutsCorruptedRecordAndEverythingAfterIt() throws IOException
+    {
+        Path file = directory.resolve("state.kv");
+
+        OneBlockKeyValueStateStore store = new OneBlockKeyValueStateStore(file);
+        store.write("first", value("a", 1));
+        store.close();
+        long intact = Files.size(file);
+
+        store = new OneBlockKeyValueStateStore(file);
+        store.write("second", value("b", 2));
+        store.write("third", value("c", 3));
+        store.close();
+
+        // Flip a bit in the key of the second record: its CRC no longer matches.
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) intact + 7] ^= 0x01;
+        Files.write(file, bytes);
+
+        store = new OneBlockKeyValueStateStore(file);
+        assertEquals(value("a", 1), store.read("first"));
+        assertNull(store.read("second"));
+        assertNull(store.read("third"));
+        assertEquals(intact, Files.size(file));
+        store.close();
+    }
+
+    @Test
+    void compactionKeepsLiveValuesAndShrinksTheLog() throws IOException
+    {
+        Path file = directory.resolve("state.kv");
+        JsonObject large = value("padding", 0);
+        large.addProperty("text", "x".repeat(64 * 1024));
+
+        OneBlockKeyValueStateStore store = new OneBlockKeyValueStateStore(file);
+        store.write("settings", value("fallProtection", 1));
+        store.write("players/gone", value("blocks", 5));
+        store.delete("players/gone");
+        // 40 overwrites put 2.5 MiB through the log; compaction keeps it near its 1 MiB threshold.
+        for (int i = 0; i < 40; i++)
+        {
+            large.addProperty("padding", i);
+            store.write("players/big", large);
+            assertTrue(Files.size(file) < (1L << 20) + 2L * 64 * 1024, "log was not compacted: " + Files.size(file) + " bytes");
+        }
+
+        assertEquals(large, store.read("players/big"));
+        assertEquals(Set.of("players/big", "settings"), store.keys());
+        assertTrue(Files.notExists(directory.resolve("state.kv.compact")));
+        store.close();
+
+        store = new OneBlockKeyValueStateStore(file);
+        assertEquals(large, store.read("players/big"));
+        assertEquals(value("fallProtection", 1), store.read("settings"));
+        assertNull(store.read("players/gone"));
+        store.close();
+    }
+
+    private static JsonObject value(String key, int number)
+    {
+        JsonObject value = new JsonObject();
+        value.addProperty(key, number);
+        return value;
+    }
+}
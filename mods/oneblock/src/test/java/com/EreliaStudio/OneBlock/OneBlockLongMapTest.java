@@ -0,0 +1,138 @@
+package com.EreliaStudio.OneBlock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OneBlockLongMapTest
+{
+    @Test
+    void putGetReplaceRemove()
+    {
+        OneBlockLongMap<String> map = new OneBlockLongMap<>();
+
+        assertNull(map.put(7L, "a"));
+        assertNull(map.put(0L, "zero"));
+        assertNull(map.put(-1L, "minus"));
+        assertEquals("a", map.put(7L, "b"));
+
+        assertEquals(3, map.size());
+        assertEquals("b", map.get(7L));
+        assertEquals("zero", map.get(0L));
+        assertEquals("minus", map.get(-1L));
+        assertTrue(map.containsKey(0L));
+        assertFalse(map.containsKey(8L));
+
+        assertEquals("b", map.remove(7L));
+        assertNull(map.remove(7L));
+        assertNull(map.get(7L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void rejectsNullValues()
+    {
+        OneBlockLongMap<String> map = new OneBlockLongMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void keepsProbeRunsReachableAcrossRemovals()
+    {
+        // A small, dense table: long probe runs that wrap around the end of the array, with
+        // removals from their middle. Every remaining key must stay reachable after the shift.
+        Random random = new Random(42);
+        OneBlockLongMap<Long> map = new OneBlockLongMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++)
+        {
+            long key = random.nextInt(24) * 0x1_0000_0000L + random.nextInt(3);
+            if (random.nextInt(3) == 0)
+            {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<Long, Long> entry : expected.entrySet())
+        {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void removeIfKeepsTheRestReachable()
+    {
+        Random random = new Random(7);
+        OneBlockLongMap<Long> map = new OneBlockLongMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int round = 0; round < 200; round++)
+        {
+            for (int i = 0; i < 40; i++)
+            {
+                long key = random.nextInt(24) * 0x1_0000_0000L + random.nextInt(3);
+                map.put(key, (long) i);
+                expected.put(key, (long) i);
+            }
+
+            int parity = round & 1;
+            map.removeIf(key -> (key & 1) == parity);
+            expected.keySet().removeIf(key -> (key & 1) == parity);
+
+            assertEquals(expected.size(), map.size());
+            for (Map.Entry<Long, Long> entry : expected.entrySet())
+            {
+                assertEquals(entry.getValue(), map.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    void growsPastInitialCapacity()
+    {
+        OneBlockLongMap<Integer> map = new OneBlockLongMap<>(2);
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            map.put(OneBlockBlockPos.pack(i, i % 300, -i), i);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++)
+        {
+            assertEquals(i, map.get(OneBlockBlockPos.pack(i, i % 300, -i)));
+        }
+    }
+
+    @Test
+    void forEachAndClear()
+    {
+        OneBlockLongMap<String> map = new OneBlockLongMap<>();
+        map.put(1L, "one");
+        map.put(2L, "two");
+
+        Map<Long, String> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(Map.of(1L, "one", 2L, "two"), seen);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1L));
+    }
+}
@@ -0,0 +1,126 @@
+package com.EreliaStudio.OneBlock;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OneBlockPlayerArchiveTest
+{
+    @TempDir
+    Path directory;
+
+    @Test
+    void takeReturnsRecordOnceAndSurvivesReopen() throws IOException
+    {
+        UUID kept = new UUID(1, 1);
+        UUID taken = new UUID(2, 2);
+
+        OneBlockPlayerArchive archive = new OneBlockPlayerArchive(directory);
+        archive.put(kept, record(kept, 10));
+        archive.put(taken, record(taken, 20));
+        assertEquals(record(taken, 20), archive.take(taken));
+        assertNull(archive.take(taken));
+        archive.close();
+
+        archive = new OneBlockPlayerArchive(directory);
+        assertEquals(1, archive.size());
+        assertTrue(archive.contains(kept));
+        assertFalse(archive.contains(taken));
+        assertEquals(record(kept, 10), archive.take(kept));
+        archive.close();
+    }
+
+    @Test
+    void laterPutReplacesEarlierOne() throws IOException
+    {
+        UUID playerId = UUID.randomUUID();
+
+        OneBlockPlayerArchive archive = new OneBlockPlayerArchive(directory);
+        archive.put(playerId, record(playerId, 1));
+        archive.put(playerId, record(playerId, 2));
+        archive.close();
+
+        archive = new OneBlockPlayerArchive(directory);
+        assertEquals(1, archive.size());
+        assertEquals(record(playerId, 2), archive.take(playerId));
+        archive.close();
+    }
+
+    @Test
+    void truncatesTornTailOnOpen() throws IOException
+    {
+        UUID intact = new UUID(3, 3);
+        UUID torn = new UUID(4, 4);
+
+        OneBlockPlayerArchive archive = new OneBlockPlayerArchive(directory);
+        archive.put(intact, record(intact, 1));
+        archive.close();
+        Path segment = onlySegment();
+        long intactBytes = Files.size(segment);
+
+        archive = new OneBlockPlayerArchive(directory);
+        archive.put(torn, record(torn, 2));
+        archive.close();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE))
+        {
+            channel.truncate(Files.size(segment) - 1);
+        }
+
+        archive = new OneBlockPlayerArchive(directory);
+        assertEquals(1, archive.size());
+        assertFalse(archive.contains(torn));
+        assertEquals(intactBytes, Files.size(segment));
+        assertEquals(record(intact, 1), archive.take(intact));
+        archive.close();
+    }
+
+    @Test
+    void compressesRepetitiveRecords() throws IOException
+    {
+        UUID playerId = UUID.randomUUID();
+        JsonObject record = record(playerId, 1);
+        record.addProperty("padding", "block ".repeat(10_000));
+
+        OneBlockPlayerArchive archive = new OneBlockPlayerArchive(directory);
+        archive.put(playerId, record);
+        archive.close();
+
+        assertTrue(Files.size(onlySegment()) < OneBlockBinaryCodec.encode(record).length / 10);
+    }
+
+    private Path onlySegment() throws IOException
+    {
+        try (Stream<Path> entries = Files.list(directory))
+        {
+            List<Path> segments = entries.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static JsonObject record(UUID playerId, int blocks)
+    {
+        JsonObject progress = new JsonObject();
+        progress.addProperty("blocksBroken", blocks);
+
+        JsonObject record = new JsonObject();
+        record.addProperty("lastSeen", 1_700_000_000_000L + blocks);
+        record.addProperty("player", playerId.toString());
+        record.add("progress", progress);
+        return record;
+    }
+}